@@ -0,0 +1,198 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link RulerGeometry} work done for every frame of the scrolling ruler. Run
+ * with the gc profiler to see the allocation per frame, which must stay 0.
+ * <p>
+ * Each operation scrolls the ruler by one step and processes one screen wide frame, the same way
+ * the renderer does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RulerGeometryBenchmark {
+
+    /**
+     * Width of the visible part of the ruler in pixels.
+     */
+    private static final int FRAME_WIDTH_PX = 1080;
+
+    /**
+     * Distance between two ticks in pixels.
+     */
+    private static final int INTERVAL_PX = 20;
+
+    /**
+     * Distance the labels reach past their tick in pixels.
+     */
+    private static final int LABEL_MARGIN_PX = 40;
+
+    /**
+     * Distance the ruler moves between two frames in pixels. Not a multiple of the interval, so the
+     * frames start at the different offsets.
+     */
+    private static final int SCROLL_STEP_PX = 37;
+
+    /**
+     * Number of the values on the ruler.
+     */
+    @Param({"100", "10000", "1000000", "10000000"})
+    public int mRangeSize;
+
+    /**
+     * Interval of each tick level in values, from the finest to the coarsest. The second level
+     * displays the values.
+     */
+    @Param({"1,5", "1,5,10,50", "1,2,10,100"})
+    public String mLevelIntervals;
+
+    /**
+     * Reusable buffer of the tick positions, same as the line buffer of the renderer.
+     */
+    private float[] mTickPositions;
+
+    private RulerTickLevels mTickLevels;
+
+    /**
+     * Sum of the levels of the ticks written by {@link #putTicks(int, int, int, int)}.
+     */
+    private int mLevelSum;
+
+    private int mMaxValue;
+    private int mMaxScrollPx;
+    private int mScrollPx;
+
+    @Setup
+    public void setUp() {
+        mMaxValue = mRangeSize;
+        mMaxScrollPx = RulerGeometry.getRulerWidth(0, mMaxValue, INTERVAL_PX);
+
+        final String[] intervals = mLevelIntervals.split(",");
+        final int[] levelIntervals = new int[intervals.length];
+        for (int level = 0; level < intervals.length; level++) {
+            levelIntervals[level] = Integer.parseInt(intervals[level]);
+        }
+        mTickLevels = new RulerTickLevels(levelIntervals, 1);
+
+        //Ticks of the full periods are not written, so the buffer holds at most two partial periods.
+        mTickPositions = new float[Math.max(FRAME_WIDTH_PX / INTERVAL_PX + 2 * (LABEL_MARGIN_PX / INTERVAL_PX) + 4,
+                2 * mTickLevels.getPeriod())];
+        mScrollPx = 0;
+    }
+
+    /**
+     * @return Next scroll position. Wraps around at the end of the ruler.
+     */
+    private int nextScrollPx() {
+        mScrollPx += SCROLL_STEP_PX;
+        if (mScrollPx > mMaxScrollPx) mScrollPx = 0;
+        return mScrollPx;
+    }
+
+    /**
+     * Enumerate the visible ticks and the labels of one frame, the same way the renderer does:
+     * ticks of the partial periods at both ends are walked through the precomputed pattern of the
+     * levels, the full periods between them are counted once, and the labels are visited every
+     * label interval.
+     *
+     * @return Checksum of the frame, so the work isn't eliminated.
+     */
+    @Benchmark
+    public int visibleTicksPerFrame() {
+        final int startPx = nextScrollPx() - FRAME_WIDTH_PX / 2;
+        final int endPx = startPx + FRAME_WIDTH_PX;
+
+        final int firstTick = RulerGeometry.getFirstVisibleTick(startPx, LABEL_MARGIN_PX, INTERVAL_PX);
+        final int lastTick = RulerGeometry.getLastVisibleTick(endPx, LABEL_MARGIN_PX,
+                0, mMaxValue, INTERVAL_PX);
+        if (lastTick < firstTick) return 0;
+
+        //First tick is the finest level, so the pattern starts from the second period.
+        final int period = mTickLevels.getPeriod();
+        final int firstPeriod = mTickLevels.getFirstFullPeriod(firstTick);
+        final int lastPeriod = mTickLevels.getLastFullPeriod(lastTick);
+
+        mLevelSum = 0;
+        int count;
+        if (firstPeriod <= lastPeriod) {
+            count = putTicks(firstTick, firstPeriod * period - 1, startPx, 0);
+            count = putTicks((lastPeriod + 1) * period, lastTick, startPx, count);
+        } else {
+            count = putTicks(firstTick, lastTick, startPx, 0);
+        }
+
+        int labels = 0;
+        final int labelInterval = mTickLevels.getLabelInterval();
+        for (int tick = mTickLevels.getFirstLabelTick(firstTick); tick <= lastTick; tick += labelInterval) {
+            labels++;
+        }
+        return count + mLevelSum + labels + lastPeriod - firstPeriod;
+    }
+
+    /**
+     * Write the positions of the ticks into {@link #mTickPositions} and add their levels to
+     * {@link #mLevelSum}, walking the phase through the pattern of the levels.
+     *
+     * @param firstTick First tick to write, inclusive.
+     * @param lastTick  Last tick to write, inclusive.
+     * @param startPx   Start of the frame in pixels.
+     * @param count     Number of the positions already in the buffer.
+     * @return Number of the positions in the buffer.
+     */
+    private int putTicks(final int firstTick, final int lastTick, final int startPx, int count) {
+        if (lastTick < firstTick) return count;
+
+        final int period = mTickLevels.getPeriod();
+        int phase = mTickLevels.getPhase(firstTick);
+        for (int tick = firstTick; tick <= lastTick; tick++) {
+            mTickPositions[count++] = tick * INTERVAL_PX - startPx;
+            mLevelSum += tick == 0 ? 0 : mTickLevels.getLevelAt(phase);
+            if (++phase == period) phase = 0;
+        }
+        return count;
+    }
+
+    /**
+     * Map the scroll position to the value and back, as done for every scroll event.
+     *
+     * @return Scroll position of the selected value.
+     */
+    @Benchmark
+    public int valueMapping() {
+        final int value = RulerGeometry.getValueAt(nextScrollPx(), 0, mMaxValue, INTERVAL_PX);
+        return RulerGeometry.getScrollPxForValue(value, 0, mMaxValue, INTERVAL_PX);
+    }
+
+    /**
+     * Snap the scroll position to the nearest tick, as done at the end of every fling.
+     *
+     * @return Snapped scroll position.
+     */
+    @Benchmark
+    public int snapping() {
+        return RulerGeometry.snapScrollPx(nextScrollPx(), mMaxScrollPx, INTERVAL_PX);
+    }
+}
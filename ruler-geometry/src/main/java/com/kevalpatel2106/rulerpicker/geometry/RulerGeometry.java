@@ -0,0 +1,139 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+/**
+ * Pure Java geometry of the ruler: mapping between the values and the pixels, snapping, and the
+ * enumeration of the visible indicators and values. This class doesn't depend on the Android
+ * framework, so the math can be benchmarked and checked on the JVM.
+ * <p>
+ * Indicators are addressed by the tick index. Tick 0 is the indicator of the minimum value, and
+ * tick {@code i} is drawn {@code i * intervalPx} pixels from the start of the ruler. Levels of the
+ * indicators and the ticks with the value labels are defined by the {@link RulerTickLevels}.
+ * <p>
+ * None of the methods allocate.
+ */
+public final class RulerGeometry {
+
+    /**
+     * Number of the ticks between two long indicators of the {@link RulerTickLevels#DEFAULT}
+     * levels. Long indicators display the value.
+     */
+    public static final int LABEL_PERIOD = 5;
+
+    private RulerGeometry() {
+        //No instances.
+    }
+
+    /**
+     * @param minValue   Minimum value of the ruler.
+     * @param maxValue   Maximum value of the ruler.
+     * @param intervalPx Distance between two ticks in pixels.
+     * @return Width of the whole ruler in pixels. This is also the maximum scroll position.
+     */
+    public static int getRulerWidth(final int minValue,
+                                    final int maxValue,
+                                    final int intervalPx) {
+        return (maxValue - minValue - 1) * intervalPx;
+    }
+
+    /**
+     * @param scrollPx   Position of the ruler under the notch in pixels.
+     * @param minValue   Minimum value of the ruler.
+     * @param maxValue   Maximum value of the ruler.
+     * @param intervalPx Distance between two ticks in pixels.
+     * @return Value selected at the given position, clamped to the range.
+     */
+    public static int getValueAt(final int scrollPx,
+                                 final int minValue,
+                                 final int maxValue,
+                                 final int intervalPx) {
+        final int value = minValue + scrollPx / intervalPx;
+
+        if (value > maxValue) {
+            return maxValue;
+        } else if (value < minValue) {
+            return minValue;
+        } else {
+            return value;
+        }
+    }
+
+    /**
+     * @param value      Value to select. Values outside the range are clamped to the range.
+     * @param minValue   Minimum value of the ruler.
+     * @param maxValue   Maximum value of the ruler.
+     * @param intervalPx Distance between two ticks in pixels.
+     * @return Position of the ruler, that selects the given value.
+     */
+    public static int getScrollPxForValue(final int value,
+                                          final int minValue,
+                                          final int maxValue,
+                                          final int intervalPx) {
+        final int valuesToScroll;
+        if (value < minValue) {
+            valuesToScroll = 0;
+        } else if (value > maxValue) {
+            valuesToScroll = maxValue - minValue;
+        } else {
+            valuesToScroll = value - minValue;
+        }
+        return valuesToScroll * intervalPx;
+    }
+
+    /**
+     * @param scrollPx    Position of the ruler in pixels.
+     * @param maxScrollPx Maximum position of the ruler in pixels.
+     * @param intervalPx  Snap interval in pixels or 0 to only clamp the position.
+     * @return Nearest position between 0 and the maximum position, that is a multiple of the
+     * interval.
+     */
+    public static int snapScrollPx(final int scrollPx,
+                                   final int maxScrollPx,
+                                   final int intervalPx) {
+        final int clampedPx = Math.max(0, Math.min(scrollPx, maxScrollPx));
+        if (intervalPx <= 0) return clampedPx;
+
+        final int snappedPx = (clampedPx + intervalPx / 2) / intervalPx * intervalPx;
+        return Math.min(snappedPx, maxScrollPx / intervalPx * intervalPx);
+    }
+
+    /**
+     * @param startPx    Start of the visible part of the ruler in pixels.
+     * @param marginPx   Distance the labels reach past their tick in pixels.
+     * @param intervalPx Distance between two ticks in pixels.
+     * @return Index of the first tick, that is visible or has a visible label.
+     */
+    public static int getFirstVisibleTick(final int startPx,
+                                          final int marginPx,
+                                          final int intervalPx) {
+        return Math.max(0, (startPx - marginPx) / intervalPx);
+    }
+
+    /**
+     * @param endPx      End of the visible part of the ruler in pixels.
+     * @param marginPx   Distance the labels reach past their tick in pixels.
+     * @param minValue   Minimum value of the ruler.
+     * @param maxValue   Maximum value of the ruler.
+     * @param intervalPx Distance between two ticks in pixels.
+     * @return Index of the last tick, that is visible or has a visible label. Less than the first
+     * visible tick if nothing is visible.
+     */
+    public static int getLastVisibleTick(final int endPx,
+                                         final int marginPx,
+                                         final int minValue,
+                                         final int maxValue,
+                                         final int intervalPx) {
+        return Math.min(maxValue - minValue - 1, (endPx + marginPx) / intervalPx + 1);
+    }
+}
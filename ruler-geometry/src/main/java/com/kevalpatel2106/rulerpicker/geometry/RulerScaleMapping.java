@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+/**
+ * Non-linear scale of the ruler. Maps each value to a coordinate, and the indicators are placed
+ * proportionally to the coordinates of their values. e.g. the logarithm gives more space to the
+ * low values.
+ * <p>
+ * The mapping is evaluated once per value when the {@link RulerTickTable} is built, never while
+ * drawing or scrolling.
+ *
+ * @see RulerScaleMappings
+ * @see RulerTickTable
+ */
+public interface RulerScaleMapping {
+
+    /**
+     * @param value Value of the ruler.
+     * @return Coordinate of the value. Must be finite and must not decrease as the value grows.
+     */
+    double map(long value);
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+/**
+ * Common {@link RulerScaleMapping}s.
+ */
+public final class RulerScaleMappings {
+
+    private RulerScaleMappings() {
+        //No instances.
+    }
+
+    /**
+     * @return Logarithmic mapping. All the values of the ruler must be positive.
+     */
+    public static RulerScaleMapping logarithmic() {
+        return new RulerScaleMapping() {
+            @Override
+            public double map(final long value) {
+                return Math.log(value);
+            }
+        };
+    }
+
+    /**
+     * Create the mapping, that is linear between the given breakpoints. e.g. the breakpoints
+     * {0, 10, 100} with the coordinates {0, 1, 2} give the same space to the values from 0 to 10 as
+     * to the values from 10 to 100. Values outside the breakpoints continue the first or the last
+     * segment.
+     *
+     * @param values      Values of the breakpoints, in increasing order.
+     * @param coordinates Coordinates of the breakpoints, in non-decreasing order.
+     * @return Piecewise linear mapping.
+     * @throws IllegalArgumentException if there are less than 2 breakpoints, the lengths are
+     *                                  different or the order is wrong.
+     */
+    public static RulerScaleMapping piecewiseLinear(final long[] values, final double[] coordinates) {
+        if (values.length < 2 || values.length != coordinates.length) {
+            throw new IllegalArgumentException("At least 2 breakpoints with the coordinates required.");
+        }
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] <= values[i - 1] || coordinates[i] < coordinates[i - 1]) {
+                throw new IllegalArgumentException("Breakpoints must be in increasing order.");
+            }
+        }
+
+        final long[] breakpoints = values.clone();
+        final double[] breakpointCoordinates = coordinates.clone();
+        return new RulerScaleMapping() {
+            @Override
+            public double map(final long value) {
+                //Index of the segment containing the value.
+                int low = 0;
+                int high = breakpoints.length - 2;
+                while (low < high) {
+                    final int mid = (low + high + 1) >>> 1;
+                    if (breakpoints[mid] <= value) {
+                        low = mid;
+                    } else {
+                        high = mid - 1;
+                    }
+                }
+
+                final double ratio = (double) (value - breakpoints[low])
+                        / (breakpoints[low + 1] - breakpoints[low]);
+                return breakpointCoordinates[low]
+                        + ratio * (breakpointCoordinates[low + 1] - breakpointCoordinates[low]);
+            }
+        };
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchy of the tick levels of the ruler, e.g. the ticks of every value, every 5th, every 10th
+ * and every 50th value. Interval of each level is a multiple of the interval of the previous
+ * level, so the pattern of the levels repeats every {@link #getPeriod()} ticks. The level of each
+ * tick of one period is precomputed into a table, so the draw loop reads the level of the next
+ * tick from the table instead of testing the intervals one by one.
+ * <p>
+ * Tick 0 is the finest level and has no label, same as in {@link RulerGeometry}. Ticks of the
+ * {@link #getLabelLevel()} and coarser levels display the value.
+ * <p>
+ * Instances are immutable, so the levels can be shared with the background threads.
+ */
+public final class RulerTickLevels {
+
+    /**
+     * Maximum number of the ticks in one period of the pattern.
+     */
+    public static final int MAX_PERIOD = 10000;
+
+    /**
+     * Short indicator for every value and long indicator with the value for every
+     * {@link RulerGeometry#LABEL_PERIOD}th value.
+     */
+    public static final RulerTickLevels DEFAULT = new RulerTickLevels(new int[]{1, RulerGeometry.LABEL_PERIOD}, 1);
+
+    /**
+     * Interval of each level in ticks, from the finest to the coarsest.
+     */
+    private final int[] mIntervals;
+
+    private final int mLabelLevel;
+
+    /**
+     * Level of each tick of one period. Tick {@code i} of the period is the tick
+     * {@code i % getPeriod()} of the table.
+     */
+    private final byte[] mPattern;
+
+    /**
+     * Create the levels.
+     *
+     * @param intervals  Interval of each level in ticks, from the finest to the coarsest. The
+     *                   first interval must be 1 and each interval must be a multiple of the
+     *                   previous one. The last interval is the period and must not be greater
+     *                   than {@link #MAX_PERIOD}. Array is copied.
+     * @param labelLevel Index of the finest level, that displays the values.
+     * @throws IllegalArgumentException if any parameter is not valid.
+     */
+    public RulerTickLevels(final int[] intervals, final int labelLevel) {
+        if (intervals.length == 0 || intervals.length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Number of the tick levels must be between 1 and " + Byte.MAX_VALUE + ".");
+        }
+        if (intervals[0] != 1) throw new IllegalArgumentException("Interval of the first level must be 1.");
+        for (int level = 1; level < intervals.length; level++) {
+            if (intervals[level] <= intervals[level - 1] || intervals[level] % intervals[level - 1] != 0) {
+                throw new IllegalArgumentException("Level interval must be a multiple of the previous one. Level: " + level);
+            }
+        }
+        if (intervals[intervals.length - 1] > MAX_PERIOD) {
+            throw new IllegalArgumentException("Interval of the last level cannot be greater than " + MAX_PERIOD + ".");
+        }
+        if (labelLevel < 0 || labelLevel >= intervals.length) {
+            throw new IllegalArgumentException("Label level must be one of the levels.");
+        }
+
+        mIntervals = intervals.clone();
+        mLabelLevel = labelLevel;
+
+        //Coarser levels overwrite the ticks they share with the finer levels.
+        mPattern = new byte[getPeriod()];
+        for (int level = 1; level < intervals.length; level++) {
+            for (int tick = 0; tick < mPattern.length; tick += intervals[level]) {
+                mPattern[tick] = (byte) level;
+            }
+        }
+    }
+
+    /**
+     * @return Number of the levels.
+     */
+    public int getLevelCount() {
+        return mIntervals.length;
+    }
+
+    /**
+     * @param level Index of the level, 0 for the finest.
+     * @return Interval of the level in ticks.
+     */
+    public int getInterval(final int level) {
+        return mIntervals[level];
+    }
+
+    /**
+     * @return Index of the finest level, that displays the values.
+     */
+    public int getLabelLevel() {
+        return mLabelLevel;
+    }
+
+    /**
+     * @return Number of the ticks between two values.
+     */
+    public int getLabelInterval() {
+        return mIntervals[mLabelLevel];
+    }
+
+    /**
+     * @return Number of the ticks in one period of the pattern. This is the interval of the
+     * coarsest level.
+     */
+    public int getPeriod() {
+        return mIntervals[mIntervals.length - 1];
+    }
+
+    /**
+     * @param tick Index of the tick. Must not be negative.
+     * @return Position of the tick in the period. Walk the ticks by incrementing the phase and
+     * wrapping it at {@link #getPeriod()}.
+     * @see #getLevelAt(int)
+     */
+    public int getPhase(final int tick) {
+        return tick % mPattern.length;
+    }
+
+    /**
+     * @param phase Position of the tick in the period.
+     * @return Level of the tick at the position. Tick 0 is an exception: it is always level 0.
+     * @see #getPhase(int)
+     */
+    public int getLevelAt(final int phase) {
+        return mPattern[phase];
+    }
+
+    /**
+     * @param tick Index of the tick. Must not be negative.
+     * @return Level of the tick.
+     */
+    public int getLevel(final int tick) {
+        return tick == 0 ? 0 : mPattern[tick % mPattern.length];
+    }
+
+    /**
+     * @param firstTick Index of the first visible tick.
+     * @return Index of the first tick with the value at or after the given tick. Following values
+     * are {@link #getLabelInterval()} ticks apart.
+     */
+    public int getFirstLabelTick(final int firstTick) {
+        final int labelInterval = getLabelInterval();
+        return Math.max(1, (firstTick + labelInterval - 1) / labelInterval) * labelInterval;
+    }
+
+    /**
+     * Period {@code p} is the ticks from {@code p * getPeriod()} to
+     * {@code (p + 1) * getPeriod() - 1}. The first period is never full, because its first tick
+     * is the finest level.
+     *
+     * @param firstTick Index of the first visible tick.
+     * @return Index of the first period with all the ticks visible.
+     */
+    public int getFirstFullPeriod(final int firstTick) {
+        return Math.max(1, (firstTick + getPeriod() - 1) / getPeriod());
+    }
+
+    /**
+     * @param lastTick Index of the last visible tick.
+     * @return Index of the last period with all the ticks visible. Less than the first full
+     * period if there is no full period.
+     * @see #getFirstFullPeriod(int)
+     */
+    public int getLastFullPeriod(final int lastTick) {
+        return (lastTick + 1) / getPeriod() - 1;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RulerTickLevels)) return false;
+
+        final RulerTickLevels that = (RulerTickLevels) o;
+        return mLabelLevel == that.mLabelLevel && Arrays.equals(mIntervals, that.mIntervals);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(mIntervals) + mLabelLevel;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+/**
+ * Precomputed positions of the indicators of the non-linear ruler. Positions are computed from
+ * the {@link RulerScaleMapping} once, so drawing is a table lookup per indicator and the hit test
+ * is a binary search, without evaluating the mapping.
+ * <p>
+ * Ruler has the same width as the linear ruler with the same range and interval. Tick
+ * {@code i} is the indicator of the value {@code minValue + i}, same as in {@link RulerGeometry}.
+ * Positions are whole pixels, so each value must get its own pixel to be selectable: mappings,
+ * that put two consecutive values on the same pixel, are rejected. The table takes 4 bytes per
+ * value.
+ * <p>
+ * Instances are immutable, so the table can be shared with the background threads.
+ */
+public final class RulerTickTable {
+
+    /**
+     * Position of each tick in pixels from the start of the ruler. Strictly increases.
+     */
+    private final int[] mPositions;
+
+    private RulerTickTable(final int[] positions) {
+        mPositions = positions;
+    }
+
+    /**
+     * Compute the positions of the ticks.
+     *
+     * @param minValue   Minimum value of the ruler.
+     * @param maxValue   Maximum value of the ruler.
+     * @param intervalPx Average distance between two ticks in pixels.
+     * @param mapping    {@link RulerScaleMapping} to place the ticks with.
+     * @return Table of the positions.
+     * @throws IllegalArgumentException if the mapping is not finite or decreases over the range,
+     *                                  or two consecutive values map to the same pixel.
+     */
+    public static RulerTickTable create(final int minValue,
+                                        final int maxValue,
+                                        final int intervalPx,
+                                        final RulerScaleMapping mapping) {
+        final int tickCount = Math.max(1, maxValue - minValue);
+        final int rulerWidth = Math.max(0, RulerGeometry.getRulerWidth(minValue, maxValue, intervalPx));
+        final int[] positions = new int[tickCount];
+
+        final double first = mapping.map(minValue);
+        final double last = mapping.map((long) minValue + tickCount - 1);
+        if (tickCount > 1 && !(last > first)) {
+            throw new IllegalArgumentException("Scale mapping must increase over the range.");
+        }
+
+        double previous = first;
+        for (int tick = 0; tick < tickCount; tick++) {
+            final double coordinate = mapping.map((long) minValue + tick);
+            if (Double.isNaN(coordinate) || Double.isInfinite(coordinate) || coordinate < previous) {
+                throw new IllegalArgumentException("Scale mapping must be finite and must not decrease. Value: "
+                        + ((long) minValue + tick));
+            }
+            previous = coordinate;
+            positions[tick] = tickCount > 1
+                    ? (int) Math.round((coordinate - first) / (last - first) * rulerWidth)
+                    : 0;
+
+            //Values on the same pixel could never be selected.
+            if (tick > 0 && positions[tick] == positions[tick - 1]) {
+                throw new IllegalArgumentException("Scale mapping places the values "
+                        + ((long) minValue + tick - 1) + " and " + ((long) minValue + tick)
+                        + " on the same pixel. Increase the interval or narrow the range.");
+            }
+        }
+        return new RulerTickTable(positions);
+    }
+
+    /**
+     * @return Number of the ticks.
+     */
+    public int getTickCount() {
+        return mPositions.length;
+    }
+
+    /**
+     * @return Width of the ruler in pixels. This is the position of the last tick.
+     */
+    public int getRulerWidth() {
+        return mPositions[mPositions.length - 1];
+    }
+
+    /**
+     * @param tick Index of the tick. Clamped to the range of the ticks.
+     * @return Position of the tick in pixels.
+     */
+    public int getPosition(final int tick) {
+        return mPositions[Math.max(0, Math.min(tick, mPositions.length - 1))];
+    }
+
+    /**
+     * @param px Position on the ruler in pixels.
+     * @return Last tick at or before the position, or 0 if the position is before the first tick.
+     */
+    public int getTickAtOrBefore(final int px) {
+        int low = 0;
+        int high = mPositions.length - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (mPositions[mid] <= px) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param px Position on the ruler in pixels.
+     * @return First tick at or after the position, or {@link #getTickCount()} if the position is
+     * after the last tick.
+     */
+    public int getFirstTickAtOrAfter(final int px) {
+        int low = 0;
+        int high = mPositions.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (mPositions[mid] >= px) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param px Position on the ruler in pixels.
+     * @return Tick nearest to the position.
+     */
+    public int getNearestTick(final int px) {
+        final int before = getTickAtOrBefore(px);
+        if (before == mPositions.length - 1) return before;
+        return px - mPositions[before] <= mPositions[before + 1] - px ? before : before + 1;
+    }
+
+    /**
+     * @param px Position on the ruler in pixels.
+     * @return Position of the tick nearest to the given position.
+     */
+    public int snap(final int px) {
+        return mPositions[getNearestTick(px)];
+    }
+}
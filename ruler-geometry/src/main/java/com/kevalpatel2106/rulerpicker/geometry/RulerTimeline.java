@@ -0,0 +1,238 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+/**
+ * Geometry of the timeline ruler with the 64 bit values, e.g. the epoch milliseconds. Positions
+ * on the timeline are 64 bit pixels, so the ranges of many years never overflow. Each pixel is
+ * {@link #getUnitsPerPx()} units of the value.
+ * <p>
+ * Ticks form a hierarchy of levels, e.g. the minutes, the hours and the days. Interval of each
+ * level is a multiple of the interval of the previous level, so a tick of a level is also a tick
+ * of all the finer levels. Ticks are the multiples of the interval counted from the tick origin.
+ * Nothing is precomputed for the range: ticks are found only for the visible window.
+ * <p>
+ * Instances are immutable, so the timeline can be shared with the background threads.
+ */
+public final class RulerTimeline {
+
+    private final long mMinValue;
+
+    private final long mMaxValue;
+
+    private final long mUnitsPerPx;
+
+    /**
+     * Interval of each level in the units of the value, from the finest to the coarsest.
+     */
+    private final long[] mLevelIntervals;
+
+    private final long mTickOrigin;
+
+    /**
+     * Create the timeline with the ticks counted from 0.
+     *
+     * @see #RulerTimeline(long, long, long, long[], long)
+     */
+    public RulerTimeline(final long minValue,
+                         final long maxValue,
+                         final long unitsPerPx,
+                         final long[] levelIntervals) {
+        this(minValue, maxValue, unitsPerPx, levelIntervals, 0);
+    }
+
+    /**
+     * Create the timeline.
+     *
+     * @param minValue       Value at the left end of the timeline.
+     * @param maxValue       Value at the right end of the timeline. Must be greater than the
+     *                       minimum value, and the difference must fit into the long.
+     * @param unitsPerPx     Units of the value per pixel. Must be positive.
+     * @param levelIntervals Interval of each tick level, from the finest to the coarsest. Each
+     *                       interval must be a multiple of the previous one. Array is copied.
+     * @param tickOrigin     Value the ticks are counted from, e.g. the offset of the time zone
+     *                       to put the day ticks at the local midnight.
+     * @throws IllegalArgumentException if any parameter is not valid.
+     */
+    public RulerTimeline(final long minValue,
+                         final long maxValue,
+                         final long unitsPerPx,
+                         final long[] levelIntervals,
+                         final long tickOrigin) {
+        if (maxValue <= minValue || maxValue - minValue <= 0) {
+            throw new IllegalArgumentException("Max value must be greater than min value and the range must fit into the long.");
+        }
+        if (unitsPerPx <= 0) throw new IllegalArgumentException("Units per pixel must be positive.");
+        if (levelIntervals.length == 0) throw new IllegalArgumentException("Timeline needs at least one tick level.");
+        for (int level = 0; level < levelIntervals.length; level++) {
+            if (levelIntervals[level] <= 0) {
+                throw new IllegalArgumentException("Level interval must be positive. Level: " + level);
+            }
+            if (level > 0 && (levelIntervals[level] <= levelIntervals[level - 1]
+                    || levelIntervals[level] % levelIntervals[level - 1] != 0)) {
+                throw new IllegalArgumentException("Level interval must be a multiple of the previous one. Level: " + level);
+            }
+        }
+
+        mMinValue = minValue;
+        mMaxValue = maxValue;
+        mUnitsPerPx = unitsPerPx;
+        mLevelIntervals = levelIntervals.clone();
+        mTickOrigin = tickOrigin;
+    }
+
+    /**
+     * @param unitsPerPx Units of the value per pixel. Must be positive.
+     * @return Timeline with the same range and levels, and the given resolution.
+     * @throws IllegalArgumentException if the resolution is not positive.
+     */
+    public RulerTimeline withUnitsPerPx(final long unitsPerPx) {
+        return new RulerTimeline(mMinValue, mMaxValue, unitsPerPx, mLevelIntervals, mTickOrigin);
+    }
+
+    /**
+     * @return Value at the left end of the timeline.
+     */
+    public long getMinValue() {
+        return mMinValue;
+    }
+
+    /**
+     * @return Value at the right end of the timeline.
+     */
+    public long getMaxValue() {
+        return mMaxValue;
+    }
+
+    /**
+     * @return Units of the value per pixel.
+     */
+    public long getUnitsPerPx() {
+        return mUnitsPerPx;
+    }
+
+    /**
+     * @return Value the ticks are counted from.
+     */
+    public long getTickOrigin() {
+        return mTickOrigin;
+    }
+
+    /**
+     * @return Number of the tick levels.
+     */
+    public int getLevelCount() {
+        return mLevelIntervals.length;
+    }
+
+    /**
+     * @param level Index of the level, 0 for the finest.
+     * @return Interval of the level in the units of the value.
+     */
+    public long getLevelInterval(final int level) {
+        return mLevelIntervals[level];
+    }
+
+    /**
+     * @return Width of the timeline in pixels. This is the maximum scroll position.
+     */
+    public long getWidthPx() {
+        return (mMaxValue - mMinValue) / mUnitsPerPx;
+    }
+
+    /**
+     * @param scrollPx Position on the timeline in pixels. Clamped to the timeline.
+     * @return Value at the position.
+     */
+    public long getValueAt(final long scrollPx) {
+        return mMinValue + Math.max(0, Math.min(scrollPx, getWidthPx())) * mUnitsPerPx;
+    }
+
+    /**
+     * @param value Value to find. Clamped to the range of the timeline.
+     * @return Position of the pixel nearest to the value.
+     */
+    public long getScrollPxForValue(final long value) {
+        final long offset = Math.max(mMinValue, Math.min(value, mMaxValue)) - mMinValue;
+        final long px = offset / mUnitsPerPx + (offset % mUnitsPerPx >= (mUnitsPerPx + 1) / 2 ? 1 : 0);
+        return Math.min(px, getWidthPx());
+    }
+
+    /**
+     * @param value Position on the timeline in the units of the value.
+     * @return Position on the timeline in pixels, rounded down. Not clamped.
+     */
+    public long toPx(final long value) {
+        return floorDiv(value - mMinValue, mUnitsPerPx);
+    }
+
+    /**
+     * @param minSpacingPx Minimum distance between two ticks in pixels.
+     * @return Finest level whose ticks are at least the given distance apart, or
+     * {@link #getLevelCount()} if the ticks of all the levels are closer.
+     */
+    public int getFinestLevel(final long minSpacingPx) {
+        for (int level = 0; level < mLevelIntervals.length; level++) {
+            if (mLevelIntervals[level] / mUnitsPerPx >= minSpacingPx) return level;
+        }
+        return mLevelIntervals.length;
+    }
+
+    /**
+     * @param value Value to start from.
+     * @param level Index of the level.
+     * @return First tick of the level at or after the value. This may be past the maximum value.
+     * If the tick is past {@link Long#MAX_VALUE}, {@link Long#MAX_VALUE} is returned.
+     */
+    public long getFirstTickAtOrAfter(final long value, final int level) {
+        final long interval = mLevelIntervals[level];
+        final long remainder = getTickRemainder(value, interval);
+        if (remainder == 0) return value;
+
+        final long distance = interval - remainder;
+        return value > Long.MAX_VALUE - distance ? Long.MAX_VALUE : value + distance;
+    }
+
+    /**
+     * @param value Tick of the finest level.
+     * @return Coarsest level the tick belongs to. Use this outside the draw loop: the loop walks
+     * the ticks of each level instead.
+     */
+    public int getTickLevel(final long value) {
+        for (int level = mLevelIntervals.length - 1; level > 0; level--) {
+            if (getTickRemainder(value, mLevelIntervals[level]) == 0) return level;
+        }
+        return 0;
+    }
+
+    /**
+     * The value and the tick origin are reduced separately, so the distance between them never
+     * overflows, even with the values at both ends of the long range.
+     *
+     * @param value    Value on the timeline.
+     * @param interval Interval of the ticks.
+     * @return Distance of the value from the last tick at or before it, less than the interval.
+     */
+    private long getTickRemainder(final long value, final long interval) {
+        return floorMod(floorMod(value, interval) - floorMod(mTickOrigin, interval), interval);
+    }
+
+    private static long floorDiv(final long dividend, final long divisor) {
+        final long quotient = dividend / divisor;
+        return (dividend % divisor != 0 && (dividend < 0) != (divisor < 0)) ? quotient - 1 : quotient;
+    }
+
+    private static long floorMod(final long dividend, final long divisor) {
+        return dividend - floorDiv(dividend, divisor) * divisor;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+/**
+ * Fixed point scale of the ruler values. Each value of the ruler is a whole number of steps.
+ * Displayed value of the value {@code v} is {@code v * step / 10^precision}, stored as the fixed
+ * point {@code long} {@code v * step}. e.g. with the precision 1 and the step 5, the value 25 is
+ * displayed as "12.5" and its fixed point value is 125.
+ * <p>
+ * Conversions and formatting use only the integer arithmetic, so there is no rounding drift on
+ * the long rulers. None of the methods allocate.
+ * <p>
+ * Instances are immutable.
+ */
+public final class RulerValueScale {
+
+    /**
+     * Scale of the plain integers: precision 0 and step 1.
+     */
+    public static final RulerValueScale INTEGER = new RulerValueScale(0, 1);
+
+    /**
+     * Maximum number of the decimal places.
+     */
+    public static final int MAX_PRECISION = 9;
+
+    /**
+     * Length of the buffer, that fits any formatted value.
+     *
+     * @see #format(long, char[])
+     */
+    public static final int MAX_LABEL_LENGTH = 24;
+
+    private final int mPrecision;
+
+    private final long mStep;
+
+    /**
+     * Create the scale.
+     *
+     * @param precision Number of the decimal places of the displayed values, from 0 to
+     *                  {@link #MAX_PRECISION}.
+     * @param step      Distance between two values in the units of the last decimal place. e.g.
+     *                  5 with the precision 1 is the step of 0.5.
+     * @throws IllegalArgumentException if the precision is out of range or the step is not
+     *                                  positive or larger than {@link Integer#MAX_VALUE}.
+     */
+    public RulerValueScale(final int precision, final long step) {
+        if (precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between 0 and " + MAX_PRECISION + ".");
+        }
+        if (step <= 0 || step > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Step must be positive and fit into int.");
+        }
+        mPrecision = precision;
+        mStep = step;
+    }
+
+    /**
+     * @return Number of the decimal places of the displayed values.
+     */
+    public int getPrecision() {
+        return mPrecision;
+    }
+
+    /**
+     * @return Distance between two values in the units of the last decimal place.
+     */
+    public long getStep() {
+        return mStep;
+    }
+
+    /**
+     * @param value Value of the ruler, in steps.
+     * @return Fixed point value in the units of the last decimal place.
+     */
+    public long toFixedPoint(final long value) {
+        return value * mStep;
+    }
+
+    /**
+     * @param fixedPoint Fixed point value in the units of the last decimal place.
+     * @return Nearest value of the ruler, in steps. Halves are rounded up.
+     */
+    public long toValue(final long fixedPoint) {
+        return floorDiv(fixedPoint + mStep / 2, mStep);
+    }
+
+    /**
+     * Write the fixed point value as the decimal number with exactly {@link #getPrecision()}
+     * decimal places, e.g. "12.5", "-0.5" or "100".
+     *
+     * @param fixedPoint Fixed point value in the units of the last decimal place.
+     * @param out        Buffer to write to, starting at index 0. Must have at least
+     *                   {@link #MAX_LABEL_LENGTH} characters.
+     * @return Number of characters written.
+     */
+    public int format(final long fixedPoint, final char[] out) {
+        //Count with the negative numbers, so Long.MIN_VALUE doesn't overflow.
+        long remaining = fixedPoint > 0 ? -fixedPoint : fixedPoint;
+        int index = out.length;
+
+        for (int i = 0; i < mPrecision; i++) {
+            out[--index] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        }
+        if (mPrecision > 0) out[--index] = '.';
+        do {
+            out[--index] = (char) ('0' - remaining % 10);
+            remaining /= 10;
+        } while (remaining < 0);
+        if (fixedPoint < 0) out[--index] = '-';
+
+        final int length = out.length - index;
+        System.arraycopy(out, index, out, 0, length);
+        return length;
+    }
+
+    private static long floorDiv(final long dividend, final long divisor) {
+        final long quotient = dividend / divisor;
+        return (dividend % divisor != 0 && (dividend < 0) != (divisor < 0)) ? quotient - 1 : quotient;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RulerValueScale)) return false;
+
+        final RulerValueScale that = (RulerValueScale) o;
+        return mPrecision == that.mPrecision && mStep == that.mStep;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * mPrecision + (int) (mStep ^ (mStep >>> 32));
+    }
+}
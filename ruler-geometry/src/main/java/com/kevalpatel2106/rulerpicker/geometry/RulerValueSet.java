@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+/**
+ * Sorted set of the values to pick from, e.g. the shoe sizes or the standard resistor values. Each
+ * entry gets its own indicator, so the value of the ruler is the index of the entry. Entries are
+ * the fixed point values of the {@link RulerValueScale}, e.g. 47 for 4.7 with the precision 1.
+ * <p>
+ * Entries are stored in a primitive array and looked up by the binary search, so the set never
+ * boxes the values. Instances are immutable, so the set can be shared with the background threads.
+ */
+public final class RulerValueSet {
+
+    private final long[] mValues;
+
+    /**
+     * Create the set.
+     *
+     * @param values Entries in the strictly increasing order. Array is copied.
+     * @throws IllegalArgumentException if the array is empty or not strictly increasing.
+     */
+    public RulerValueSet(final long[] values) {
+        if (values.length == 0) throw new IllegalArgumentException("Value set cannot be empty.");
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] <= values[i - 1]) {
+                throw new IllegalArgumentException("Value set must be strictly increasing. Index: " + i);
+            }
+        }
+        mValues = values.clone();
+    }
+
+    /**
+     * @return Number of the entries.
+     */
+    public int size() {
+        return mValues.length;
+    }
+
+    /**
+     * @param index Index of the entry. Clamped to the range of the entries.
+     * @return Entry at the index.
+     */
+    public long get(final int index) {
+        return mValues[Math.max(0, Math.min(index, mValues.length - 1))];
+    }
+
+    /**
+     * @param value Value to look up.
+     * @return Index of the entry nearest to the value. If two entries are equally near, the lower
+     * one is returned.
+     */
+    public int indexOfNearest(final long value) {
+        int low = 0;
+        int high = mValues.length - 1;
+        while (low < high) {
+            final int mid = (low + high + 1) >>> 1;
+            if (mValues[mid] <= value) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        //low is the last entry at or before the value, or 0 if the value is before all entries.
+        if (low == mValues.length - 1 || mValues[low] >= value) return low;
+        return value - mValues[low] <= mValues[low + 1] - value ? low : low + 1;
+    }
+
+    /**
+     * @return Copy of the entries.
+     */
+    public long[] toArray() {
+        return mValues.clone();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Mapping between the values and the pixels, snapping and the visible ticks of the
+ * {@link RulerGeometry}.
+ */
+public class RulerGeometryTest {
+
+    private static final int MIN_VALUE = -20;
+
+    private static final int MAX_VALUE = 80;
+
+    private static final int INTERVAL_PX = 14;
+
+    private static final int RULER_WIDTH_PX = RulerGeometry.getRulerWidth(MIN_VALUE, MAX_VALUE, INTERVAL_PX);
+
+    @Test
+    public void rulerWidthCoversTheTicks() {
+        //Ticks of the values from the minimum to the one before the maximum.
+        assertEquals((MAX_VALUE - MIN_VALUE - 1) * INTERVAL_PX, RULER_WIDTH_PX);
+    }
+
+    @Test
+    public void valueRoundTripsThroughThePixels() {
+        for (int value = MIN_VALUE; value < MAX_VALUE; value++) {
+            final int scrollPx = RulerGeometry.getScrollPxForValue(value, MIN_VALUE, MAX_VALUE, INTERVAL_PX);
+            assertEquals((value - MIN_VALUE) * INTERVAL_PX, scrollPx);
+            assertEquals(value, RulerGeometry.getValueAt(scrollPx, MIN_VALUE, MAX_VALUE, INTERVAL_PX));
+
+            //Any pixel before the next tick selects the same value.
+            assertEquals(value, RulerGeometry.getValueAt(scrollPx + INTERVAL_PX - 1,
+                    MIN_VALUE, MAX_VALUE, INTERVAL_PX));
+        }
+    }
+
+    @Test
+    public void valuesOutsideTheRangeAreClamped() {
+        assertEquals(0, RulerGeometry.getScrollPxForValue(MIN_VALUE - 1, MIN_VALUE, MAX_VALUE, INTERVAL_PX));
+        assertEquals(0, RulerGeometry.getScrollPxForValue(Integer.MIN_VALUE, MIN_VALUE, MAX_VALUE, INTERVAL_PX));
+        assertEquals((MAX_VALUE - MIN_VALUE) * INTERVAL_PX,
+                RulerGeometry.getScrollPxForValue(MAX_VALUE + 1, MIN_VALUE, MAX_VALUE, INTERVAL_PX));
+
+        assertEquals(MIN_VALUE, RulerGeometry.getValueAt(-1, MIN_VALUE, MAX_VALUE, INTERVAL_PX));
+        assertEquals(MIN_VALUE, RulerGeometry.getValueAt(-10 * INTERVAL_PX, MIN_VALUE, MAX_VALUE, INTERVAL_PX));
+        assertEquals(MAX_VALUE, RulerGeometry.getValueAt(RULER_WIDTH_PX + 10 * INTERVAL_PX,
+                MIN_VALUE, MAX_VALUE, INTERVAL_PX));
+    }
+
+    @Test
+    public void snapsToTheNearestTick() {
+        assertEquals(2 * INTERVAL_PX, RulerGeometry.snapScrollPx(2 * INTERVAL_PX + INTERVAL_PX / 2 - 1,
+                RULER_WIDTH_PX, INTERVAL_PX));
+        assertEquals(3 * INTERVAL_PX, RulerGeometry.snapScrollPx(2 * INTERVAL_PX + INTERVAL_PX / 2,
+                RULER_WIDTH_PX, INTERVAL_PX));
+    }
+
+    @Test
+    public void snapsToBothEnds() {
+        assertEquals(0, RulerGeometry.snapScrollPx(-1, RULER_WIDTH_PX, INTERVAL_PX));
+        assertEquals(0, RulerGeometry.snapScrollPx(Integer.MIN_VALUE, RULER_WIDTH_PX, INTERVAL_PX));
+        assertEquals(0, RulerGeometry.snapScrollPx(INTERVAL_PX / 2 - 1, RULER_WIDTH_PX, INTERVAL_PX));
+
+        assertEquals(RULER_WIDTH_PX, RulerGeometry.snapScrollPx(RULER_WIDTH_PX, RULER_WIDTH_PX, INTERVAL_PX));
+        assertEquals(RULER_WIDTH_PX, RulerGeometry.snapScrollPx(RULER_WIDTH_PX - 1, RULER_WIDTH_PX, INTERVAL_PX));
+        assertEquals(RULER_WIDTH_PX, RulerGeometry.snapScrollPx(Integer.MAX_VALUE, RULER_WIDTH_PX, INTERVAL_PX));
+    }
+
+    @Test
+    public void snapNeverPassesTheLastTick() {
+        //Maximum position between two ticks.
+        final int maxScrollPx = RULER_WIDTH_PX + INTERVAL_PX / 2 + 1;
+        assertEquals(RULER_WIDTH_PX, RulerGeometry.snapScrollPx(maxScrollPx, maxScrollPx, INTERVAL_PX));
+    }
+
+    @Test
+    public void zeroIntervalOnlyClamps() {
+        assertEquals(7, RulerGeometry.snapScrollPx(7, RULER_WIDTH_PX, 0));
+        assertEquals(0, RulerGeometry.snapScrollPx(-7, RULER_WIDTH_PX, 0));
+        assertEquals(RULER_WIDTH_PX, RulerGeometry.snapScrollPx(RULER_WIDTH_PX + 7, RULER_WIDTH_PX, 0));
+    }
+
+    @Test
+    public void visibleTicksIncludeTheLabelMargin() {
+        final int marginPx = 2 * INTERVAL_PX;
+        final int startPx = 10 * INTERVAL_PX + 3;
+        final int endPx = startPx + 20 * INTERVAL_PX;
+
+        final int firstTick = RulerGeometry.getFirstVisibleTick(startPx, marginPx, INTERVAL_PX);
+        final int lastTick = RulerGeometry.getLastVisibleTick(endPx, marginPx, MIN_VALUE, MAX_VALUE, INTERVAL_PX);
+
+        assertTrue(firstTick * INTERVAL_PX + marginPx <= startPx);
+        assertTrue(lastTick * INTERVAL_PX - marginPx >= endPx);
+    }
+
+    @Test
+    public void visibleTicksStayOnTheRuler() {
+        assertEquals(0, RulerGeometry.getFirstVisibleTick(-1000, 40, INTERVAL_PX));
+        assertEquals(MAX_VALUE - MIN_VALUE - 1, RulerGeometry.getLastVisibleTick(RULER_WIDTH_PX + 1000, 40,
+                MIN_VALUE, MAX_VALUE, INTERVAL_PX));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pattern table, the label ticks and the full periods of the {@link RulerTickLevels}.
+ */
+public class RulerTickLevelsTest {
+
+    /**
+     * Every value, every 5th, every 10th with the value, and every 50th.
+     */
+    private static final RulerTickLevels DECIMAL = new RulerTickLevels(new int[]{1, 5, 10, 50}, 2);
+
+    /**
+     * Inches: every 1/8, 1/4, 1/2 and the whole inch with the value.
+     */
+    private static final RulerTickLevels INCHES = new RulerTickLevels(new int[]{1, 2, 4, 8}, 3);
+
+    @Test
+    public void patternMatchesTheIntervals() {
+        assertPattern(DECIMAL);
+        assertPattern(INCHES);
+        assertPattern(new RulerTickLevels(new int[]{1, 3, 12, 60}, 1));
+        assertPattern(RulerTickLevels.DEFAULT);
+    }
+
+    @Test
+    public void decimalPattern() {
+        assertEquals(50, DECIMAL.getPeriod());
+        assertEquals(10, DECIMAL.getLabelInterval());
+
+        assertEquals(3, DECIMAL.getLevelAt(0));
+        assertEquals(0, DECIMAL.getLevelAt(1));
+        assertEquals(1, DECIMAL.getLevelAt(5));
+        assertEquals(2, DECIMAL.getLevelAt(10));
+        assertEquals(1, DECIMAL.getLevelAt(15));
+        assertEquals(2, DECIMAL.getLevelAt(40));
+        assertEquals(1, DECIMAL.getLevelAt(45));
+        assertEquals(0, DECIMAL.getLevelAt(49));
+    }
+
+    @Test
+    public void walkingThePhaseMatchesTheLevels() {
+        final int firstTick = 37;
+        int phase = DECIMAL.getPhase(firstTick);
+        for (int tick = firstTick; tick < firstTick + 3 * DECIMAL.getPeriod(); tick++) {
+            assertEquals("Tick: " + tick, DECIMAL.getLevel(tick), DECIMAL.getLevelAt(phase));
+            if (++phase == DECIMAL.getPeriod()) phase = 0;
+        }
+    }
+
+    @Test
+    public void firstTickIsTheFinestLevel() {
+        assertEquals(0, DECIMAL.getLevel(0));
+        assertEquals(0, INCHES.getLevel(0));
+        assertEquals(3, DECIMAL.getLevel(DECIMAL.getPeriod()));
+    }
+
+    @Test
+    public void firstLabelTickSkipsTheFirstTick() {
+        assertEquals(10, DECIMAL.getFirstLabelTick(0));
+        assertEquals(10, DECIMAL.getFirstLabelTick(1));
+        assertEquals(10, DECIMAL.getFirstLabelTick(10));
+        assertEquals(20, DECIMAL.getFirstLabelTick(11));
+        assertEquals(8, INCHES.getFirstLabelTick(0));
+        assertEquals(16, INCHES.getFirstLabelTick(9));
+    }
+
+    @Test
+    public void fullPeriodsAreInsideTheVisibleTicks() {
+        for (int firstTick = 0; firstTick < 200; firstTick += 7) {
+            for (int lastTick = firstTick; lastTick < 300; lastTick += 11) {
+                final int firstPeriod = DECIMAL.getFirstFullPeriod(firstTick);
+                final int lastPeriod = DECIMAL.getLastFullPeriod(lastTick);
+                if (firstPeriod > lastPeriod) continue;
+
+                //First period starts with the finest tick 0, so it is never used.
+                assertTrue(firstPeriod >= 1);
+                assertTrue(firstPeriod * DECIMAL.getPeriod() >= firstTick);
+                assertTrue(firstPeriod * DECIMAL.getPeriod() - firstTick < DECIMAL.getPeriod() || firstTick == 0);
+                assertTrue((lastPeriod + 1) * DECIMAL.getPeriod() - 1 <= lastTick);
+                assertTrue(lastTick - ((lastPeriod + 1) * DECIMAL.getPeriod() - 1) < DECIMAL.getPeriod());
+            }
+        }
+    }
+
+    @Test
+    public void noFullPeriodInShortWindow() {
+        assertTrue(DECIMAL.getFirstFullPeriod(51) > DECIMAL.getLastFullPeriod(120));
+        assertEquals(1, DECIMAL.getFirstFullPeriod(50));
+        assertEquals(1, DECIMAL.getLastFullPeriod(99));
+    }
+
+    @Test
+    public void equalLevelsAreEqual() {
+        assertEquals(DECIMAL, new RulerTickLevels(new int[]{1, 5, 10, 50}, 2));
+        assertEquals(DECIMAL.hashCode(), new RulerTickLevels(new int[]{1, 5, 10, 50}, 2).hashCode());
+        assertTrue(!DECIMAL.equals(new RulerTickLevels(new int[]{1, 5, 10, 50}, 1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheFirstIntervalOtherThanOne() {
+        new RulerTickLevels(new int[]{2, 10}, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheIntervalThatIsNotAMultiple() {
+        new RulerTickLevels(new int[]{1, 4, 10}, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooLongPeriod() {
+        new RulerTickLevels(new int[]{1, RulerTickLevels.MAX_PERIOD * 2}, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheLabelLevelOutsideTheLevels() {
+        new RulerTickLevels(new int[]{1, 5}, 2);
+    }
+
+    /**
+     * Check every entry of the pattern against the coarsest interval dividing its phase.
+     */
+    private static void assertPattern(final RulerTickLevels levels) {
+        for (int phase = 0; phase < levels.getPeriod(); phase++) {
+            int expectedLevel = 0;
+            for (int level = 0; level < levels.getLevelCount(); level++) {
+                if (phase % levels.getInterval(level) == 0) expectedLevel = level;
+            }
+            assertEquals("Phase: " + phase, expectedLevel, levels.getLevelAt(phase));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Positions, the inverse lookup and the validation of the {@link RulerTickTable} and the
+ * {@link RulerScaleMappings}.
+ */
+public class RulerTickTableTest {
+
+    private static final int INTERVAL_PX = 10;
+
+    private static final RulerScaleMapping LINEAR = new RulerScaleMapping() {
+        @Override
+        public double map(final long value) {
+            return value;
+        }
+    };
+
+    @Test
+    public void linearMappingMatchesTheLinearRuler() {
+        final RulerTickTable table = RulerTickTable.create(-10, 90, INTERVAL_PX, LINEAR);
+
+        assertEquals(100, table.getTickCount());
+        assertEquals(RulerGeometry.getRulerWidth(-10, 90, INTERVAL_PX), table.getRulerWidth());
+        for (int tick = 0; tick < table.getTickCount(); tick++) {
+            assertEquals(tick * INTERVAL_PX, table.getPosition(tick));
+        }
+    }
+
+    @Test
+    public void positionsAreClampedToTheTicks() {
+        final RulerTickTable table = RulerTickTable.create(0, 100, INTERVAL_PX, LINEAR);
+
+        assertEquals(0, table.getPosition(-5));
+        assertEquals(table.getRulerWidth(), table.getPosition(table.getTickCount() + 5));
+    }
+
+    @Test
+    public void logarithmicPositionsStrictlyIncrease() {
+        final RulerTickTable table = RulerTickTable.create(1, 101, INTERVAL_PX, RulerScaleMappings.logarithmic());
+
+        assertEquals(0, table.getPosition(0));
+        assertEquals(RulerGeometry.getRulerWidth(1, 101, INTERVAL_PX), table.getRulerWidth());
+        for (int tick = 1; tick < table.getTickCount(); tick++) {
+            assertTrue(table.getPosition(tick) > table.getPosition(tick - 1));
+            //Low values get more space.
+            if (tick > 1) {
+                assertTrue(table.getPosition(tick) - table.getPosition(tick - 1)
+                        <= table.getPosition(tick - 1) - table.getPosition(tick - 2) + 1);
+            }
+        }
+    }
+
+    @Test
+    public void inverseLookupFindsTheTicksAroundThePosition() {
+        final RulerTickTable table = RulerTickTable.create(1, 101, INTERVAL_PX, RulerScaleMappings.logarithmic());
+
+        for (int tick = 1; tick < table.getTickCount(); tick++) {
+            final int px = table.getPosition(tick);
+            final int previousPx = table.getPosition(tick - 1);
+
+            assertEquals(tick, table.getTickAtOrBefore(px));
+            assertEquals(tick, table.getFirstTickAtOrAfter(px));
+            assertEquals(tick - 1, table.getTickAtOrBefore(px - 1));
+            assertEquals(tick, table.getFirstTickAtOrAfter(previousPx + 1));
+
+            assertEquals(tick, table.getNearestTick(px));
+            assertEquals(px, table.snap(px));
+            assertEquals(previousPx, table.snap(previousPx + (px - previousPx) / 2));
+        }
+    }
+
+    @Test
+    public void inverseLookupOutsideTheRuler() {
+        final RulerTickTable table = RulerTickTable.create(0, 100, INTERVAL_PX, LINEAR);
+
+        assertEquals(0, table.getTickAtOrBefore(-1));
+        assertEquals(0, table.getFirstTickAtOrAfter(-1));
+        assertEquals(table.getTickCount() - 1, table.getTickAtOrBefore(table.getRulerWidth() + 1));
+        assertEquals(table.getTickCount(), table.getFirstTickAtOrAfter(table.getRulerWidth() + 1));
+
+        assertEquals(0, table.snap(-100));
+        assertEquals(table.getRulerWidth(), table.snap(table.getRulerWidth() + 100));
+    }
+
+    @Test
+    public void piecewiseLinearSplitsTheSpaceByTheBreakpoints() {
+        final RulerScaleMapping mapping = RulerScaleMappings.piecewiseLinear(new long[]{0, 10, 100},
+                new double[]{0, 1, 2});
+
+        assertEquals(0, mapping.map(0), 0);
+        assertEquals(0.5, mapping.map(5), 1e-9);
+        assertEquals(1, mapping.map(10), 0);
+        assertEquals(1.5, mapping.map(55), 1e-9);
+        assertEquals(2, mapping.map(100), 0);
+
+        //Values outside the breakpoints continue the first and the last segment.
+        assertEquals(-0.5, mapping.map(-5), 1e-9);
+        assertEquals(3, mapping.map(190), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheValuesOnTheSamePixel() {
+        //The last hundreds of the values share the pixels.
+        RulerTickTable.create(1, 10000, 1, RulerScaleMappings.logarithmic());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheFlatMapping() {
+        RulerTickTable.create(0, 100, INTERVAL_PX, RulerScaleMappings.piecewiseLinear(new long[]{0, 50, 100},
+                new double[]{0, 1, 1}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheDecreasingMapping() {
+        RulerTickTable.create(0, 100, INTERVAL_PX, new RulerScaleMapping() {
+            @Override
+            public double map(final long value) {
+                return -value;
+            }
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheInfiniteMapping() {
+        //Logarithm of 0 is negative infinity.
+        RulerTickTable.create(0, 100, INTERVAL_PX, RulerScaleMappings.logarithmic());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheUnorderedBreakpoints() {
+        RulerScaleMappings.piecewiseLinear(new long[]{0, 10, 5}, new double[]{0, 1, 2});
+    }
+}
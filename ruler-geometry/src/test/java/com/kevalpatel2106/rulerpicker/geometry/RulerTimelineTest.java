@@ -0,0 +1,172 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Pixel mapping and the tick lookup of the {@link RulerTimeline}, with the tick origin off the
+ * intervals and the values at both ends of the long range.
+ */
+public class RulerTimelineTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private static final long HOUR = 60 * MINUTE;
+
+    private static final long DAY = 24 * HOUR;
+
+    private static final long[] LEVELS = {MINUTE, HOUR, DAY};
+
+    /**
+     * Local midnight of the time zone one hour ahead of UTC.
+     */
+    private static final long ORIGIN = -HOUR;
+
+    @Test
+    public void mapsTheValuesToThePixels() {
+        final RulerTimeline timeline = new RulerTimeline(0, 10 * DAY, MINUTE, LEVELS);
+
+        assertEquals(10 * 24 * 60, timeline.getWidthPx());
+        assertEquals(0, timeline.getScrollPxForValue(0));
+        assertEquals(60, timeline.getScrollPxForValue(HOUR));
+        assertEquals(HOUR, timeline.getValueAt(60));
+
+        //Nearest pixel, halves round up.
+        assertEquals(0, timeline.getScrollPxForValue(MINUTE / 2 - 1));
+        assertEquals(1, timeline.getScrollPxForValue(MINUTE / 2));
+    }
+
+    @Test
+    public void pixelsAreClampedToTheTimeline() {
+        final RulerTimeline timeline = new RulerTimeline(-DAY, DAY, MINUTE, LEVELS);
+
+        assertEquals(0, timeline.getScrollPxForValue(Long.MIN_VALUE));
+        assertEquals(timeline.getWidthPx(), timeline.getScrollPxForValue(Long.MAX_VALUE));
+        assertEquals(-DAY, timeline.getValueAt(-1));
+        assertEquals(DAY, timeline.getValueAt(timeline.getWidthPx() + 1));
+
+        //Not clamped and rounded down.
+        assertEquals(-1, timeline.toPx(-DAY - 1));
+    }
+
+    @Test
+    public void ticksAreCountedFromTheNegativeOrigin() {
+        final RulerTimeline timeline = new RulerTimeline(-10 * DAY, 10 * DAY, MINUTE, LEVELS, ORIGIN);
+
+        assertEquals(DAY - HOUR, timeline.getFirstTickAtOrAfter(0, 2));
+        assertEquals(-HOUR, timeline.getFirstTickAtOrAfter(-HOUR, 2));
+        assertEquals(-HOUR, timeline.getFirstTickAtOrAfter(-DAY - HOUR + 1, 2));
+        assertEquals(-DAY - HOUR, timeline.getFirstTickAtOrAfter(-DAY - HOUR, 2));
+        assertEquals(0, timeline.getFirstTickAtOrAfter(-1, 1));
+        assertEquals(-MINUTE, timeline.getFirstTickAtOrAfter(-MINUTE, 0));
+    }
+
+    @Test
+    public void tickLevelIsCountedFromTheNegativeOrigin() {
+        final RulerTimeline timeline = new RulerTimeline(-10 * DAY, 10 * DAY, MINUTE, LEVELS, ORIGIN);
+
+        assertEquals(2, timeline.getTickLevel(-HOUR));
+        assertEquals(2, timeline.getTickLevel(DAY - HOUR));
+        assertEquals(2, timeline.getTickLevel(-DAY - HOUR));
+        assertEquals(1, timeline.getTickLevel(0));
+        assertEquals(1, timeline.getTickLevel(-2 * HOUR));
+        assertEquals(0, timeline.getTickLevel(-HOUR - MINUTE));
+        assertEquals(0, timeline.getTickLevel(MINUTE));
+    }
+
+    @Test
+    public void ticksNearTheMaximumLong() {
+        final RulerTimeline timeline = new RulerTimeline(Long.MAX_VALUE - 10 * DAY, Long.MAX_VALUE,
+                MINUTE, LEVELS, -1_234_567);
+
+        for (long value = Long.MAX_VALUE - 3 * DAY; value > 0 && value <= Long.MAX_VALUE - MINUTE; value += 7919) {
+            for (int level = 0; level < LEVELS.length; level++) {
+                assertFirstTick(timeline, value, level);
+            }
+        }
+    }
+
+    @Test
+    public void ticksNearTheMinimumLong() {
+        final RulerTimeline timeline = new RulerTimeline(Long.MIN_VALUE, Long.MIN_VALUE + 10 * DAY,
+                MINUTE, LEVELS, 1_234_567);
+
+        for (long value = Long.MIN_VALUE; value < Long.MIN_VALUE + 3 * DAY; value += 7919) {
+            for (int level = 0; level < LEVELS.length; level++) {
+                assertFirstTick(timeline, value, level);
+            }
+        }
+    }
+
+    @Test
+    public void tickPastTheMaximumLongIsClamped() {
+        //Ticks are at ...x001, the last one before the maximum long is 9223372036854775001.
+        final RulerTimeline timeline = new RulerTimeline(Long.MAX_VALUE - 10_000, Long.MAX_VALUE,
+                1, new long[]{1000}, 1);
+
+        assertEquals(9223372036854775001L, timeline.getFirstTickAtOrAfter(9223372036854774500L, 0));
+        assertEquals(9223372036854775001L, timeline.getFirstTickAtOrAfter(9223372036854775001L, 0));
+        assertEquals(Long.MAX_VALUE, timeline.getFirstTickAtOrAfter(9223372036854775002L, 0));
+        assertEquals(Long.MAX_VALUE, timeline.getFirstTickAtOrAfter(Long.MAX_VALUE, 0));
+    }
+
+    @Test
+    public void finestLevelIsFarEnoughApart() {
+        final RulerTimeline timeline = new RulerTimeline(0, 10 * DAY, MINUTE, LEVELS);
+
+        assertEquals(0, timeline.getFinestLevel(1));
+        assertEquals(1, timeline.getFinestLevel(2));
+        assertEquals(1, timeline.getFinestLevel(60));
+        assertEquals(2, timeline.getFinestLevel(61));
+        assertEquals(LEVELS.length, timeline.getFinestLevel(24 * 60 + 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheRangeThatDoesNotFitIntoTheLong() {
+        new RulerTimeline(Long.MIN_VALUE, Long.MAX_VALUE, MINUTE, LEVELS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheIntervalThatIsNotAMultiple() {
+        new RulerTimeline(0, DAY, MINUTE, new long[]{HOUR, 90 * MINUTE});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheZeroResolution() {
+        new RulerTimeline(0, DAY, 0, LEVELS);
+    }
+
+    /**
+     * Check the tick against the exact arithmetic: the first multiple of the interval from the
+     * origin at or after the value, or the maximum long if that multiple doesn't fit into the long.
+     */
+    private static void assertFirstTick(final RulerTimeline timeline, final long value, final int level) {
+        final BigInteger interval = BigInteger.valueOf(timeline.getLevelInterval(level));
+        final BigInteger exactValue = BigInteger.valueOf(value);
+        final BigInteger exactTick = exactValue.add(BigInteger.valueOf(timeline.getTickOrigin())
+                .subtract(exactValue).mod(interval));
+        final long expectedTick = exactTick.compareTo(BigInteger.valueOf(Long.MAX_VALUE)) > 0
+                ? Long.MAX_VALUE
+                : exactTick.longValue();
+
+        final long tick = timeline.getFirstTickAtOrAfter(value, level);
+        assertEquals("Value: " + value + ", level: " + level, expectedTick, tick);
+        if (tick != Long.MAX_VALUE) assertTrue(timeline.getTickLevel(tick) >= level);
+    }
+}
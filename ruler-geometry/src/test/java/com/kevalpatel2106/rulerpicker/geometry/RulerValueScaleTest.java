@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Fixed point conversions and the formatting of the {@link RulerValueScale}.
+ */
+public class RulerValueScaleTest {
+
+    /**
+     * Scale of the halves: precision 1 and the step of 0.5.
+     */
+    private static final RulerValueScale HALVES = new RulerValueScale(1, 5);
+
+    @Test
+    public void convertsToTheFixedPoint() {
+        assertEquals(125, HALVES.toFixedPoint(25));
+        assertEquals(-5, HALVES.toFixedPoint(-1));
+        assertEquals(0, HALVES.toFixedPoint(0));
+    }
+
+    @Test
+    public void roundsToTheNearestValue() {
+        assertEquals(25, HALVES.toValue(125));
+        assertEquals(25, HALVES.toValue(127));
+        assertEquals(26, HALVES.toValue(128));
+    }
+
+    @Test
+    public void roundsTheNegativeValuesToTheNearestValue() {
+        assertEquals(0, HALVES.toValue(-2));
+        assertEquals(-1, HALVES.toValue(-3));
+        assertEquals(-1, HALVES.toValue(-5));
+        assertEquals(-1, HALVES.toValue(-7));
+        assertEquals(-2, HALVES.toValue(-8));
+    }
+
+    @Test
+    public void roundsTheHalvesUp() {
+        final RulerValueScale evenStep = new RulerValueScale(0, 2);
+        assertEquals(1, evenStep.toValue(1));
+        assertEquals(0, evenStep.toValue(-1));
+        assertEquals(-1, evenStep.toValue(-3));
+    }
+
+    @Test
+    public void formatsTheIntegers() {
+        assertFormat("0", RulerValueScale.INTEGER, 0);
+        assertFormat("100", RulerValueScale.INTEGER, 100);
+        assertFormat("-42", RulerValueScale.INTEGER, -42);
+        assertFormat("9223372036854775807", RulerValueScale.INTEGER, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void formatsTheDecimalPlaces() {
+        assertFormat("12.5", HALVES, 125);
+        assertFormat("-0.5", HALVES, -5);
+        assertFormat("0.0", HALVES, 0);
+        assertFormat("0.005", new RulerValueScale(3, 1), 5);
+        assertFormat("-1.000", new RulerValueScale(3, 1), -1000);
+    }
+
+    @Test
+    public void formatsTheMinimumLong() {
+        assertFormat("-9223372036854775808", RulerValueScale.INTEGER, Long.MIN_VALUE);
+        assertFormat("-9223372036854775.808", new RulerValueScale(3, 1), Long.MIN_VALUE);
+        assertFormat("-9223372036.854775808",
+                new RulerValueScale(RulerValueScale.MAX_PRECISION, 1), Long.MIN_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheNegativePrecision() {
+        new RulerValueScale(-1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooManyDecimalPlaces() {
+        new RulerValueScale(RulerValueScale.MAX_PRECISION + 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheZeroStep() {
+        new RulerValueScale(1, 0);
+    }
+
+    private static void assertFormat(final String expected, final RulerValueScale scale, final long fixedPoint) {
+        final char[] out = new char[RulerValueScale.MAX_LABEL_LENGTH];
+        final int length = scale.format(fixedPoint, out);
+        assertEquals(expected, new String(out, 0, length));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker.geometry;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Binary search and the validation of the {@link RulerValueSet}.
+ */
+public class RulerValueSetTest {
+
+    /**
+     * E12 resistor values between 10 and 100.
+     */
+    private static final long[] E12 = {10, 12, 15, 18, 22, 27, 33, 39, 47, 56, 68, 82};
+
+    private final RulerValueSet mValueSet = new RulerValueSet(E12);
+
+    @Test
+    public void findsTheEntries() {
+        for (int index = 0; index < E12.length; index++) {
+            assertEquals(index, mValueSet.indexOfNearest(E12[index]));
+            assertEquals(E12[index], mValueSet.get(index));
+        }
+    }
+
+    @Test
+    public void findsTheNearestEntryBetweenTheEntries() {
+        assertEquals(2, mValueSet.indexOfNearest(16));
+        assertEquals(3, mValueSet.indexOfNearest(17));
+        assertEquals(8, mValueSet.indexOfNearest(50));
+        assertEquals(9, mValueSet.indexOfNearest(52));
+    }
+
+    @Test
+    public void equallyNearEntriesResolveToTheLowerOne() {
+        assertEquals(0, mValueSet.indexOfNearest(11));
+        assertEquals(3, mValueSet.indexOfNearest(20));
+    }
+
+    @Test
+    public void valuesOutsideTheSetResolveToTheEnds() {
+        assertEquals(0, mValueSet.indexOfNearest(9));
+        assertEquals(0, mValueSet.indexOfNearest(Long.MIN_VALUE));
+        assertEquals(E12.length - 1, mValueSet.indexOfNearest(83));
+        assertEquals(E12.length - 1, mValueSet.indexOfNearest(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void singleEntryIsAlwaysTheNearest() {
+        final RulerValueSet valueSet = new RulerValueSet(new long[]{-7});
+        assertEquals(0, valueSet.indexOfNearest(-100));
+        assertEquals(0, valueSet.indexOfNearest(100));
+    }
+
+    @Test
+    public void indexIsClamped() {
+        assertEquals(E12[0], mValueSet.get(-1));
+        assertEquals(E12[E12.length - 1], mValueSet.get(E12.length));
+    }
+
+    @Test
+    public void entriesAreCopied() {
+        final long[] values = {1, 2, 3};
+        final RulerValueSet valueSet = new RulerValueSet(values);
+        values[0] = 100;
+
+        final long[] copy = valueSet.toArray();
+        copy[1] = 100;
+
+        assertArrayEquals(new long[]{1, 2, 3}, valueSet.toArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheEmptySet() {
+        new RulerValueSet(new long[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheDuplicates() {
+        new RulerValueSet(new long[]{1, 2, 2, 3});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTheUnsortedEntries() {
+        new RulerValueSet(new long[]{1, 3, 2});
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+import android.view.animation.AnimationUtils;
+
+/**
+ * Default {@link RulerClock}. Returns the animation time of the current frame, the same time the
+ * platform scrollers use.
+ */
+final class AnimationRulerClock implements RulerClock {
+
+    static final AnimationRulerClock INSTANCE = new AnimationRulerClock();
+
+    private AnimationRulerClock() {
+        //Use the INSTANCE.
+    }
+
+    @Override
+    public long uptimeMillis() {
+        return AnimationUtils.currentAnimationTimeMillis();
+    }
+}
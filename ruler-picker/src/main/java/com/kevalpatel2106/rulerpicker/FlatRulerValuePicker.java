@@ -0,0 +1,938 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.CheckResult;
+import android.support.annotation.ColorInt;
+import android.support.annotation.ColorRes;
+import android.support.annotation.DimenRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.content.ContextCompat;
+import android.support.v4.view.ViewCompat;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.kevalpatel2106.rulerpicker.geometry.RulerScaleMapping;
+import com.kevalpatel2106.rulerpicker.geometry.RulerTickLevels;
+import com.kevalpatel2106.rulerpicker.geometry.RulerValueScale;
+import com.kevalpatel2106.rulerpicker.geometry.RulerValueSet;
+
+/**
+ * Single view implementation of the {@link RulerValuePicker}. It draws the ruler and the notch
+ * itself and handles the drag and the fling with its own {@link RulerTouchScroller}, so there
+ * are no child views to inflate, measure or lay out. Use this
+ * instead of the {@link RulerValuePicker} on the screens with many pickers.
+ * <p>
+ * Public API, XML attributes and the {@link RulerValuePickerListener} contract are the same as of
+ * the {@link RulerValuePicker}. Only the part of the ruler on the screen is drawn, so there is no
+ * virtualized mode and no tile cache.
+ *
+ * @see RulerValuePicker
+ */
+public final class FlatRulerValuePicker extends View {
+
+    /**
+     * Style, range and the {@link RulerRenderer} of the ruler. Any applied change redraws this
+     * view.
+     */
+    @NonNull
+    private final RulerModel mModel = new RulerModel(getContext(), new RulerStyle.Callback() {
+        @Override
+        public void onStyleChanged(final int dirtyFlags) {
+            invalidate();
+        }
+    });
+
+    /**
+     * Draws the indicators and the values.
+     */
+    @NonNull
+    private final RulerRenderer mRenderer = mModel.getRenderer();
+
+    /**
+     * Triangle notch at the top-center of this view.
+     */
+    @NonNull
+    private final RulerNotch mNotch = new RulerNotch();
+
+    /**
+     * Drag, fling and animated scroll of the ruler.
+     *
+     * @see #setClock(RulerClock)
+     */
+    @NonNull
+    private final RulerTouchScroller mTouchScroller = new RulerTouchScroller(this,
+            new RulerTouchScroller.Host() {
+                @Override
+                public long getMaxScrollPx() {
+                    return Math.max(0, mModel.getRulerWidth());
+                }
+
+                @Override
+                public long snapScrollPx(final long scrollPx) {
+                    return mModel.snapScrollPx((int) scrollPx);
+                }
+
+                @Override
+                public void onScrollPxChanged(final long scrollPx) {
+                    invalidate();
+                    mValueDispatcher.onScrollChanged();
+                }
+
+                @Override
+                public void onScrollStopped() {
+                    mValueDispatcher.dispatchValue();
+                }
+
+                @Override
+                public void onFlingStarted(final long finalPx) {
+                    mPredictedValue = mModel.getValueAt((int) finalPx);
+                    if (mFlingListener != null) mFlingListener.onFlingStarted(mPredictedValue);
+                }
+
+                @Override
+                public void onFlingCancelled() {
+                    if (mFlingListener != null) mFlingListener.onFlingCancelled(mPredictedValue);
+                }
+            });
+
+    @Nullable
+    private RulerValuePickerListener mListener;
+
+    @Nullable
+    private RulerFlingListener mFlingListener;
+
+    /**
+     * Records the rendering metrics, or null if the metrics are disabled.
+     *
+     * @see #setMetricsListener(RulerMetricsListener, long)
+     */
+    @Nullable
+    private RulerMetricsRecorder mMetricsRecorder;
+
+    /**
+     * Time source of the scroll animations and the metrics windows.
+     *
+     * @see #setClock(RulerClock)
+     */
+    @NonNull
+    private RulerClock mClock = AnimationRulerClock.INSTANCE;
+
+    /**
+     * {@link RulerTracer} to mark the sections of the work with.
+     *
+     * @see #setTracer(RulerTracer)
+     */
+    @NonNull
+    private RulerTracer mTracer = SystraceRulerTracer.INSTANCE;
+
+    /**
+     * Sends the selected value to the {@link #mListener}.
+     */
+    @NonNull
+    private final RulerValueDispatcher mValueDispatcher = new RulerValueDispatcher(this,
+            new RulerValueDispatcher.Target() {
+                @Override
+                public long getSelectedValue() {
+                    return getCurrentValue();
+                }
+
+                @Override
+                public boolean hasListener() {
+                    return mListener != null;
+                }
+
+                @Override
+                public void onIntermediateValueChange(final long value) {
+                    if (mListener != null) mListener.onIntermediateValueChange((int) value);
+                }
+
+                @Override
+                public void onValueChange(final long value) {
+                    if (mListener != null) mListener.onValueChange((int) value);
+                }
+            });
+
+    /**
+     * Value predicted at the start of the running fling.
+     */
+    private int mPredictedValue;
+
+    /**
+     * Public constructor.
+     */
+    public FlatRulerValuePicker(@NonNull final Context context) {
+        this(context, null);
+    }
+
+    /**
+     * Public constructor.
+     */
+    public FlatRulerValuePicker(@NonNull final Context context,
+                                @Nullable final AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    /**
+     * Public constructor.
+     */
+    public FlatRulerValuePicker(@NonNull final Context context,
+                                @Nullable final AttributeSet attrs,
+                                final int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init(attrs);
+    }
+
+    /**
+     * Public constructor.
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public FlatRulerValuePicker(@NonNull final Context context,
+                                @Nullable final AttributeSet attrs,
+                                final int defStyleAttr,
+                                final int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
+        init(attrs);
+    }
+
+    /**
+     * Initialize the view and parse the {@link AttributeSet}. Attributes are the same as of the
+     * {@link RulerValuePicker}.
+     *
+     * @param attributeSet {@link AttributeSet} to parse or null if no attribute parameters set.
+     */
+    private void init(@Nullable AttributeSet attributeSet) {
+        beginUpdate();
+        if (attributeSet != null) {
+            TypedArray a = getContext().getTheme().obtainStyledAttributes(attributeSet,
+                    R.styleable.RulerValuePicker,
+                    0,
+                    0);
+
+            try { //Parse params
+                if (a.hasValue(R.styleable.RulerValuePicker_notch_color)) {
+                    mNotch.setColor(a.getColor(R.styleable.RulerValuePicker_notch_color, Color.WHITE));
+                }
+
+                mModel.parseAttributes(a);
+
+                if (a.hasValue(R.styleable.RulerValuePicker_min_value) ||
+                        a.hasValue(R.styleable.RulerValuePicker_max_value)) {
+                    setMinMaxValue(a.getInteger(R.styleable.RulerValuePicker_min_value, 0),
+                            a.getInteger(R.styleable.RulerValuePicker_max_value, 100));
+                }
+            } finally {
+                a.recycle();
+            }
+        }
+        commit();
+
+        mValueDispatcher.resetReportedValue();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (mMetricsRecorder != null) mMetricsRecorder.onMeasurePass();
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    @Override
+    protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
+        super.onSizeChanged(width, height, oldWidth, oldHeight);
+        mModel.updateHeight(height);
+        mNotch.setWidth(width);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        mTracer.beginSection(RulerTracer.SECTION_FLAT_DRAW);
+        try {
+            final long drawStartNanos = mMetricsRecorder != null ? System.nanoTime() : 0;
+            mRenderer.resetDrawnCounts();
+
+            //Position under the notch is at the center of this view.
+            final int originPx = (int) mTouchScroller.getScrollPx() - getWidth() / 2;
+            mRenderer.draw(canvas, originPx, originPx + getWidth(), originPx);
+
+            if (mMetricsRecorder != null) {
+                mMetricsRecorder.onFrameDrawn(System.nanoTime() - drawStartNanos,
+                        mRenderer.getDrawnTickCount(),
+                        mRenderer.getDrawnLabelCount(),
+                        mRenderer.getDrawCallCount());
+            }
+
+            //Draw the top notch
+            mNotch.draw(canvas);
+        } finally {
+            mTracer.endSection();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mValueDispatcher.cancel();
+    }
+
+    //**********************************************************************************//
+    //********************************* TOUCH AND FLING ********************************//
+    //**********************************************************************************//
+
+    @SuppressLint("ClickableViewAccessibility")
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return mTouchScroller.onTouchEvent(event);
+    }
+
+    @Override
+    public void computeScroll() {
+        mTouchScroller.computeScroll();
+    }
+
+    //**********************************************************************************//
+    //********************************** VALUE SELECTION *******************************//
+    //**********************************************************************************//
+
+    /**
+     * Scroll the ruler to the given value with the animation. If the picker is not laid out yet,
+     * the value is selected without the animation.
+     *
+     * @param value Value to select. Value must be between {@link #getMinValue()} and {@link #getMaxValue()}.
+     *              If the value is less than {@link #getMinValue()}, {@link #getMinValue()} will be
+     *              selected.If the value is greater than {@link #getMaxValue()}, {@link #getMaxValue()}
+     *              will be selected.
+     * @see #selectValue(int, boolean)
+     */
+    public void selectValue(final int value) {
+        selectValue(value, true);
+    }
+
+    /**
+     * Scroll the ruler to the given value. The scroll range of this view doesn't depend on the
+     * layout, so the value is selected immediately.
+     *
+     * @param value   Value to select. Value must be between {@link #getMinValue()} and
+     *                {@link #getMaxValue()}. Values outside the range are clamped to the range.
+     * @param animate True to scroll to the value with the animation, false to jump to the value.
+     *                Value is never animated before the picker is laid out. After the jump,
+     *                {@link RulerValuePickerListener#onValueChange(int)} is always called, even
+     *                if the selected value didn't change.
+     */
+    public void selectValue(final int value, final boolean animate) {
+        mTracer.beginSection(RulerTracer.SECTION_SELECT_VALUE);
+        try {
+            final int scrollPx = mModel.getScrollPxForValue(value);
+            if (animate && ViewCompat.isLaidOut(this)) {
+                mTouchScroller.animateScrollTo(scrollPx);
+            } else {
+                mTouchScroller.jumpTo(scrollPx);
+            }
+        } finally {
+            mTracer.endSection();
+        }
+    }
+
+    /**
+     * @return Get the current selected value.
+     */
+    public int getCurrentValue() {
+        return mModel.getValueAt((int) mTouchScroller.getScrollPx());
+    }
+
+    /**
+     * @return Current selected value as the fixed point number of the {@link #getValueScale()}.
+     * e.g. 125 for 12.5 with the precision 1. If the value set is set, this is the selected entry.
+     * @see #setValueSet(long[])
+     */
+    @CheckResult
+    public long getCurrentFixedPointValue() {
+        return mModel.toFixedPoint(getCurrentValue());
+    }
+
+    /**
+     * Scroll the ruler to the value nearest to the given fixed point number. If the value set is
+     * set, the nearest entry is found by the binary search.
+     *
+     * @param fixedPoint Value to select, in the units of the last decimal place of the
+     *                   {@link #getValueScale()}. e.g. 125 for 12.5 with the precision 1.
+     * @param animate    True to scroll to the value with the animation, false to jump to the value.
+     * @see #selectValue(int, boolean)
+     */
+    public void selectFixedPointValue(final long fixedPoint, final boolean animate) {
+        selectValue(mModel.toValue(fixedPoint), animate);
+    }
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        Parcelable superState = super.onSaveInstanceState();
+        SavedState ss = new SavedState(superState);
+        ss.value = getCurrentValue();
+        return ss;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+        selectValue(ss.value, false);
+    }
+
+    //**********************************************************************************//
+    //******************************** GETTERS/SETTERS *********************************//
+    //**********************************************************************************//
+
+    /**
+     * Start the batch of the style changes. Changes made by the setters of the ruler are not
+     * applied until the matching {@link #commit()}. Calls can be nested.
+     *
+     * @see RulerValuePicker#beginUpdate()
+     */
+    public void beginUpdate() {
+        mModel.beginUpdate();
+    }
+
+    /**
+     * End the batch of the style changes started by {@link #beginUpdate()}. All the changes made
+     * since the outermost {@link #beginUpdate()} are applied at once.
+     *
+     * @see RulerValuePicker#commit()
+     */
+    public void commit() {
+        mModel.commit();
+    }
+
+    /**
+     * @param notchColorRes Color resource of the notch to display. Default color os {@link Color#WHITE}.
+     * @see #setNotchColor(int)
+     * @see #getNotchColor()
+     */
+    public void setNotchColorRes(@ColorRes final int notchColorRes) {
+        setNotchColor(ContextCompat.getColor(getContext(), notchColorRes));
+    }
+
+    /**
+     * @return Integer color of the notch. Default color os {@link Color#WHITE}.
+     * @see #setNotchColor(int)
+     * @see #setNotchColorRes(int)
+     */
+    @ColorInt
+    public int getNotchColor() {
+        return mNotch.getColor();
+    }
+
+    /**
+     * @param notchColor Integer color of the notch to display. Default color os {@link Color#WHITE}.
+     * @see #getNotchColor()
+     */
+    public void setNotchColor(@ColorInt final int notchColor) {
+        mNotch.setColor(notchColor);
+        invalidate();
+    }
+
+    /**
+     * @return Color integer value of the ruler text color.
+     * @see #setTextColor(int)
+     * @see #setTextColorRes(int)
+     */
+    @CheckResult
+    @ColorInt
+    public int getTextColor() {
+        return mModel.getTextColor();
+    }
+
+    /**
+     * Set the color of the text to display on the ruler.
+     *
+     * @param color Color integer value.
+     * @see #getTextColor()
+     */
+    public void setTextColor(@ColorInt final int color) {
+        mModel.setTextColor(color);
+    }
+
+    /**
+     * Set the color of the text to display on the ruler.
+     *
+     * @param color Color resource id.
+     */
+    public void setTextColorRes(@ColorRes final int color) {
+        setTextColor(ContextCompat.getColor(getContext(), color));
+    }
+
+    /**
+     * @return Size of the text of ruler in pixels.
+     * @see #setTextSize(int)
+     * @see #setTextSizeRes(int)
+     */
+    @CheckResult
+    public float getTextSize() {
+        return mModel.getTextSize();
+    }
+
+    /**
+     * Set the size of the text to display on the ruler.
+     *
+     * @param dimensionDp Text size dimension in dp.
+     * @see #getTextSize()
+     */
+    public void setTextSize(final int dimensionDp) {
+        mModel.setTextSize(dimensionDp);
+    }
+
+    /**
+     * Set the size of the text to display on the ruler.
+     *
+     * @param dimension Text size dimension resource.
+     * @see #getTextSize()
+     */
+    public void setTextSizeRes(@DimenRes final int dimension) {
+        setTextSize((int) getContext().getResources().getDimension(dimension));
+    }
+
+    /**
+     * @return Color integer value of the indicator color.
+     * @see #setIndicatorColor(int)
+     * @see #setIndicatorColorRes(int)
+     */
+    @CheckResult
+    @ColorInt
+    public int getIndicatorColor() {
+        return mModel.getIndicatorColor();
+    }
+
+    /**
+     * Set the indicator color.
+     *
+     * @param color Color integer value.
+     * @see #getIndicatorColor()
+     */
+    public void setIndicatorColor(@ColorInt final int color) {
+        mModel.setIndicatorColor(color);
+    }
+
+    /**
+     * Set the indicator color.
+     *
+     * @param color Color resource id.
+     * @see #getIndicatorColor()
+     */
+    public void setIndicatorColorRes(@ColorRes final int color) {
+        setIndicatorColor(ContextCompat.getColor(getContext(), color));
+    }
+
+    /**
+     * @return Width of the indicator in pixels.
+     * @see #setIndicatorWidth(int)
+     * @see #setIndicatorWidthRes(int)
+     */
+    @CheckResult
+    public float getIndicatorWidth() {
+        return mModel.getIndicatorWidth();
+    }
+
+    /**
+     * Set the width of the indicator line in the ruler.
+     *
+     * @param widthPx Width in pixels.
+     * @see #getIndicatorWidth()
+     */
+    public void setIndicatorWidth(final int widthPx) {
+        mModel.setIndicatorWidth(widthPx);
+    }
+
+    /**
+     * Set the width of the indicator line in the ruler.
+     *
+     * @param width Dimension resource for indicator width.
+     * @see #getIndicatorWidth()
+     */
+    public void setIndicatorWidthRes(@DimenRes final int width) {
+        setIndicatorWidth(getContext().getResources().getDimensionPixelSize(width));
+    }
+
+    /**
+     * @return Get the minimum value displayed on the ruler.
+     * @see #setMinMaxValue(int, int)
+     */
+    @CheckResult
+    public int getMinValue() {
+        return mModel.getMinValue();
+    }
+
+    /**
+     * @return Get the maximum value displayed on the ruler.
+     * @see #setMinMaxValue(int, int)
+     */
+    @CheckResult
+    public int getMaxValue() {
+        return mModel.getMaxValue();
+    }
+
+    /**
+     * Set the maximum value to display on the ruler. This will decide the range of values and number
+     * of indicators that ruler will draw. The minimum value is selected.
+     *
+     * @param minValue Value to display at the left end of the ruler. This can be positive, negative
+     *                 or zero. Default minimum value is 0.
+     * @param maxValue Value to display at the right end of the ruler. This can be positive, negative
+     *                 or zero.This value must be greater than min value. Default minimum value is 100.
+     * @see #getMinValue()
+     * @see #getMaxValue()
+     */
+    public void setMinMaxValue(final int minValue, final int maxValue) {
+        mModel.setValueRange(minValue, maxValue);
+        selectValue(minValue, false);
+    }
+
+    /**
+     * @return Get distance between two indicator in pixels.
+     * @see #setIndicatorIntervalDistance(int)
+     */
+    @CheckResult
+    public int getIndicatorIntervalWidth() {
+        return mModel.getIndicatorIntervalWidth();
+    }
+
+    /**
+     * Set the spacing between two vertical lines/indicators. Default value is 14 pixels.
+     *
+     * @param indicatorIntervalPx Distance in pixels. This cannot be negative number or zero.
+     * @throws IllegalArgumentException if interval is negative or zero, or the scale mapping would
+     *                                  put two consecutive values on the same pixel.
+     */
+    public void setIndicatorIntervalDistance(final int indicatorIntervalPx) {
+        //Keep the selected value. Its position and the width of the ruler change with the interval.
+        final int value = getCurrentValue();
+        mModel.setIndicatorIntervalDistance(indicatorIntervalPx);
+        selectValue(value, false);
+    }
+
+    /**
+     * @return Custom {@link RulerLabelFormatter} or null if the values are displayed as plain integers.
+     * @see #setLabelFormatter(RulerLabelFormatter)
+     */
+    @Nullable
+    @CheckResult
+    public RulerLabelFormatter getLabelFormatter() {
+        return mModel.getLabelFormatter();
+    }
+
+    /**
+     * Set the formatter for the values displayed below the long indicators. e.g. "156 cm".
+     *
+     * @param labelFormatter {@link RulerLabelFormatter} to format the values or null to display
+     *                       the values as plain integers.
+     * @see RulerLabelFormatter
+     */
+    public void setLabelFormatter(@Nullable final RulerLabelFormatter labelFormatter) {
+        mModel.setLabelFormatter(labelFormatter);
+    }
+
+    /**
+     * @return Non-linear scale of the ruler or null if the indicators are evenly spaced.
+     * @see #setScaleMapping(RulerScaleMapping)
+     */
+    @Nullable
+    @CheckResult
+    public RulerScaleMapping getScaleMapping() {
+        return mModel.getScaleMapping();
+    }
+
+    /**
+     * Place the indicators along a non-linear scale, e.g.
+     * {@link com.kevalpatel2106.rulerpicker.geometry.RulerScaleMappings#logarithmic()} to give more
+     * space to the low values. The ruler keeps its width, and the positions of all the indicators
+     * are computed once for the current range and interval, so drawing and scrolling never
+     * evaluate the mapping. The table takes 4 bytes per value. By default, the indicators are
+     * evenly spaced.
+     * <p>
+     * Where the indicators get denser than the indicator width, some of them are not drawn, and
+     * the labels are not drawn where they would overlap. Every value still needs its own pixel to
+     * be selectable, so the mapping must not put two consecutive values on the same pixel at the
+     * current range and interval.
+     *
+     * @param scaleMapping {@link RulerScaleMapping} to place the indicators with or null to space
+     *                     them evenly.
+     * @throws IllegalArgumentException if the mapping is not finite or decreases over the range of
+     *                                  the ruler, or two consecutive values map to the same pixel.
+     */
+    public void setScaleMapping(@Nullable final RulerScaleMapping scaleMapping) {
+        if (scaleMapping == mModel.getScaleMapping()) return;
+
+        //Keep the selected value. Its position changes with the scale.
+        final int value = getCurrentValue();
+        mModel.setScaleMapping(scaleMapping);
+        selectValue(value, false);
+    }
+
+    /**
+     * @return {@link RulerValueScale} the values are displayed with.
+     * @see #setValueScale(RulerValueScale)
+     */
+    @NonNull
+    @CheckResult
+    public RulerValueScale getValueScale() {
+        return mModel.getValueScale();
+    }
+
+    /**
+     * Set the fixed point scale of the values, e.g. the precision 1 with the step 5 for 0.5 cm
+     * steps. Integer values of the picker, including the range and the values passed to the
+     * {@link RulerValuePickerListener}, then count the steps: value 25 is displayed as "12.5".
+     * Use {@link RulerValueScale#toFixedPoint(long)} to convert them, or
+     * {@link #getCurrentFixedPointValue()}. By default, values are plain integers.
+     *
+     * @param valueScale {@link RulerValueScale} to display the values with.
+     * @see #selectFixedPointValue(long, boolean)
+     */
+    public void setValueScale(@NonNull final RulerValueScale valueScale) {
+        mModel.setValueScale(valueScale);
+    }
+
+    /**
+     * @return Copy of the entries of the value set or null if the picker selects from the range.
+     * @see #setValueSet(long[])
+     */
+    @Nullable
+    @CheckResult
+    public long[] getValueSet() {
+        final RulerValueSet valueSet = mModel.getValueSet();
+        return valueSet == null ? null : valueSet.toArray();
+    }
+
+    /**
+     * Select from the irregular set of values instead of the range, e.g. the shoe sizes or the
+     * standard resistor values. Each entry gets its own indicator, and the range of the ruler is
+     * set to the indices of the entries. Integer values of the picker, including the values passed
+     * to the {@link RulerValuePickerListener}, are then the indices. Use
+     * {@link #getCurrentFixedPointValue()} and {@link #selectFixedPointValue(long, boolean)} to
+     * work with the entries.
+     * <p>
+     * Entries are the fixed point numbers of the {@link #getValueScale()}, e.g. 47 for 4.7 with
+     * the precision 1. They are kept in a primitive array and looked up by the binary search, so
+     * the sets of a hundred thousand entries are fine.
+     *
+     * @param values Entries in the strictly increasing order or null to select from the range
+     *               again. The array is copied. The range is not restored, so call
+     *               {@link #setMinMaxValue(int, int)} after clearing the set.
+     * @throws IllegalArgumentException if the array is empty or not strictly increasing.
+     */
+    public void setValueSet(@Nullable final long[] values) {
+        final RulerValueSet valueSet = values == null ? null : new RulerValueSet(values);
+        mModel.setValueSet(valueSet);
+        if (valueSet != null) setMinMaxValue(0, valueSet.size());
+    }
+
+    /**
+     * @return Ratio of long indicator height to the ruler height.
+     * @see #setIndicatorHeight(float, float)
+     */
+    @CheckResult
+    public float getLongIndicatorHeightRatio() {
+        return mModel.getLongIndicatorHeightRatio();
+    }
+
+    /**
+     * @return Ratio of short indicator height to the ruler height.
+     * @see #setIndicatorHeight(float, float)
+     */
+    @CheckResult
+    public float getShortIndicatorHeightRatio() {
+        return mModel.getShortIndicatorHeightRatio();
+    }
+
+    /**
+     * Set the height of the long and short indicators. If there are more than two levels, the
+     * heights of the levels in between are spread evenly between these heights. Heights set by
+     * {@link #setTickLevelStyle(float[], int[], int[])} take precedence.
+     *
+     * @param longHeightRatio  Ratio of long indicator height to the ruler height. This value must
+     *                         be between 0 to 1. The value should greater than {@link #getShortIndicatorHeightRatio()}.
+     *                         Default value is 0.6 (i.e. 60%).
+     * @param shortHeightRatio Ratio of short indicator height to the ruler height. This value must
+     *                         be between 0 to 1. The value should less than {@link #getLongIndicatorHeightRatio()}.
+     *                         Default value is 0.4 (i.e. 40%).
+     * @throws IllegalArgumentException if any of the parameter is invalid.
+     */
+    public void setIndicatorHeight(final float longHeightRatio,
+                                   final float shortHeightRatio) {
+        mModel.setIndicatorHeight(longHeightRatio, shortHeightRatio);
+    }
+
+    /**
+     * @return {@link RulerTickLevels} of the indicators.
+     * @see #setTickLevels(RulerTickLevels)
+     */
+    @NonNull
+    @CheckResult
+    public RulerTickLevels getTickLevels() {
+        return mModel.getTickLevels();
+    }
+
+    /**
+     * Set the levels of the indicators, e.g. a short indicator for every value, a middle one for
+     * every fifth value and a long one with the label for every tenth value. The style of the
+     * levels is reset: heights are spread between the short and the long indicator height, and
+     * all the levels have the indicator color and width.
+     *
+     * @param tickLevels {@link RulerTickLevels} of the indicators.
+     * @see #setTickLevelStyle(float[], int[], int[])
+     */
+    public void setTickLevels(@NonNull final RulerTickLevels tickLevels) {
+        mModel.setTickLevels(tickLevels);
+    }
+
+    /**
+     * Set the height, the color and the width of each level of the indicators. Each array must
+     * have one entry per level of {@link #getTickLevels()}, from the finest level.
+     *
+     * @param heightRatios Ratio of the height of each level to the ruler height or null to
+     *                     spread the heights between the short and the long indicator height.
+     * @param colors       Color of each level or null to use the indicator color.
+     * @param widthsPx     Width of each level in pixels or null to use the indicator width.
+     * @throws IllegalArgumentException if any array doesn't have one entry per level, or any
+     *                                  height ratio is not between 0 and 1.
+     */
+    public void setTickLevelStyle(@Nullable final float[] heightRatios,
+                                  @Nullable final int[] colors,
+                                  @Nullable final int[] widthsPx) {
+        mModel.setTickLevelStyle(heightRatios, colors, widthsPx);
+    }
+
+    /**
+     * Set the {@link RulerValuePickerListener} to get callbacks when the value changes.
+     *
+     * @param listener {@link RulerValuePickerListener}
+     */
+    public void setValuePickerListener(@Nullable final RulerValuePickerListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Set the {@link RulerFlingListener} to get the predicted value when the fling starts and
+     * the callback when the fling is interrupted.
+     *
+     * @param listener {@link RulerFlingListener}
+     */
+    public void setFlingListener(@Nullable final RulerFlingListener listener) {
+        mFlingListener = listener;
+    }
+
+    /**
+     * Set the {@link RulerMetricsListener} to get the rendering metrics of this picker: draw time,
+     * number of the drawn indicators and values, scroll events and the time spent in the
+     * {@link RulerValuePickerListener}. Metrics are aggregated over the reporting window and
+     * reported at the end of the frame, that completes the window. Metrics are disabled by
+     * default. While disabled, they cost nothing but a null check.
+     *
+     * @param listener     {@link RulerMetricsListener} to get the metrics or null to disable the
+     *                     metrics.
+     * @param windowMillis Duration of the reporting window in milliseconds. Ignored if the
+     *                     listener is null.
+     * @throws IllegalArgumentException if the listener is not null and the window is not positive.
+     */
+    public void setMetricsListener(@Nullable final RulerMetricsListener listener,
+                                   final long windowMillis) {
+        if (listener != null && windowMillis <= 0) {
+            throw new IllegalArgumentException("Metrics window must be positive.");
+        }
+
+        mMetricsRecorder = listener == null ? null : new RulerMetricsRecorder(listener, windowMillis, mClock);
+        mTouchScroller.setMetricsRecorder(mMetricsRecorder);
+        mValueDispatcher.setMetricsRecorder(mMetricsRecorder);
+    }
+
+    /**
+     * Set the {@link RulerTracer} to mark the measure, layout, draw, value selection, fling
+     * snapping and scroll stop sections with. By default, the sections are written to the
+     * systrace.
+     *
+     * @param tracer {@link RulerTracer} to use or null to write the sections to the systrace.
+     * @see RulerTracer
+     */
+    public void setTracer(@Nullable final RulerTracer tracer) {
+        mTracer = tracer == null ? SystraceRulerTracer.INSTANCE : tracer;
+        mTouchScroller.setTracer(mTracer);
+    }
+
+    /**
+     * Set the time source of the flings, the animated scrolls and the metrics reporting windows. By
+     * default, the animation time of the current frame is used. Running fling or animation is
+     * stopped.
+     *
+     * @param clock {@link RulerClock} to use or null to use the animation time.
+     * @see RulerClock
+     */
+    public void setClock(@Nullable final RulerClock clock) {
+        mClock = clock == null ? AnimationRulerClock.INSTANCE : clock;
+        mTouchScroller.setClock(mClock);
+        if (mMetricsRecorder != null) mMetricsRecorder.setClock(mClock);
+    }
+
+    /**
+     * Run one frame without the display: move the ruler to the position of the running fling or
+     * animation at the current time of the {@link RulerClock}, and dispatch the pending
+     * intermediate value. The scroll tests call this in place of the frame callbacks.
+     */
+    void runFrame() {
+        computeScroll();
+        mValueDispatcher.runPending();
+    }
+
+    /**
+     * User interface state that is stored by FlatRulerValuePicker for implementing
+     * {@link View#onSaveInstanceState}.
+     */
+    public static class SavedState extends BaseSavedState {
+
+        public static final Parcelable.Creator<SavedState> CREATOR =
+                new Parcelable.Creator<SavedState>() {
+                    public SavedState createFromParcel(Parcel in) {
+                        return new SavedState(in);
+                    }
+
+                    public SavedState[] newArray(int size) {
+                        return new SavedState[size];
+                    }
+                };
+
+        private int value = 0;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            value = in.readInt();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(value);
+        }
+    }
+}
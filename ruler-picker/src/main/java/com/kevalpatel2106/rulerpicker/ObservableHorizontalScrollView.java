@@ -17,35 +17,88 @@ import android.annotation.SuppressLint;
 import android.content.Context;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
+import android.view.MotionEvent;
 import android.widget.HorizontalScrollView;
 
+import com.kevalpatel2106.rulerpicker.geometry.RulerTickTable;
+
 /**
  * Created by Kevalpatel2106 on 29-Mar-2018.
  * A {@link HorizontalScrollView} which has ability to detect start/stop scrolling.
+ * <p>
+ * Flings and animated scrolls are driven by the own {@link RulerScroller}, so the end of the motion
+ * is known exactly: the scroll stops in the frame the scroller finishes, or when the finger is
+ * lifted without starting a fling. No runnable is posted to poll the scroll position.
+ * <p>
+ * If the snap interval is set, the final position of every fling is moved to the nearest multiple
+ * of the interval when the fling starts, so the scroll decelerates straight onto it. If the finger
+ * is lifted without the fling, the scroll animates to the nearest multiple.
  *
  * @see <a href="https://github.com/dwfox/DWRulerView>Original Repo</a>
  */
 @SuppressLint("ViewConstructor")
 final class ObservableHorizontalScrollView extends HorizontalScrollView {
-    private static final long NEW_CHECK_DURATION = 100L;
 
-    private long mLastScrollUpdateMills = -1;
+    /**
+     * {@link RulerScroller} to run the flings and the animated scrolls. It is used instead of the
+     * {@link android.widget.OverScroller}, because it allows changing the final position of the
+     * running fling and reads the time from the {@link RulerClock}.
+     *
+     * @see #fling(int)
+     * @see #animateScrollTo(int)
+     * @see #setClock(RulerClock)
+     */
+    @NonNull
+    private final RulerScroller mScroller;
+
+    /**
+     * Horizontal scroll positions, the scroll settles on, are multiples of this interval. 0 if
+     * the scroll can settle anywhere.
+     *
+     * @see #setSnapInterval(int)
+     */
+    private int mSnapInterval = 0;
 
+    /**
+     * Positions of the indicators of the non-linear ruler to settle on, or null to settle on the
+     * multiples of the {@link #mSnapInterval}.
+     *
+     * @see #setSnapTable(RulerTickTable)
+     */
     @Nullable
-    private ScrollChangedListener mScrollChangedListener;
+    private RulerTickTable mSnapTable;
 
-    private Runnable mScrollerTask = new Runnable() {
+    /**
+     * True if the {@link #mScroller} is running.
+     */
+    private boolean mIsAnimating = false;
 
-        public void run() {
-            if (System.currentTimeMillis() - mLastScrollUpdateMills > NEW_CHECK_DURATION) {
-                mLastScrollUpdateMills = -1;
-                mScrollChangedListener.onScrollStopped();
-            } else {
-                //Post next delay
-                postDelayed(this, NEW_CHECK_DURATION);
-            }
-        }
-    };
+    /**
+     * True if the {@link #mScroller} is running the fling.
+     */
+    private boolean mIsFlinging = false;
+
+    /**
+     * True while the finger is on the screen.
+     */
+    private boolean mIsTouching = false;
+
+    /**
+     * True if the scroll position changed since the last {@link ScrollChangedListener#onScrollStopped()}.
+     */
+    private boolean mHasScrolled = false;
+
+    @Nullable
+    private ScrollChangedListener mScrollChangedListener;
+
+    /**
+     * {@link RulerTracer} to mark the sections of the work with.
+     *
+     * @see #setTracer(RulerTracer)
+     */
+    @NonNull
+    private RulerTracer mTracer = SystraceRulerTracer.INSTANCE;
 
     /**
      * Constructor.
@@ -58,6 +111,199 @@ final class ObservableHorizontalScrollView extends HorizontalScrollView {
                                           @NonNull final ScrollChangedListener listener) {
         super(context);
         mScrollChangedListener = listener;
+        mScroller = new RulerScroller(context);
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(final MotionEvent ev) {
+        final int action = ev.getActionMasked();
+        if (action == MotionEvent.ACTION_DOWN) {
+            //Finger catches the running fling.
+            mIsTouching = true;
+            abortAnimation();
+        }
+
+        //Fling starts while dispatching the ACTION_UP.
+        final boolean isHandled = super.dispatchTouchEvent(ev);
+
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            mIsTouching = false;
+            if (!mIsAnimating) settle();
+        }
+        return isHandled;
+    }
+
+    /**
+     * Settle the scroll released without the fling. If the scroll position is not on the snap
+     * interval, animate to the nearest snap position. Otherwise the scroll stops here.
+     */
+    private void settle() {
+        if (!mHasScrolled || getChildCount() == 0) return;
+
+        final int snappedX = snapScrollX(getScrollX());
+        if (snappedX != getScrollX()) {
+            animateScrollTo(snappedX);
+        } else {
+            notifyScrollStopped();
+        }
+    }
+
+    @Override
+    public void fling(final int velocityX) {
+        mTracer.beginSection(RulerTracer.SECTION_SNAP_FLING);
+        try {
+            if (getChildCount() == 0) return;
+
+            mScroller.fling(getScrollX(), velocityX, 0, getMaxScrollX());
+
+            //Decelerate straight onto the snap position.
+            mScroller.setFinalX(snapScrollX(mScroller.getFinalX()));
+            startAnimation();
+
+            mIsFlinging = true;
+            if (mScrollChangedListener != null) {
+                mScrollChangedListener.onFlingStarted(mScroller.getFinalX());
+            }
+        } finally {
+            mTracer.endSection();
+        }
+    }
+
+    /**
+     * Scroll to the given position with the animation. The listener is notified when the
+     * animation ends.
+     *
+     * @param x Horizontal scroll position to scroll to.
+     */
+    void animateScrollTo(final int x) {
+        if (getChildCount() == 0) return;
+
+        abortAnimation();
+        final int finalX = Math.max(0, Math.min(x, getMaxScrollX()));
+        mScroller.startScroll(getScrollX(), finalX - getScrollX());
+        startAnimation();
+    }
+
+    /**
+     * Scroll to the given position immediately. Running fling or animation is stopped, and the
+     * listener is notified that the scroll stopped, even if the position didn't change.
+     *
+     * @param x Horizontal scroll position to scroll to.
+     */
+    void jumpTo(final int x) {
+        abortAnimation();
+        scrollTo(x, getScrollY());
+
+        //The value is selected explicitly, so it is reported even if the position is the same.
+        mHasScrolled = true;
+        notifyScrollStopped();
+    }
+
+    /**
+     * Stop the running fling or animated scroll at the current position. If the fling is
+     * running, the listener is notified that the fling is cancelled.
+     */
+    private void abortAnimation() {
+        mScroller.forceFinished();
+        mIsAnimating = false;
+
+        if (mIsFlinging) {
+            mIsFlinging = false;
+            if (mScrollChangedListener != null) mScrollChangedListener.onFlingCancelled();
+        }
+    }
+
+    /**
+     * Start running the {@link #mScroller} from the next frame.
+     *
+     * @see #computeScroll()
+     */
+    private void startAnimation() {
+        mIsAnimating = true;
+        ViewCompat.postInvalidateOnAnimation(this);
+    }
+
+    @Override
+    public void computeScroll() {
+        if (!mIsAnimating) {
+            super.computeScroll();
+            return;
+        }
+
+        if (mScroller.computeScrollOffset()) scrollTo(mScroller.getCurrX(), getScrollY());
+
+        if (mScroller.isFinished()) {
+            mIsAnimating = false;
+            mIsFlinging = false;
+            if (!mIsTouching) notifyScrollStopped();
+        } else {
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+    }
+
+    /**
+     * @param x Horizontal scroll position.
+     * @return Nearest valid scroll position, that is a multiple of the {@link #mSnapInterval} or
+     * a position from the {@link #mSnapTable}.
+     */
+    private int snapScrollX(final int x) {
+        return RulerViewUtils.snapScrollPx(x, getMaxScrollX(), mSnapInterval, mSnapTable);
+    }
+
+    /**
+     * Set the interval of the positions, the scroll settles on. Flings end on the multiple of
+     * this interval, and the scroll released without the fling animates to the nearest multiple.
+     *
+     * @param snapIntervalPx Snap interval in pixels or 0 to settle anywhere.
+     */
+    void setSnapInterval(final int snapIntervalPx) {
+        mSnapInterval = snapIntervalPx;
+    }
+
+    /**
+     * Set the positions of the indicators of the non-linear ruler, the scroll settles on. This
+     * replaces the snap interval.
+     *
+     * @param snapTable Positions to settle on or null to use the snap interval.
+     */
+    void setSnapTable(@Nullable final RulerTickTable snapTable) {
+        mSnapTable = snapTable;
+    }
+
+    /**
+     * Set the time source of the flings and the animated scrolls. Running fling or animation is
+     * stopped.
+     *
+     * @param clock {@link RulerClock} to read the time from.
+     */
+    void setClock(@NonNull final RulerClock clock) {
+        abortAnimation();
+        mScroller.setClock(clock);
+    }
+
+    /**
+     * @param tracer {@link RulerTracer} to mark the sections of the work with.
+     */
+    void setTracer(@NonNull final RulerTracer tracer) {
+        mTracer = tracer;
+    }
+
+    /**
+     * @return Maximum horizontal scroll position.
+     */
+    private int getMaxScrollX() {
+        final int contentWidth = getChildAt(0).getWidth();
+        return Math.max(0, contentWidth - (getWidth() - getPaddingLeft() - getPaddingRight()));
+    }
+
+    /**
+     * Let the listener know that the scroll stopped, if the scroll position changed since the
+     * last stop.
+     */
+    private void notifyScrollStopped() {
+        if (!mHasScrolled) return;
+        mHasScrolled = false;
+        if (mScrollChangedListener != null) mScrollChangedListener.onScrollStopped();
     }
 
     @Override
@@ -66,11 +312,9 @@ final class ObservableHorizontalScrollView extends HorizontalScrollView {
                                    final int oldHorizontalOrigin,
                                    final int oldVerticalOrigin) {
         super.onScrollChanged(horizontalOrigin, verticalOrigin, oldHorizontalOrigin, oldVerticalOrigin);
+        mHasScrolled = true;
         if (mScrollChangedListener == null) return;
         mScrollChangedListener.onScrollChanged();
-
-        if (mLastScrollUpdateMills == -1) postDelayed(mScrollerTask, NEW_CHECK_DURATION);
-        mLastScrollUpdateMills = System.currentTimeMillis();
     }
 
     /**
@@ -84,9 +328,25 @@ final class ObservableHorizontalScrollView extends HorizontalScrollView {
         void onScrollChanged();
 
         /**
-         * Called when the scrollview stops scrolling.
+         * Called in the frame the scrollview stops scrolling: when the fling or the animated
+         * scroll ends, when the finger is lifted without the fling on the snap position, or
+         * after every {@link #jumpTo(int)}, even if the position didn't change. Immediate scrolls
+         * by {@link #scrollTo(int, int)} or {@link #scrollBy(int, int)} are not reported.
          */
         void onScrollStopped();
+
+        /**
+         * Called when the fling starts.
+         *
+         * @param finalX Horizontal scroll position the fling will stop at.
+         */
+        void onFlingStarted(int finalX);
+
+        /**
+         * Called when the fling is interrupted before it reaches the position passed to
+         * {@link #onFlingStarted(int)}.
+         */
+        void onFlingCancelled();
     }
 }
 
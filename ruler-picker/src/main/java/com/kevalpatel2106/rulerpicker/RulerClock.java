@@ -0,0 +1,31 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+/**
+ * Time source of the scroll animations and the metrics reporting windows of the picker. By
+ * default, the pickers use the animation time of the current frame. Replace it with a clock, that
+ * moves only when the test moves it, to run the scroll and complete the metrics windows
+ * deterministically, for example in the Robolectric tests.
+ *
+ * @see RulerValuePicker#setClock(RulerClock)
+ * @see FlatRulerValuePicker#setClock(RulerClock)
+ */
+public interface RulerClock {
+
+    /**
+     * @return Current time in milliseconds. Only the differences between the returned times are
+     * used, so the time can start from any value. Time must never go backwards.
+     */
+    long uptimeMillis();
+}
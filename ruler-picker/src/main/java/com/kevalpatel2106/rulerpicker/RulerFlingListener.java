@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+/**
+ * Listener to get the callback when the ruler of the {@link RulerValuePicker} starts or stops
+ * the fling. Use this together with the {@link RulerValuePickerListener} to start preparing for
+ * the value, the ruler will settle on, while the ruler is still moving.
+ *
+ * @see RulerValuePicker#setFlingListener(RulerFlingListener)
+ */
+public interface RulerFlingListener {
+
+    /**
+     * Called when the fling starts. The predicted value is computed from the fling velocity and
+     * is the value {@link RulerValuePickerListener#onValueChange(int)} will receive when the
+     * fling ends, unless the fling is cancelled.
+     *
+     * @param predictedValue Value the ruler will settle on.
+     */
+    void onFlingStarted(int predictedValue);
+
+    /**
+     * Called when the fling is interrupted before it ends. The ruler will settle on a different
+     * value than predicted by {@link #onFlingStarted(int)}.
+     *
+     * @param predictedValue Value predicted by {@link #onFlingStarted(int)}, that is not going to
+     *                       be selected.
+     */
+    void onFlingCancelled(int predictedValue);
+}
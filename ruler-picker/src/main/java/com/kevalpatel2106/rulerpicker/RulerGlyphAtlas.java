@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+
+/**
+ * Small bitmap with the pre-rasterized digits, the minus sign, the decimal separators and the
+ * colon of the times. The values on the ruler are composed from these glyphs, so drawing the
+ * value doesn't allocate any object or shape any text.
+ * <p>
+ * Atlas is rasterized with the size, the color and the typeface of the text paint. Create the new
+ * atlas whenever the text paint changes.
+ *
+ * @see RulerRenderer
+ */
+final class RulerGlyphAtlas {
+
+    /**
+     * Characters available in the atlas. The index of the character in this string is the index of
+     * its cell in the atlas.
+     */
+    private static final String GLYPHS = "0123456789-.,:";
+
+    /**
+     * Empty space around each glyph in the cell, in pixels. Some glyphs draw slightly outside
+     * their advance width.
+     */
+    private static final int CELL_PADDING_PX = 2;
+
+    /**
+     * Bitmap with all the glyphs in a single row.
+     */
+    @NonNull
+    private final Bitmap mAtlas;
+
+    /**
+     * Advance width of each glyph in pixels.
+     */
+    @NonNull
+    private final float[] mAdvances = new float[GLYPHS.length()];
+
+    /**
+     * Width of each cell in pixels.
+     */
+    private final int mCellWidth;
+
+    /**
+     * Height of each cell in pixels.
+     */
+    private final int mCellHeight;
+
+    /**
+     * Distance from the top of the cell to the baseline of the glyph in pixels.
+     */
+    private final int mBaseline;
+
+    /**
+     * Reusable source rect of the glyph in the atlas.
+     */
+    @NonNull
+    private final Rect mSrcRect = new Rect();
+
+    /**
+     * Reusable destination rect of the glyph on the canvas.
+     */
+    @NonNull
+    private final Rect mDstRect = new Rect();
+
+    /**
+     * Rasterize the glyphs.
+     *
+     * @param textPaint {@link Paint} to draw the text with.
+     */
+    RulerGlyphAtlas(@NonNull final Paint textPaint) {
+        final Paint paint = new Paint(textPaint);
+        paint.setTextAlign(Paint.Align.LEFT);
+        paint.getTextWidths(GLYPHS, mAdvances);
+
+        float maxAdvance = 0;
+        for (float advance : mAdvances) maxAdvance = Math.max(maxAdvance, advance);
+
+        final Paint.FontMetricsInt fontMetrics = paint.getFontMetricsInt();
+        mBaseline = -fontMetrics.top;
+        mCellHeight = Math.max(1, fontMetrics.bottom - fontMetrics.top);
+        mCellWidth = (int) Math.ceil(maxAdvance) + 2 * CELL_PADDING_PX;
+
+        mAtlas = Bitmap.createBitmap(mCellWidth * GLYPHS.length(), mCellHeight, Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(mAtlas);
+        for (int i = 0; i < GLYPHS.length(); i++) {
+            canvas.drawText(GLYPHS, i, i + 1, i * mCellWidth + CELL_PADDING_PX, mBaseline, paint);
+        }
+    }
+
+    /**
+     * @param c Character to look up.
+     * @return Index of the cell of the character or -1 if the character is not in the atlas.
+     */
+    private static int getGlyphIndex(final char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        switch (c) {
+            case '-':
+                return 10;
+            case '.':
+                return 11;
+            case ',':
+                return 12;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * @param text  Characters to check.
+     * @param start Index of the first character.
+     * @param count Number of characters.
+     * @return True if all the characters are available in the atlas.
+     */
+    @CheckResult
+    boolean canDraw(@NonNull final char[] text, final int start, final int count) {
+        for (int i = start; i < start + count; i++) {
+            if (getGlyphIndex(text[i]) < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Draw the text horizontally centered at the given position. All the characters must be
+     * available in the atlas.
+     *
+     * @param canvas   {@link Canvas} to draw on.
+     * @param text     Characters to draw.
+     * @param start    Index of the first character.
+     * @param count    Number of characters.
+     * @param centerX  Horizontal center of the text.
+     * @param baseline Vertical position of the baseline of the text.
+     * @see #canDraw(char[], int, int)
+     */
+    void drawCentered(@NonNull final Canvas canvas,
+                      @NonNull final char[] text,
+                      final int start,
+                      final int count,
+                      final float centerX,
+                      final float baseline) {
+        float width = 0;
+        for (int i = start; i < start + count; i++) width += mAdvances[getGlyphIndex(text[i])];
+
+        final int top = Math.round(baseline) - mBaseline;
+        float penX = centerX - width / 2;
+        for (int i = start; i < start + count; i++) {
+            final int glyphIndex = getGlyphIndex(text[i]);
+            final int left = Math.round(penX) - CELL_PADDING_PX;
+
+            mSrcRect.set(glyphIndex * mCellWidth, 0, (glyphIndex + 1) * mCellWidth, mCellHeight);
+            mDstRect.set(left, top, left + mCellWidth, top + mCellHeight);
+            canvas.drawBitmap(mAtlas, mSrcRect, mDstRect, null);
+
+            penX += mAdvances[glyphIndex];
+        }
+    }
+}
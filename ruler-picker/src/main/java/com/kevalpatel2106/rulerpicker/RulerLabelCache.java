@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+
+/**
+ * Cache of the labels formatted by the {@link RulerLabelFormatter}, keyed by the value. Cache has
+ * fixed number of slots and each value maps to one slot, so the lookup is a single array access.
+ * The slot is picked by the multiplicative (Fibonacci) hash of the value, which spreads the values
+ * with any stride, e.g. the timeline ticks every 15 minutes in milliseconds, evenly over the
+ * slots, so the labels on the screen rarely evict each other.
+ * Label characters are copied into the buffers owned by the slots, so once all the slots are
+ * used, formatting doesn't allocate anything.
+ *
+ * @see RulerRenderer
+ */
+final class RulerLabelCache {
+
+    /**
+     * Number of the slots. Must be 2 ^ {@link #SLOT_BITS}.
+     */
+    private static final int SLOT_COUNT = 256;
+
+    /**
+     * Number of the top bits of the hash used as the slot index.
+     */
+    private static final int SLOT_BITS = 8;
+
+    /**
+     * 2 ^ 64 divided by the golden ratio. Multiplying by this constant mixes all the bits of the
+     * value into the top bits of the product.
+     */
+    private static final long GOLDEN_RATIO_64 = 0x9E3779B97F4A7C15L;
+
+    @NonNull
+    private final RulerLabelFormatter mFormatter;
+
+    /**
+     * Value stored in each slot.
+     */
+    @NonNull
+    private final long[] mValues = new long[SLOT_COUNT];
+
+    /**
+     * Label characters stored in each slot.
+     */
+    @NonNull
+    private final char[][] mLabels = new char[SLOT_COUNT][];
+
+    /**
+     * Length of the label stored in each slot or -1 if the slot is empty.
+     */
+    @NonNull
+    private final int[] mLengths = new int[SLOT_COUNT];
+
+    /**
+     * Reusable buffer passed to the {@link #mFormatter}.
+     */
+    @NonNull
+    private final StringBuilder mBuilder = new StringBuilder(16);
+
+    /**
+     * Constructor.
+     *
+     * @param formatter {@link RulerLabelFormatter} to format the labels with.
+     */
+    RulerLabelCache(@NonNull final RulerLabelFormatter formatter) {
+        mFormatter = formatter;
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            mLengths[i] = -1;
+            mLabels[i] = new char[16];
+        }
+    }
+
+    /**
+     * Find the slot with the label of the value. The label is formatted if it is not cached.
+     *
+     * @param value Value to get the label for.
+     * @return Slot with the label.
+     * @see #getLabel(int)
+     * @see #getLength(int)
+     */
+    @CheckResult
+    int getSlot(final long value) {
+        final int slot = (int) ((value * GOLDEN_RATIO_64) >>> (Long.SIZE - SLOT_BITS));
+        if (mLengths[slot] >= 0 && mValues[slot] == value) return slot;
+
+        mBuilder.setLength(0);
+        mFormatter.formatLabel(value, mBuilder);
+
+        final int length = mBuilder.length();
+        if (mLabels[slot].length < length) mLabels[slot] = new char[length];
+        mBuilder.getChars(0, length, mLabels[slot], 0);
+        mLengths[slot] = length;
+        mValues[slot] = value;
+        return slot;
+    }
+
+    /**
+     * @param slot Slot returned by {@link #getSlot(long)}.
+     * @return Characters of the label. Only first {@link #getLength(int)} characters are valid.
+     */
+    @NonNull
+    @CheckResult
+    char[] getLabel(final int slot) {
+        return mLabels[slot];
+    }
+
+    /**
+     * @param slot Slot returned by {@link #getSlot(long)}.
+     * @return Number of the characters in the label.
+     */
+    @CheckResult
+    int getLength(final int slot) {
+        return mLengths[slot];
+    }
+}
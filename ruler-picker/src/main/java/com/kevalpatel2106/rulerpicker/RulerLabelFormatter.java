@@ -0,0 +1,58 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.support.annotation.AnyThread;
+import android.support.annotation.NonNull;
+
+/**
+ * Formatter for the values displayed below the long indicators of the {@link RulerValuePicker}.
+ * e.g. "156 cm", "5'2\"" or "12.5".
+ * <p>
+ * The label is written into a reusable buffer supplied by the ruler and the formatted labels are
+ * cached by the value, so the formatter is called only when a value is displayed for the first
+ * time.
+ * <p>
+ * <b>Threading:</b> The formatter may be called on any thread. If the tile rendering is enabled
+ * (see {@link RulerValuePicker#setTileCacheSize(int)}), the tiles are rendered on a background
+ * thread and the formatter is called there, concurrently with the calls on the main thread.
+ * Implementations must be thread safe: the label must depend only on the value, and the
+ * formatter must not touch the views or any other state owned by the main thread. Stateless
+ * formatters, like the one in the sample below, satisfy this contract.
+ * <pre>{@code
+ * picker.setLabelFormatter(new RulerLabelFormatter() {
+ *     public void formatLabel(long value, StringBuilder out) {
+ *         out.append(value).append(" cm");
+ *     }
+ * });
+ * }</pre>
+ *
+ * @author <a href="https://github.com/kevalpatel2106">kevalpatel2106</a>
+ * @see RulerValuePicker#setLabelFormatter(RulerLabelFormatter)
+ */
+public interface RulerLabelFormatter {
+
+    /**
+     * Write the label of the value into the buffer. Avoid allocating the objects in this method,
+     * e.g. append the numbers and the characters directly to the buffer instead of using
+     * {@link String#format(String, Object...)}.
+     *
+     * @param value Fixed point value to format, in the units of the last decimal place of the
+     *              {@link com.kevalpatel2106.rulerpicker.geometry.RulerValueScale}. Without the
+     *              scale, this is the plain value.
+     * @param out   Empty buffer to append the label to.
+     */
+    @AnyThread
+    void formatLabel(long value, @NonNull StringBuilder out);
+}
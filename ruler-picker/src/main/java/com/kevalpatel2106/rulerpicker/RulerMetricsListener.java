@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Listener to get the rendering metrics of the picker.
+ *
+ * @see RulerValuePicker#setMetricsListener(RulerMetricsListener, long)
+ * @see RulerRenderingMetrics
+ */
+public interface RulerMetricsListener {
+
+    /**
+     * Called on the main thread at the end of the frame, that completes the reporting window.
+     * The metrics object is reused for the next window, so copy the values you need before
+     * returning from this method.
+     *
+     * @param metrics Metrics aggregated over the reporting window.
+     */
+    void onMetrics(@NonNull RulerRenderingMetrics metrics);
+}
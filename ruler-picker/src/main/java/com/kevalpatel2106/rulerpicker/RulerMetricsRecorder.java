@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Aggregates the {@link RulerRenderingMetrics} of one picker and reports them to the
+ * {@link RulerMetricsListener} once per reporting window. The views keep a null recorder while
+ * the metrics are disabled, so recording costs only a null check.
+ * <p>
+ * Window is checked only at the end of the frame. If nothing is drawn, nothing is reported. The
+ * windows are timed by the {@link RulerClock} of the picker, so the tests can complete them
+ * without waiting.
+ */
+final class RulerMetricsRecorder {
+
+    @NonNull
+    private final RulerMetricsListener mListener;
+
+    /**
+     * Duration of the reporting window in milliseconds.
+     */
+    private final long mWindowMillis;
+
+    /**
+     * Time source of the reporting windows.
+     *
+     * @see #setClock(RulerClock)
+     */
+    @NonNull
+    private RulerClock mClock;
+
+    /**
+     * Metrics of the current window. Reused for all the windows.
+     */
+    @NonNull
+    private final RulerRenderingMetrics mMetrics = new RulerRenderingMetrics();
+
+    /**
+     * Start time of the current window in the time of the {@link #mClock}.
+     */
+    private long mWindowStartMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param listener     {@link RulerMetricsListener} to report the metrics to.
+     * @param windowMillis Duration of the reporting window in milliseconds.
+     * @param clock        {@link RulerClock} to time the reporting windows with.
+     */
+    RulerMetricsRecorder(@NonNull final RulerMetricsListener listener,
+                         final long windowMillis,
+                         @NonNull final RulerClock clock) {
+        mListener = listener;
+        mWindowMillis = windowMillis;
+        mClock = clock;
+        mWindowStartMillis = clock.uptimeMillis();
+    }
+
+    /**
+     * Replace the time source of the reporting windows. Current window restarts at the current
+     * time of the new clock.
+     *
+     * @param clock {@link RulerClock} to time the reporting windows with.
+     */
+    void setClock(@NonNull final RulerClock clock) {
+        mClock = clock;
+        mWindowStartMillis = clock.uptimeMillis();
+    }
+
+    /**
+     * Record the drawn frame and report the metrics if the window is complete.
+     *
+     * @param drawTimeNanos Time spent drawing the ruler in nanoseconds.
+     * @param ticksDrawn    Number of the indicators drawn.
+     * @param labelsDrawn   Number of the values drawn.
+     * @param drawCalls     Number of the {@link android.graphics.Canvas} draw calls.
+     */
+    void onFrameDrawn(final long drawTimeNanos,
+                      final int ticksDrawn,
+                      final int labelsDrawn,
+                      final int drawCalls) {
+        mMetrics.addFrame(drawTimeNanos, ticksDrawn, labelsDrawn, drawCalls);
+
+        final long nowMillis = mClock.uptimeMillis();
+        if (nowMillis - mWindowStartMillis < mWindowMillis) return;
+
+        mMetrics.setWindowDurationNanos((nowMillis - mWindowStartMillis) * 1000000L);
+        mListener.onMetrics(mMetrics);
+        mMetrics.reset();
+        mWindowStartMillis = nowMillis;
+    }
+
+    void onMeasurePass() {
+        mMetrics.addMeasurePass();
+    }
+
+    void onTileCacheHit() {
+        mMetrics.addTileCacheHit();
+    }
+
+    void onTileCacheMiss() {
+        mMetrics.addTileCacheMiss();
+    }
+
+    void onScrollEvent() {
+        mMetrics.addScrollEvent();
+    }
+
+    /**
+     * @param dispatchTimeNanos Time spent in the {@link RulerValuePickerListener} in nanoseconds.
+     */
+    void onListenerDispatched(final long dispatchTimeNanos) {
+        mMetrics.addListenerDispatch(dispatchTimeNanos);
+    }
+}
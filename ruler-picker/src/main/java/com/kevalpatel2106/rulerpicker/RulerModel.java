@@ -0,0 +1,432 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.kevalpatel2106.rulerpicker.geometry.RulerGeometry;
+import com.kevalpatel2106.rulerpicker.geometry.RulerScaleMapping;
+import com.kevalpatel2106.rulerpicker.geometry.RulerTickLevels;
+import com.kevalpatel2106.rulerpicker.geometry.RulerTickTable;
+import com.kevalpatel2106.rulerpicker.geometry.RulerValueScale;
+import com.kevalpatel2106.rulerpicker.geometry.RulerValueSet;
+
+/**
+ * Style and range of the integer ruler, shared by the {@link RulerView} and the
+ * {@link FlatRulerValuePicker}: values, spacing and levels of the indicators, formatting of the
+ * values, and the {@link RulerRenderer} that draws them. Changes are batched and applied to the
+ * renderer the same way as the {@link RulerStyle} changes, before the view gets the
+ * {@link RulerStyle.Callback}.
+ */
+final class RulerModel extends RulerStyle {
+
+    @NonNull
+    private final Resources mResources;
+
+    /**
+     * Draws the indicators and the values.
+     */
+    @NonNull
+    private final RulerRenderer mRenderer = new RulerRenderer();
+
+    /**
+     * Distance interval between two subsequent indicators on the ruler.
+     *
+     * @see #setIndicatorIntervalDistance(int)
+     */
+    private int mIndicatorInterval = 14 /* Default value */;
+
+    /**
+     * Minimum value. This value will be displayed at the left-most end of the ruler. This value
+     * must be less than {@link #mMaxValue}.
+     *
+     * @see #setValueRange(int, int)
+     */
+    private int mMinValue = 0 /* Default value */;
+
+    /**
+     * Maximum value. This value will be displayed at the right-most end of the ruler. This value
+     * must be greater than {@link #mMinValue}.
+     *
+     * @see #setValueRange(int, int)
+     */
+    private int mMaxValue = 100 /* Default maximum value */;
+
+    /**
+     * Levels of the indicators. By default, every fifth indicator is the long one.
+     *
+     * @see #setTickLevels(RulerTickLevels)
+     */
+    @NonNull
+    private RulerTickLevels mTickLevels = RulerTickLevels.DEFAULT;
+
+    /**
+     * Non-linear scale of the ruler or null if the indicators are evenly spaced.
+     *
+     * @see #setScaleMapping(RulerScaleMapping)
+     */
+    @Nullable
+    private RulerScaleMapping mScaleMapping;
+
+    /**
+     * Positions of the indicators computed from the {@link #mScaleMapping} for the current range
+     * and interval, or null if the ruler is linear.
+     */
+    @Nullable
+    private RulerTickTable mTickTable;
+
+    /**
+     * Constructor.
+     *
+     * @param context  {@link Context} to read the resources with.
+     * @param callback {@link RulerStyle.Callback} to receive the applied changes.
+     */
+    RulerModel(@NonNull final Context context, @NonNull final Callback callback) {
+        super(context, callback, RulerTickLevels.DEFAULT.getLevelCount());
+        mResources = context.getResources();
+        mRenderer.setPaints(getIndicatorPaint(), getTextPaint());
+    }
+
+    /**
+     * Read the attributes of the {@link RulerValuePicker}, except the range. Call this inside the
+     * batch.
+     *
+     * @param a {@link TypedArray} of the {@code RulerValuePicker} styleable.
+     */
+    @Override
+    void parseAttributes(@NonNull final TypedArray a) {
+        super.parseAttributes(a);
+
+        if (a.hasValue(R.styleable.RulerValuePicker_indicator_interval)) {
+            setIndicatorIntervalDistance(a.getDimensionPixelSize(R.styleable.RulerValuePicker_indicator_interval,
+                    4));
+        }
+
+        final RulerTickLevels tickLevels = RulerViewUtils.getTickLevels(mResources, a,
+                R.styleable.RulerValuePicker_tick_level_intervals,
+                R.styleable.RulerValuePicker_tick_label_level);
+        if (tickLevels != null) setTickLevels(tickLevels);
+
+        final float[] levelHeightRatios = RulerViewUtils.getFractionArray(mResources, a,
+                R.styleable.RulerValuePicker_tick_level_heights);
+        final int[] levelColors = RulerViewUtils.getColorArray(mResources, a,
+                R.styleable.RulerValuePicker_tick_level_colors);
+        final int[] levelWidthsPx = RulerViewUtils.getDimensionArray(mResources, a,
+                R.styleable.RulerValuePicker_tick_level_widths);
+        if (levelHeightRatios != null || levelColors != null || levelWidthsPx != null) {
+            setTickLevelStyle(levelHeightRatios, levelColors, levelWidthsPx);
+        }
+
+        if (a.hasValue(R.styleable.RulerValuePicker_value_precision) ||
+                a.hasValue(R.styleable.RulerValuePicker_value_step)) {
+            setValueScale(new RulerValueScale(a.getInteger(R.styleable.RulerValuePicker_value_precision, 0),
+                    a.getInteger(R.styleable.RulerValuePicker_value_step, 1)));
+        }
+    }
+
+    @Override
+    void onStyleChanged(final int dirtyFlags) {
+        if ((dirtyFlags & DIRTY_INDICATOR_PAINT) != 0) mRenderer.invalidateIndicatorPaint();
+
+        if ((dirtyFlags & (DIRTY_INDICATOR_PAINT | DIRTY_GEOMETRY)) != 0) {
+            mRenderer.setTickLevels(mTickLevels, getLevelPaints());
+        }
+
+        if ((dirtyFlags & DIRTY_TEXT_PAINT) != 0) mRenderer.invalidateTextPaint();
+
+        if ((dirtyFlags & DIRTY_GEOMETRY) != 0) {
+            mRenderer.setValueRange(mMinValue, mMaxValue);
+            mRenderer.setIndicatorInterval(mIndicatorInterval);
+            mRenderer.setTickTable(mTickTable);
+            mRenderer.setLevelHeights(getLevelHeights());
+        }
+        super.onStyleChanged(dirtyFlags);
+    }
+
+    /**
+     * @return {@link RulerRenderer} to draw the ruler with.
+     */
+    @NonNull
+    @CheckResult
+    RulerRenderer getRenderer() {
+        return mRenderer;
+    }
+
+    /**
+     * Update the heights of the indicators to the height of the view.
+     *
+     * @param heightPx Height of the ruler in pixels.
+     * @return True if the heights of the indicators changed.
+     */
+    boolean updateHeight(final int heightPx) {
+        if (!setHeight(heightPx)) return false;
+        mRenderer.setLevelHeights(getLevelHeights());
+        return true;
+    }
+
+    /**
+     * @return Get the minimum value displayed on the ruler.
+     * @see #setValueRange(int, int)
+     */
+    @CheckResult
+    int getMinValue() {
+        return mMinValue;
+    }
+
+    /**
+     * @return Get the maximum value displayed on the ruler.
+     * @see #setValueRange(int, int)
+     */
+    @CheckResult
+    int getMaxValue() {
+        return mMaxValue;
+    }
+
+    /**
+     * Set the range of the values to display on the ruler. This will decide the number of
+     * indicators that ruler will draw.
+     *
+     * @param minValue Value to display at the left end of the ruler. This can be positive, negative
+     *                 or zero. Default minimum value is 0.
+     * @param maxValue Value to display at the right end of the ruler. This can be positive, negative
+     *                 or zero.This value must be greater than min value. Default minimum value is 100.
+     * @throws IllegalArgumentException if the scale mapping is not valid over the range.
+     */
+    void setValueRange(final int minValue, final int maxValue) {
+        if (minValue == mMinValue && maxValue == mMaxValue) return;
+        final RulerTickTable tickTable = RulerViewUtils.createTickTable(minValue, maxValue,
+                mIndicatorInterval, mScaleMapping);
+        mMinValue = minValue;
+        mMaxValue = maxValue;
+        mTickTable = tickTable;
+        markDirty(DIRTY_GEOMETRY | DIRTY_LAYOUT);
+    }
+
+    /**
+     * @return Get distance between two indicator in pixels.
+     * @see #setIndicatorIntervalDistance(int)
+     */
+    @CheckResult
+    int getIndicatorIntervalWidth() {
+        return mIndicatorInterval;
+    }
+
+    /**
+     * Set the spacing between two vertical lines/indicators. Default value is 14 pixels.
+     *
+     * @param indicatorIntervalPx Distance in pixels. This cannot be negative number or zero.
+     * @throws IllegalArgumentException if interval is negative or zero, or the scale mapping is
+     *                                  not valid at the new interval.
+     */
+    void setIndicatorIntervalDistance(final int indicatorIntervalPx) {
+        if (indicatorIntervalPx <= 0)
+            throw new IllegalArgumentException("Interval cannot be negative or zero.");
+
+        if (indicatorIntervalPx == mIndicatorInterval) return;
+        final RulerTickTable tickTable = RulerViewUtils.createTickTable(mMinValue, mMaxValue,
+                indicatorIntervalPx, mScaleMapping);
+        mIndicatorInterval = indicatorIntervalPx;
+        mTickTable = tickTable;
+        markDirty(DIRTY_GEOMETRY | DIRTY_LAYOUT);
+    }
+
+    /**
+     * @return Custom {@link RulerLabelFormatter} or null if the values are displayed as plain integers.
+     * @see #setLabelFormatter(RulerLabelFormatter)
+     */
+    @Nullable
+    @CheckResult
+    RulerLabelFormatter getLabelFormatter() {
+        return mRenderer.getLabelFormatter();
+    }
+
+    /**
+     * Set the formatter for the values displayed below the long indicators.
+     *
+     * @param labelFormatter {@link RulerLabelFormatter} to format the values or null to display
+     *                       the values as plain integers.
+     */
+    void setLabelFormatter(@Nullable final RulerLabelFormatter labelFormatter) {
+        if (labelFormatter == mRenderer.getLabelFormatter()) return;
+        mRenderer.setLabelFormatter(labelFormatter);
+        markDirty(DIRTY_LABELS);
+    }
+
+    /**
+     * @return Non-linear scale of the ruler or null if the indicators are evenly spaced.
+     * @see #setScaleMapping(RulerScaleMapping)
+     */
+    @Nullable
+    @CheckResult
+    RulerScaleMapping getScaleMapping() {
+        return mScaleMapping;
+    }
+
+    /**
+     * Set the non-linear scale of the ruler. Positions of the indicators are computed once for
+     * the current range and interval, and again whenever they change.
+     *
+     * @param scaleMapping {@link RulerScaleMapping} to place the indicators with or null to space
+     *                     them evenly.
+     * @throws IllegalArgumentException if the mapping is not valid over the range, e.g. two
+     *                                  consecutive values map to the same pixel.
+     */
+    void setScaleMapping(@Nullable final RulerScaleMapping scaleMapping) {
+        if (scaleMapping == mScaleMapping) return;
+        mTickTable = RulerViewUtils.createTickTable(mMinValue, mMaxValue, mIndicatorInterval, scaleMapping);
+        mScaleMapping = scaleMapping;
+        markDirty(DIRTY_GEOMETRY);
+    }
+
+    /**
+     * @return Positions of the indicators of the non-linear ruler or null if the indicators are
+     * {@link #getIndicatorIntervalWidth()} apart.
+     */
+    @Nullable
+    @CheckResult
+    RulerTickTable getTickTable() {
+        return mTickTable;
+    }
+
+    /**
+     * @return {@link RulerValueScale} the values are displayed with.
+     * @see #setValueScale(RulerValueScale)
+     */
+    @NonNull
+    @CheckResult
+    RulerValueScale getValueScale() {
+        return mRenderer.getValueScale();
+    }
+
+    /**
+     * Set the fixed point scale of the displayed values.
+     *
+     * @param valueScale {@link RulerValueScale} to display the values with.
+     */
+    void setValueScale(@NonNull final RulerValueScale valueScale) {
+        if (valueScale.equals(mRenderer.getValueScale())) return;
+        mRenderer.setValueScale(valueScale);
+        markDirty(DIRTY_LABELS);
+    }
+
+    /**
+     * @return {@link RulerValueSet} displayed at the indicators or null.
+     * @see #setValueSet(RulerValueSet)
+     */
+    @Nullable
+    @CheckResult
+    RulerValueSet getValueSet() {
+        return mRenderer.getValueSet();
+    }
+
+    /**
+     * Display the entries of the set at the indicators instead of the values of the range. The
+     * range must have one indicator per entry.
+     *
+     * @param valueSet {@link RulerValueSet} to display or null to display the values of the range.
+     */
+    void setValueSet(@Nullable final RulerValueSet valueSet) {
+        if (valueSet == mRenderer.getValueSet()) return;
+        mRenderer.setValueSet(valueSet);
+        markDirty(DIRTY_LABELS);
+    }
+
+    /**
+     * @return {@link RulerTickLevels} of the indicators.
+     * @see #setTickLevels(RulerTickLevels)
+     */
+    @NonNull
+    @CheckResult
+    RulerTickLevels getTickLevels() {
+        return mTickLevels;
+    }
+
+    /**
+     * Set the levels of the indicators. The style of the levels is reset: heights are spread
+     * between the short and the long indicator height, and all the levels have the indicator
+     * color and width.
+     *
+     * @param tickLevels {@link RulerTickLevels} of the indicators.
+     */
+    void setTickLevels(@NonNull final RulerTickLevels tickLevels) {
+        if (tickLevels.equals(mTickLevels)) return;
+        mTickLevels = tickLevels;
+        setLevelCount(tickLevels.getLevelCount());
+    }
+
+    /**
+     * @return Width of the whole ruler in pixels. This is also the maximum scroll position.
+     */
+    @CheckResult
+    int getRulerWidth() {
+        return RulerGeometry.getRulerWidth(mMinValue, mMaxValue, mIndicatorInterval);
+    }
+
+    /**
+     * @param scrollPx Position of the ruler under the notch in pixels.
+     * @return Value selected at the given position.
+     */
+    @CheckResult
+    int getValueAt(final int scrollPx) {
+        return RulerViewUtils.getValueAt(scrollPx, mMinValue, mMaxValue, mIndicatorInterval, mTickTable);
+    }
+
+    /**
+     * @param value Value to select. Values outside the range are clamped to the range.
+     * @return Position of the ruler, at which the value is under the notch.
+     */
+    @CheckResult
+    int getScrollPxForValue(final int value) {
+        return RulerViewUtils.getScrollPxForValue(value, mMinValue, mMaxValue, mIndicatorInterval, mTickTable);
+    }
+
+    /**
+     * @param scrollPx Position of the ruler.
+     * @return Position of the nearest indicator within the range of the ruler.
+     */
+    @CheckResult
+    int snapScrollPx(final int scrollPx) {
+        return RulerViewUtils.snapScrollPx(scrollPx, Math.max(0, getRulerWidth()), mIndicatorInterval, mTickTable);
+    }
+
+    /**
+     * @param value Integer value of the picker.
+     * @return Value as the fixed point number of the {@link #getValueScale()} or the entry of the
+     * value set.
+     */
+    @CheckResult
+    long toFixedPoint(final int value) {
+        final RulerValueSet valueSet = mRenderer.getValueSet();
+        return valueSet != null ? valueSet.get(value) : mRenderer.getValueScale().toFixedPoint(value);
+    }
+
+    /**
+     * @param fixedPoint Fixed point number of the {@link #getValueScale()} or the entry of the
+     *                   value set.
+     * @return Integer value of the picker nearest to the fixed point number.
+     */
+    @CheckResult
+    int toValue(final long fixedPoint) {
+        final RulerValueSet valueSet = mRenderer.getValueSet();
+        if (valueSet != null) return valueSet.indexOfNearest(fixedPoint);
+
+        final long value = mRenderer.getValueScale().toValue(fixedPoint);
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(value, Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.support.annotation.CheckResult;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+
+/**
+ * Triangle notch at the top-center of the picker, that points at the selected value.
+ */
+final class RulerNotch {
+
+    @NonNull
+    private final Paint mNotchPaint = new Paint();
+
+    @NonNull
+    private final Path mNotchPath = new Path();
+
+    @ColorInt
+    private int mNotchColor = Color.WHITE;
+
+    RulerNotch() {
+        mNotchPaint.setStrokeWidth(5f);
+        mNotchPaint.setStyle(Paint.Style.FILL_AND_STROKE);
+        mNotchPaint.setColor(mNotchColor);
+    }
+
+    /**
+     * @return Integer color of the notch.
+     */
+    @ColorInt
+    @CheckResult
+    int getColor() {
+        return mNotchColor;
+    }
+
+    /**
+     * @param notchColor Integer color of the notch. The paint is updated in place.
+     */
+    void setColor(@ColorInt final int notchColor) {
+        mNotchColor = notchColor;
+        mNotchPaint.setColor(notchColor);
+    }
+
+    /**
+     * Calculate notch path for the width of the picker.
+     *
+     * @param width Width of the picker in pixels.
+     */
+    void setWidth(final int width) {
+        mNotchPath.reset();
+
+        mNotchPath.moveTo(width / 2 - 30, 0);
+        mNotchPath.lineTo(width / 2, 40);
+        mNotchPath.lineTo(width / 2 + 30, 0);
+    }
+
+    /**
+     * @param canvas {@link Canvas} to draw the notch on.
+     */
+    void draw(@NonNull final Canvas canvas) {
+        canvas.drawPath(mNotchPath, mNotchPaint);
+    }
+}
@@ -0,0 +1,864 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.kevalpatel2106.rulerpicker.geometry.RulerGeometry;
+import com.kevalpatel2106.rulerpicker.geometry.RulerTickLevels;
+import com.kevalpatel2106.rulerpicker.geometry.RulerTickTable;
+import com.kevalpatel2106.rulerpicker.geometry.RulerValueScale;
+import com.kevalpatel2106.rulerpicker.geometry.RulerValueSet;
+
+import java.util.Arrays;
+
+/**
+ * Draws the indicators and the values of the ruler on any {@link Canvas}. {@link RulerView} uses
+ * this to draw the visible part of the ruler directly on the screen or to render the part of the
+ * ruler into the tile bitmaps.
+ * <p>
+ * All the positions are in pixels relative to the start (minimum value) of the ruler.
+ * <p>
+ * This class is not thread safe. To draw on the background thread, create a snapshot using
+ * {@link #RulerRenderer(RulerRenderer)} and use it only on that thread.
+ *
+ * @see RulerView
+ */
+final class RulerRenderer {
+
+    /**
+     * Maximum width of the recorded period pattern in pixels. Wider periods are drawn with the
+     * lines, so the pattern bitmap never goes past the texture size limits.
+     */
+    private static final int MAX_PATTERN_WIDTH_PX = 2048;
+
+    /**
+     * Minimum distance between two indicators of the non-linear ruler in pixels, in addition to
+     * the width of the indicator. Indicators closer to the previous one are skipped.
+     */
+    private static final int MIN_TICK_GAP_PX = 2;
+
+    /**
+     * {@link Paint} for the line in the ruler view.
+     */
+    private Paint mIndicatorPaint;
+
+    /**
+     * {@link Paint} to display the text on the ruler view.
+     */
+    private Paint mTextPaint;
+
+    /**
+     * Distance interval between two subsequent indicators on the ruler in pixels.
+     */
+    private int mIndicatorInterval = 14;
+
+    /**
+     * Value displayed at the left-most end of the ruler.
+     */
+    private int mMinValue = 0;
+
+    /**
+     * Value displayed at the right-most end of the ruler.
+     */
+    private int mMaxValue = 100;
+
+    /**
+     * Levels of the indicators.
+     *
+     * @see #setTickLevels(RulerTickLevels, Paint[])
+     */
+    @NonNull
+    private RulerTickLevels mTickLevels = RulerTickLevels.DEFAULT;
+
+    /**
+     * Height of the indicators of each level in pixels.
+     *
+     * @see #setLevelHeights(int[])
+     */
+    @NonNull
+    private int[] mLevelHeights = new int[RulerTickLevels.DEFAULT.getLevelCount()];
+
+    /**
+     * Height of the tallest indicator in pixels.
+     */
+    private int mMaxIndicatorHeight = 0;
+
+    /**
+     * {@link Paint} of each level or null if all the levels are drawn with the
+     * {@link #mIndicatorPaint}.
+     */
+    @Nullable
+    private Paint[] mLevelPaints;
+
+    /**
+     * Index of the buffer in {@link #mIndicatorLines} of each level.
+     *
+     * @see #groupLevelPaints()
+     */
+    @NonNull
+    private int[] mLevelBuffers = new int[0];
+
+    /**
+     * {@link Paint} to draw each buffer in {@link #mIndicatorLines} with. Array has one entry per
+     * level, only the first {@link #mBufferCount} are used.
+     */
+    @NonNull
+    private Paint[] mBufferPaints = new Paint[0];
+
+    /**
+     * Number of the distinct paints of the levels, i.e. the buffers in use.
+     *
+     * @see #groupLevelPaints()
+     */
+    private int mBufferCount = 0;
+
+    /**
+     * Half of the width of the widest value text in pixels. Labels are drawn in the center of the
+     * long indicator, so the label of the indicator just outside the drawn part may still be
+     * partially visible. The drawn part is extended by this margin.
+     *
+     * @see #updateLabelMargin()
+     */
+    private int mLabelMarginPx = 0;
+
+    /**
+     * Reusable buffers for the coordinates of the indicator lines, one for each distinct paint of
+     * the levels. There is one buffer per level, only the first {@link #mBufferCount} are used.
+     * Each indicator takes four floats (x0, y0, x1, y1). All indicators in the drawn part are
+     * written in these buffers and each buffer is drawn with single
+     * {@link Canvas#drawLines(float[], int, int, Paint)} call.
+     *
+     * @see #ensureIndicatorBufferCapacity(int)
+     */
+    @NonNull
+    private float[][] mIndicatorLines = new float[0][];
+
+    /**
+     * Number of the floats written in each buffer in {@link #mIndicatorLines}.
+     */
+    @NonNull
+    private int[] mLineCounts = new int[0];
+
+    /**
+     * {@link Paint} with the repeating {@link BitmapShader} of one period of the indicators, or
+     * null if the pattern is not recorded yet. Drawing a rect with this paint draws the indicators
+     * of any number of the periods with a single draw operation.
+     *
+     * @see #recordPeriodPattern()
+     * @see #invalidatePeriodPattern()
+     */
+    @Nullable
+    private Paint mPeriodPatternPaint;
+
+    /**
+     * Number of the indicators drawn since the last {@link #resetDrawnCounts()}.
+     */
+    private int mDrawnTickCount = 0;
+
+    /**
+     * Number of the values drawn since the last {@link #resetDrawnCounts()}.
+     */
+    private int mDrawnLabelCount = 0;
+
+    /**
+     * Number of the {@link Canvas} draw calls since the last {@link #resetDrawnCounts()}.
+     */
+    private int mDrawCallCount = 0;
+
+    /**
+     * Pre-rasterized digits to compose the values from, or null if the atlas is not rasterized yet.
+     *
+     * @see #getGlyphAtlas()
+     */
+    @Nullable
+    private RulerGlyphAtlas mGlyphAtlas;
+
+    /**
+     * Reusable buffer for the characters of the value to draw. Long enough for any long value.
+     *
+     * @see RulerValueScale#format(long, char[])
+     */
+    @NonNull
+    private final char[] mLabelChars = new char[RulerValueScale.MAX_LABEL_LENGTH];
+
+    /**
+     * Positions of the indicators of the non-linear ruler, or null if the indicators are
+     * {@link #mIndicatorInterval} apart.
+     *
+     * @see #setTickTable(RulerTickTable)
+     */
+    @Nullable
+    private RulerTickTable mTickTable;
+
+    /**
+     * Fixed point scale of the values.
+     *
+     * @see #setValueScale(RulerValueScale)
+     */
+    @NonNull
+    private RulerValueScale mValueScale = RulerValueScale.INTEGER;
+
+    /**
+     * Entries displayed at the indicators, or null if the indicators display the values of the
+     * range.
+     *
+     * @see #setValueSet(RulerValueSet)
+     */
+    @Nullable
+    private RulerValueSet mValueSet;
+
+    /**
+     * Cache of the labels formatted by the custom {@link RulerLabelFormatter} or null if the
+     * values are displayed as plain integers.
+     *
+     * @see #setLabelFormatter(RulerLabelFormatter)
+     */
+    @Nullable
+    private RulerLabelCache mLabelCache;
+
+    /**
+     * Custom {@link RulerLabelFormatter} or null if the values are displayed as plain integers.
+     */
+    @Nullable
+    private RulerLabelFormatter mLabelFormatter;
+
+    RulerRenderer() {
+        //Paints are set by the owner.
+    }
+
+    /**
+     * Create the snapshot of the given renderer. Snapshot has its own copy of the paints and the
+     * buffers, so it can be used on another thread while the source changes.
+     *
+     * @param source {@link RulerRenderer} to copy.
+     */
+    RulerRenderer(@NonNull final RulerRenderer source) {
+        mIndicatorPaint = source.mIndicatorPaint == null ? null : new Paint(source.mIndicatorPaint);
+        mTextPaint = source.mTextPaint == null ? null : new Paint(source.mTextPaint);
+        mIndicatorInterval = source.mIndicatorInterval;
+        mMinValue = source.mMinValue;
+        mMaxValue = source.mMaxValue;
+        mTickLevels = source.mTickLevels;
+        mLevelHeights = source.mLevelHeights.clone();
+        mMaxIndicatorHeight = source.mMaxIndicatorHeight;
+        if (source.mLevelPaints != null) {
+            //Levels, that share the paint in the source, share the copy of the paint.
+            final Paint[] bufferPaints = new Paint[source.mBufferCount];
+            for (int buffer = 0; buffer < bufferPaints.length; buffer++) {
+                bufferPaints[buffer] = new Paint(source.mBufferPaints[buffer]);
+            }
+            mLevelPaints = new Paint[source.mLevelBuffers.length];
+            for (int level = 0; level < mLevelPaints.length; level++) {
+                mLevelPaints[level] = bufferPaints[source.mLevelBuffers[level]];
+            }
+        }
+        groupLevelPaints();
+        mLabelMarginPx = source.mLabelMarginPx;
+        mLabelFormatter = source.mLabelFormatter;
+        mValueScale = source.mValueScale;
+        mTickTable = source.mTickTable;
+        mValueSet = source.mValueSet;
+        mLabelCache = mLabelFormatter == null ? null : new RulerLabelCache(mLabelFormatter);
+    }
+
+    /**
+     * Set the paints to draw the indicators and the values. Paints are owned by the caller. Call
+     * {@link #invalidateIndicatorPaint()} or {@link #invalidateTextPaint()} after changing them.
+     *
+     * @param indicatorPaint {@link Paint} for the indicator lines.
+     * @param textPaint      {@link Paint} for the value text.
+     */
+    void setPaints(@NonNull final Paint indicatorPaint,
+                   @NonNull final Paint textPaint) {
+        mIndicatorPaint = indicatorPaint;
+        mTextPaint = textPaint;
+        groupLevelPaints();
+        invalidateIndicatorPaint();
+        invalidateTextPaint();
+    }
+
+    /**
+     * Let the renderer know that the indicator paint has changed. The period pattern will be
+     * recorded again with the new paint.
+     */
+    void invalidateIndicatorPaint() {
+        invalidatePeriodPattern();
+    }
+
+    /**
+     * Let the renderer know that the text paint has changed. The glyph atlas will be rasterized
+     * again with the new paint.
+     */
+    void invalidateTextPaint() {
+        mGlyphAtlas = null;
+        updateLabelMargin();
+    }
+
+    /**
+     * @param minValue Value to display at the left end of the ruler.
+     * @param maxValue Value to display at the right end of the ruler.
+     */
+    void setValueRange(final int minValue, final int maxValue) {
+        if (minValue == mMinValue && maxValue == mMaxValue) return;
+        mMinValue = minValue;
+        mMaxValue = maxValue;
+        updateLabelMargin();
+    }
+
+    /**
+     * @param labelFormatter {@link RulerLabelFormatter} to format the values or null to display
+     *                       the values as plain integers.
+     */
+    void setLabelFormatter(@Nullable final RulerLabelFormatter labelFormatter) {
+        mLabelFormatter = labelFormatter;
+        mLabelCache = labelFormatter == null ? null : new RulerLabelCache(labelFormatter);
+        updateLabelMargin();
+    }
+
+    /**
+     * @return Custom {@link RulerLabelFormatter} or null if the values are displayed as plain integers.
+     */
+    @Nullable
+    @CheckResult
+    RulerLabelFormatter getLabelFormatter() {
+        return mLabelFormatter;
+    }
+
+    /**
+     * @param tickTable {@link RulerTickTable} with the positions of the indicators or null to put
+     *                  the indicators {@link #mIndicatorInterval} apart. Table must be built for
+     *                  the current range and interval.
+     */
+    void setTickTable(@Nullable final RulerTickTable tickTable) {
+        mTickTable = tickTable;
+    }
+
+    /**
+     * @param valueScale {@link RulerValueScale} to display the values with.
+     */
+    void setValueScale(@NonNull final RulerValueScale valueScale) {
+        if (valueScale.equals(mValueScale)) return;
+        mValueScale = valueScale;
+
+        //Cached labels are keyed by the fixed point value of the old scale.
+        if (mLabelFormatter != null) mLabelCache = new RulerLabelCache(mLabelFormatter);
+        updateLabelMargin();
+    }
+
+    /**
+     * @return {@link RulerValueScale} the values are displayed with.
+     */
+    @NonNull
+    @CheckResult
+    RulerValueScale getValueScale() {
+        return mValueScale;
+    }
+
+    /**
+     * @param valueSet {@link RulerValueSet} to display at the indicators, or null to display the
+     *                 values of the range. The range must have one indicator per entry.
+     */
+    void setValueSet(@Nullable final RulerValueSet valueSet) {
+        mValueSet = valueSet;
+        updateLabelMargin();
+    }
+
+    /**
+     * @return {@link RulerValueSet} displayed at the indicators or null.
+     */
+    @Nullable
+    @CheckResult
+    RulerValueSet getValueSet() {
+        return mValueSet;
+    }
+
+    /**
+     * @param indicatorIntervalPx Distance between two indicators in pixels.
+     */
+    void setIndicatorInterval(final int indicatorIntervalPx) {
+        if (indicatorIntervalPx == mIndicatorInterval) return;
+        mIndicatorInterval = indicatorIntervalPx;
+        invalidatePeriodPattern();
+    }
+
+    /**
+     * Set the levels of the indicators and their paints. Set the heights of the levels with
+     * {@link #setLevelHeights(int[])} before the next draw.
+     *
+     * @param tickLevels  {@link RulerTickLevels} of the indicators.
+     * @param levelPaints {@link Paint} of each level or null to draw all the levels with the
+     *                    indicator paint. Paints are owned by the caller. Levels with the same
+     *                    paint instance are drawn together.
+     */
+    void setTickLevels(@NonNull final RulerTickLevels tickLevels,
+                       @Nullable final Paint[] levelPaints) {
+        mTickLevels = tickLevels;
+        mLevelPaints = levelPaints;
+        groupLevelPaints();
+        invalidatePeriodPattern();
+    }
+
+    /**
+     * @return {@link RulerTickLevels} of the indicators.
+     */
+    @NonNull
+    @CheckResult
+    RulerTickLevels getTickLevels() {
+        return mTickLevels;
+    }
+
+    /**
+     * @param levelHeights Height of the indicators of each level in pixels, from the finest
+     *                     level. Array is copied into the renderer's own array, which is
+     *                     reallocated only when the number of the levels changes.
+     */
+    void setLevelHeights(@NonNull final int[] levelHeights) {
+        if (mLevelHeights.length != levelHeights.length) mLevelHeights = new int[levelHeights.length];
+        System.arraycopy(levelHeights, 0, mLevelHeights, 0, levelHeights.length);
+        mMaxIndicatorHeight = 0;
+        for (int height : levelHeights) mMaxIndicatorHeight = Math.max(mMaxIndicatorHeight, height);
+        invalidatePeriodPattern();
+    }
+
+    /**
+     * @return Half of the width of the widest value text in pixels.
+     */
+    @CheckResult
+    int getLabelMargin() {
+        return mLabelMarginPx;
+    }
+
+    /**
+     * Calculate the half width of the widest value text. This is used to extend the drawn part
+     * so the labels at the edges are not cut.
+     *
+     * @see #mLabelMarginPx
+     */
+    private void updateLabelMargin() {
+        if (mTextPaint == null) return;
+        final long lastTick = (long) mMaxValue - mMinValue;
+        mLabelMarginPx = (int) Math.ceil(Math.max(measureLabel(getLabelValue(0)),
+                measureLabel(getLabelValue(lastTick))) / 2);
+    }
+
+    /**
+     * @param tick Index of the indicator.
+     * @return Fixed point value displayed at the indicator. This is the entry of the
+     * {@link #mValueSet} or the value of the range.
+     */
+    @CheckResult
+    private long getLabelValue(final long tick) {
+        return mValueSet != null
+                ? mValueSet.get((int) Math.min(tick, Integer.MAX_VALUE))
+                : mValueScale.toFixedPoint(tick + mMinValue);
+    }
+
+    /**
+     * @param value Fixed point value to measure the label of.
+     * @return Width of the label of the value in pixels.
+     */
+    private float measureLabel(final long value) {
+        if (mLabelCache != null) {
+            final int slot = mLabelCache.getSlot(value);
+            return mTextPaint.measureText(mLabelCache.getLabel(slot), 0, mLabelCache.getLength(slot));
+        } else {
+            return mTextPaint.measureText(mLabelChars, 0, mValueScale.format(value, mLabelChars));
+        }
+    }
+
+    /**
+     * Draw the part of the ruler between given positions.
+     * <p>
+     * Indicators of the periods completely inside the part are drawn with one rect filled with
+     * the repeating pattern of a single period. Indicators at the edges of the part, which
+     * don't fill the whole period, are drawn with one {@link Canvas#drawLines(float[], int, int, Paint)}
+     * call per indicator paint. Level of each indicator is read from the pattern table of the
+     * {@link #mTickLevels}. Values are drawn separately.
+     *
+     * @param canvas   {@link Canvas} to draw on.
+     * @param startPx  Start of the part to draw in pixels.
+     * @param endPx    End of the part to draw in pixels.
+     * @param originPx Position of the left edge of the canvas on the ruler in pixels.
+     */
+    void draw(@NonNull final Canvas canvas,
+              final int startPx,
+              final int endPx,
+              final int originPx) {
+        if (mTickTable != null) {
+            drawNonLinear(canvas, mTickTable, startPx, endPx, originPx);
+            return;
+        }
+
+        final int firstValue = RulerGeometry.getFirstVisibleTick(startPx, mLabelMarginPx, mIndicatorInterval);
+        final int lastValue = RulerGeometry.getLastVisibleTick(endPx, mLabelMarginPx,
+                mMinValue, mMaxValue, mIndicatorInterval);
+        if (lastValue < firstValue) return;
+        mDrawnTickCount += lastValue - firstValue + 1;
+
+        //First value is the finest level, so the pattern starts from the second period.
+        final int period = mTickLevels.getPeriod();
+        final int firstPeriod = mTickLevels.getFirstFullPeriod(firstValue);
+        final int lastPeriod = mTickLevels.getLastFullPeriod(lastValue);
+        final Paint patternPaint = firstPeriod <= lastPeriod ? getPeriodPatternPaint() : null;
+
+        if (patternPaint != null) {
+            ensureIndicatorBufferCapacity(2 * period);
+            putIndicators(firstValue, firstPeriod * period - 1, originPx);
+            putIndicators((lastPeriod + 1) * period, lastValue, originPx);
+            drawPeriodPattern(canvas, patternPaint, firstPeriod, lastPeriod, originPx);
+        } else {
+            ensureIndicatorBufferCapacity(lastValue - firstValue + 1);
+            putIndicators(firstValue, lastValue, originPx);
+        }
+        drawIndicatorLines(canvas);
+
+        //Draw the values below the label level indicators
+        final int labelInterval = mTickLevels.getLabelInterval();
+        for (int value = mTickLevels.getFirstLabelTick(firstValue); value <= lastValue; value += labelInterval) {
+            drawValueText(canvas, value, mIndicatorInterval * value - originPx);
+            mDrawnLabelCount++;
+        }
+    }
+
+    /**
+     * Draw the part of the non-linear ruler between given positions. Indicators are drawn at the
+     * positions from the table. Where the indicators are denser than the indicator width plus
+     * {@link #MIN_TICK_GAP_PX}, or the values would overlap, the next one is found by the binary
+     * search, so the work depends on the width of the part and not on the number of the values in
+     * it.
+     *
+     * @param canvas    {@link Canvas} to draw on.
+     * @param tickTable {@link RulerTickTable} with the positions of the indicators.
+     * @param startPx   Start of the part to draw in pixels.
+     * @param endPx     End of the part to draw in pixels.
+     * @param originPx  Position of the left edge of the canvas on the ruler in pixels.
+     */
+    private void drawNonLinear(@NonNull final Canvas canvas,
+                               @NonNull final RulerTickTable tickTable,
+                               final int startPx,
+                               final int endPx,
+                               final int originPx) {
+        final int firstTick = tickTable.getTickAtOrBefore(startPx - mLabelMarginPx);
+        final int lastTick = Math.min(tickTable.getTickCount() - 1,
+                tickTable.getFirstTickAtOrAfter(endPx + mLabelMarginPx));
+        if (lastTick < firstTick) return;
+
+        final int minSpacingPx = (int) Math.ceil(getMaxStrokeWidth()) + MIN_TICK_GAP_PX;
+        ensureIndicatorBufferCapacity(Math.min(lastTick - firstTick + 1,
+                (endPx - startPx + 2 * mLabelMarginPx) / minSpacingPx + 3));
+
+        int tick = firstTick;
+        while (tick <= lastTick) {
+            final int px = tickTable.getPosition(tick);
+            putIndicatorAt(mTickLevels.getLevel(tick), px - originPx);
+            mDrawnTickCount++;
+            tick = Math.max(tick + 1, tickTable.getFirstTickAtOrAfter(px + minSpacingPx));
+        }
+        drawIndicatorLines(canvas);
+
+        //Draw the values below the label level indicators, that don't overlap the previous value.
+        final int labelInterval = mTickLevels.getLabelInterval();
+        int labelTick = mTickLevels.getFirstLabelTick(firstTick);
+        while (labelTick <= lastTick) {
+            final int px = tickTable.getPosition(labelTick);
+            drawValueText(canvas, labelTick, px - originPx);
+            mDrawnLabelCount++;
+
+            final int nextTick = tickTable.getFirstTickAtOrAfter(px + 2 * mLabelMarginPx + minSpacingPx);
+            labelTick = Math.max(labelTick + labelInterval, mTickLevels.getFirstLabelTick(nextTick));
+        }
+    }
+
+    /**
+     * @return Number of the indicators drawn since the last {@link #resetDrawnCounts()}.
+     */
+    @CheckResult
+    int getDrawnTickCount() {
+        return mDrawnTickCount;
+    }
+
+    /**
+     * @return Number of the values drawn since the last {@link #resetDrawnCounts()}.
+     */
+    @CheckResult
+    int getDrawnLabelCount() {
+        return mDrawnLabelCount;
+    }
+
+    /**
+     * @return Number of the {@link Canvas} draw calls since the last {@link #resetDrawnCounts()}.
+     * Each glyph of the value drawn from the {@link RulerGlyphAtlas} is a separate call.
+     */
+    @CheckResult
+    int getDrawCallCount() {
+        return mDrawCallCount;
+    }
+
+    /**
+     * Start counting the drawn indicators, values and draw calls from zero.
+     */
+    void resetDrawnCounts() {
+        mDrawnTickCount = 0;
+        mDrawnLabelCount = 0;
+        mDrawCallCount = 0;
+    }
+
+    /**
+     * Write the indicators of all the values between given values into {@link #mIndicatorLines}.
+     * The position in the period is advanced tick by tick, so the level of each indicator is a
+     * single lookup in the pattern table.
+     *
+     * @param firstValue First value to write, inclusive.
+     * @param lastValue  Last value to write, inclusive.
+     * @param originPx   Position of the left edge of the canvas on the ruler in pixels.
+     */
+    private void putIndicators(final int firstValue,
+                               final int lastValue,
+                               final int originPx) {
+        if (lastValue < firstValue) return;
+
+        final int period = mTickLevels.getPeriod();
+        int phase = mTickLevels.getPhase(firstValue);
+        for (int value = firstValue; value <= lastValue; value++) {
+            putIndicatorAt(value == 0 ? 0 : mTickLevels.getLevelAt(phase), mIndicatorInterval * value - originPx);
+            if (++phase == period) phase = 0;
+        }
+    }
+
+    /**
+     * Fill the indicators of the given periods using the {@link #mPeriodPatternPaint}.
+     *
+     * @param canvas       {@link Canvas} to draw on.
+     * @param patternPaint {@link Paint} with the period pattern shader.
+     * @param firstPeriod  First period to draw, inclusive.
+     * @param lastPeriod   Last period to draw, inclusive.
+     * @param originPx     Position of the left edge of the canvas on the ruler in pixels.
+     */
+    private void drawPeriodPattern(@NonNull final Canvas canvas,
+                                   @NonNull final Paint patternPaint,
+                                   final int firstPeriod,
+                                   final int lastPeriod,
+                                   final int originPx) {
+        final int period = mTickLevels.getPeriod();
+        final int periodWidth = period * mIndicatorInterval;
+        final int halfStroke = (int) Math.ceil(getMaxStrokeWidth() / 2);
+
+        //Align the start of the pattern with the start of the period by shifting the canvas. The
+        //local matrix of the shader never changes, so the native shader is not rebuilt per frame.
+        final int originPeriod = RulerViewUtils.floorDiv(originPx, periodWidth);
+        canvas.save();
+        canvas.translate(originPeriod * periodWidth - originPx, 0);
+        canvas.drawRect((firstPeriod - originPeriod) * periodWidth - halfStroke,
+                0,
+                (lastPeriod - originPeriod) * periodWidth + (period - 1) * mIndicatorInterval + halfStroke,
+                mMaxIndicatorHeight,
+                patternPaint);
+        canvas.restore();
+        mDrawCallCount++;
+    }
+
+    /**
+     * @return {@link #mPeriodPatternPaint}. The pattern is recorded if it is not available, or
+     * null if the pattern cannot be recorded for the current geometry.
+     */
+    @Nullable
+    private Paint getPeriodPatternPaint() {
+        if (mPeriodPatternPaint == null) mPeriodPatternPaint = recordPeriodPattern();
+        return mPeriodPatternPaint;
+    }
+
+    /**
+     * Draw the indicators of one period into a bitmap and create a {@link Paint} that repeats
+     * that bitmap horizontally. The coarsest indicator at the start of the period is drawn at
+     * both edges of the bitmap, so each edge holds half of the stroke and the repeated pattern
+     * joins into the full indicator.
+     *
+     * @return {@link Paint} with the pattern shader or null if the indicators are not visible or
+     * the period is wider than {@link #MAX_PATTERN_WIDTH_PX}.
+     */
+    @Nullable
+    private Paint recordPeriodPattern() {
+        if (mMaxIndicatorHeight <= 0 || mIndicatorPaint == null) return null;
+
+        final int period = mTickLevels.getPeriod();
+        final int periodWidth = period * mIndicatorInterval;
+        if (periodWidth > MAX_PATTERN_WIDTH_PX) return null;
+
+        final Bitmap pattern = Bitmap.createBitmap(periodWidth, mMaxIndicatorHeight,
+                Bitmap.Config.ARGB_8888);
+        final Canvas patternCanvas = new Canvas(pattern);
+
+        for (int i = 0; i <= period; i++) {
+            final int level = mTickLevels.getLevelAt(i % period);
+            patternCanvas.drawLine(i * mIndicatorInterval, 0,
+                    i * mIndicatorInterval, mLevelHeights[level],
+                    mBufferPaints[mLevelBuffers[level]]);
+        }
+
+        final Paint patternPaint = new Paint();
+        patternPaint.setShader(new BitmapShader(pattern, Shader.TileMode.REPEAT, Shader.TileMode.CLAMP));
+        return patternPaint;
+    }
+
+    /**
+     * Drop the recorded period pattern. It will be recorded again on the next draw. Call this
+     * whenever the interval, the levels, the height or the paint of the indicators changes.
+     */
+    private void invalidatePeriodPattern() {
+        mPeriodPatternPaint = null;
+    }
+
+    /**
+     * Assign the line buffer to each level. Levels drawn with the same {@link Paint} share the
+     * buffer, so all of them are drawn with one {@link Canvas#drawLines(float[], int, int, Paint)}
+     * call. Call this whenever the levels or the paints of the levels change. Arrays are
+     * reallocated only when the number of the levels changes.
+     */
+    private void groupLevelPaints() {
+        final int levelCount = mTickLevels.getLevelCount();
+        if (mLevelBuffers.length != levelCount) {
+            mLevelBuffers = new int[levelCount];
+            mBufferPaints = new Paint[levelCount];
+            mIndicatorLines = new float[levelCount][0];
+            mLineCounts = new int[levelCount];
+        }
+
+        int bufferCount = 0;
+        for (int level = 0; level < levelCount; level++) {
+            final Paint paint = mLevelPaints == null ? mIndicatorPaint : mLevelPaints[level];
+            int buffer = 0;
+            while (buffer < bufferCount && mBufferPaints[buffer] != paint) buffer++;
+            if (buffer == bufferCount) mBufferPaints[bufferCount++] = paint;
+            mLevelBuffers[level] = buffer;
+        }
+
+        //Don't hold the paints, that are not used anymore.
+        Arrays.fill(mBufferPaints, bufferCount, levelCount, null);
+        mBufferCount = bufferCount;
+    }
+
+    /**
+     * @return Width of the widest indicator stroke of all the levels in pixels.
+     */
+    private float getMaxStrokeWidth() {
+        float maxStrokeWidth = 0;
+        for (int buffer = 0; buffer < mBufferCount; buffer++) {
+            maxStrokeWidth = Math.max(maxStrokeWidth, mBufferPaints[buffer].getStrokeWidth());
+        }
+        return maxStrokeWidth;
+    }
+
+    /**
+     * Make sure each buffer in {@link #mIndicatorLines} can hold the given number of the
+     * indicators. The buffers only grow, so once they are large enough for the visible window,
+     * no allocation happens while drawing.
+     *
+     * @param indicatorCount Number of the indicators to draw.
+     */
+    private void ensureIndicatorBufferCapacity(final int indicatorCount) {
+        final int size = indicatorCount * 4;
+        for (int buffer = 0; buffer < mBufferCount; buffer++) {
+            if (mIndicatorLines[buffer].length < size) mIndicatorLines[buffer] = new float[size];
+        }
+    }
+
+    /**
+     * Write the coordinates of the vertical indicator line into the buffer of its level in
+     * {@link #mIndicatorLines}.
+     *
+     * @param level Level of the indicator.
+     * @param x     Position of the indicator on the canvas.
+     */
+    private void putIndicatorAt(final int level,
+                                final float x) {
+        final int buffer = mLevelBuffers[level];
+        final float[] lines = mIndicatorLines[buffer];
+        final int lineIndex = mLineCounts[buffer];
+        lines[lineIndex] = x;
+        lines[lineIndex + 1] = 0;
+        lines[lineIndex + 2] = x;
+        lines[lineIndex + 3] = mLevelHeights[level];
+        mLineCounts[buffer] = lineIndex + 4;
+    }
+
+    /**
+     * Draw the lines written by {@link #putIndicatorAt(int, float)} with one
+     * {@link Canvas#drawLines(float[], int, int, Paint)} call per buffer and empty the buffers.
+     *
+     * @param canvas {@link Canvas} to draw on.
+     */
+    private void drawIndicatorLines(@NonNull final Canvas canvas) {
+        for (int buffer = 0; buffer < mBufferCount; buffer++) {
+            if (mLineCounts[buffer] == 0) continue;
+            canvas.drawLines(mIndicatorLines[buffer], 0, mLineCounts[buffer], mBufferPaints[buffer]);
+            mLineCounts[buffer] = 0;
+            mDrawCallCount++;
+        }
+    }
+
+    /**
+     * Draw the value number below the longer indicator. The label is formatted by the
+     * {@link #mLabelFormatter} through the {@link #mLabelCache}, or written as the decimal number
+     * of the {@link #mValueScale}. Ticks display the entries of the {@link #mValueSet} if it is
+     * set. If possible, it is composed from the glyphs in the
+     * {@link RulerGlyphAtlas}. No {@link String} is allocated for the value.
+     *
+     * @param canvas {@link Canvas} on which the text will be drawn.
+     * @param value  Value to draw, as the tick index.
+     * @param x      Position of the indicator of the value on the canvas.
+     */
+    private void drawValueText(@NonNull final Canvas canvas,
+                               final int value,
+                               final float x) {
+        final long labelValue = getLabelValue(value);
+        final char[] label;
+        final int length;
+        if (mLabelCache != null) {
+            final int slot = mLabelCache.getSlot(labelValue);
+            label = mLabelCache.getLabel(slot);
+            length = mLabelCache.getLength(slot);
+        } else {
+            label = mLabelChars;
+            length = mValueScale.format(labelValue, mLabelChars);
+        }
+        final float baseline = mMaxIndicatorHeight + mTextPaint.getTextSize();
+
+        final RulerGlyphAtlas glyphAtlas = getGlyphAtlas();
+        if (glyphAtlas.canDraw(label, 0, length)) {
+            glyphAtlas.drawCentered(canvas, label, 0, length, x, baseline);
+            mDrawCallCount += length;
+        } else {
+            canvas.drawText(label, 0, length, x, baseline, mTextPaint);
+            mDrawCallCount++;
+        }
+    }
+
+    /**
+     * @return {@link #mGlyphAtlas}. The atlas is rasterized with the current text paint if it is
+     * not available.
+     */
+    @NonNull
+    private RulerGlyphAtlas getGlyphAtlas() {
+        if (mGlyphAtlas == null) mGlyphAtlas = new RulerGlyphAtlas(mTextPaint);
+        return mGlyphAtlas;
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+import android.support.annotation.CheckResult;
+
+/**
+ * Rendering metrics of the picker aggregated over one reporting window. Draw and dispatch times
+ * are measured with {@link System#nanoTime()}. The window is timed by the {@link RulerClock} of
+ * the picker.
+ * <p>
+ * The same instance is reused for all the windows, so the values are valid only inside
+ * {@link RulerMetricsListener#onMetrics(RulerRenderingMetrics)}.
+ *
+ * @see RulerMetricsListener
+ */
+public final class RulerRenderingMetrics {
+
+    private long mWindowDurationNanos;
+    private int mFrameCount;
+    private long mTotalDrawTimeNanos;
+    private long mMaxDrawTimeNanos;
+    private int mTicksDrawn;
+    private int mLabelsDrawn;
+    private int mDrawCalls;
+    private int mMaxDrawCallsPerFrame;
+    private int mMeasurePasses;
+    private int mTileCacheHits;
+    private int mTileCacheMisses;
+    private int mScrollEvents;
+    private int mListenerDispatchCount;
+    private long mListenerDispatchTimeNanos;
+
+    RulerRenderingMetrics() {
+        //Created by the picker.
+    }
+
+    /**
+     * @return Duration of the reporting window in nanoseconds. Window is timed by the
+     * {@link RulerClock} of the picker, so the duration has the millisecond resolution.
+     */
+    @CheckResult
+    public long getWindowDurationNanos() {
+        return mWindowDurationNanos;
+    }
+
+    /**
+     * @return Number of the frames the ruler was drawn in.
+     */
+    @CheckResult
+    public int getFrameCount() {
+        return mFrameCount;
+    }
+
+    /**
+     * @return Total time spent drawing the ruler in nanoseconds.
+     */
+    @CheckResult
+    public long getTotalDrawTimeNanos() {
+        return mTotalDrawTimeNanos;
+    }
+
+    /**
+     * @return Longest time spent drawing the ruler in a single frame in nanoseconds.
+     */
+    @CheckResult
+    public long getMaxDrawTimeNanos() {
+        return mMaxDrawTimeNanos;
+    }
+
+    /**
+     * @return Number of the indicators drawn on the main thread. Indicators drawn from the cached
+     * tiles are not counted.
+     */
+    @CheckResult
+    public int getTicksDrawn() {
+        return mTicksDrawn;
+    }
+
+    /**
+     * @return Number of the values drawn on the main thread. Values drawn from the cached tiles
+     * are not counted.
+     */
+    @CheckResult
+    public int getLabelsDrawn() {
+        return mLabelsDrawn;
+    }
+
+    /**
+     * @return Number of the {@link android.graphics.Canvas} calls issued to draw the indicators and
+     * the values on the main thread. Each glyph of the value is a separate call. Cached tiles are
+     * counted by {@link #getTileCacheHits()} instead.
+     */
+    @CheckResult
+    public int getDrawCalls() {
+        return mDrawCalls;
+    }
+
+    /**
+     * @return Highest number of the draw calls in a single frame. This doesn't depend on the range
+     * of the picker, so any growth here means the picker draws more than the visible part.
+     * @see #getDrawCalls()
+     */
+    @CheckResult
+    public int getMaxDrawCallsPerFrame() {
+        return mMaxDrawCallsPerFrame;
+    }
+
+    /**
+     * @return Number of the measure passes of the ruler. Setters, that don't change the size of the
+     * ruler, must not cause any measure pass.
+     */
+    @CheckResult
+    public int getMeasurePasses() {
+        return mMeasurePasses;
+    }
+
+    /**
+     * @return Number of the tiles drawn from the tile cache. Always 0 if the tile cache is
+     * disabled.
+     */
+    @CheckResult
+    public int getTileCacheHits() {
+        return mTileCacheHits;
+    }
+
+    /**
+     * @return Number of the tiles, that were not in the tile cache and were drawn directly.
+     * Always 0 if the tile cache is disabled.
+     */
+    @CheckResult
+    public int getTileCacheMisses() {
+        return mTileCacheMisses;
+    }
+
+    /**
+     * @return Number of the scroll position changes.
+     */
+    @CheckResult
+    public int getScrollEvents() {
+        return mScrollEvents;
+    }
+
+    /**
+     * @return Number of the calls to the {@link RulerValuePickerListener}.
+     */
+    @CheckResult
+    public int getListenerDispatchCount() {
+        return mListenerDispatchCount;
+    }
+
+    /**
+     * @return Total time spent in the {@link RulerValuePickerListener} in nanoseconds.
+     */
+    @CheckResult
+    public long getListenerDispatchTimeNanos() {
+        return mListenerDispatchTimeNanos;
+    }
+
+    void addFrame(final long drawTimeNanos,
+                  final int ticksDrawn,
+                  final int labelsDrawn,
+                  final int drawCalls) {
+        mFrameCount++;
+        mTotalDrawTimeNanos += drawTimeNanos;
+        mMaxDrawTimeNanos = Math.max(mMaxDrawTimeNanos, drawTimeNanos);
+        mTicksDrawn += ticksDrawn;
+        mLabelsDrawn += labelsDrawn;
+        mDrawCalls += drawCalls;
+        mMaxDrawCallsPerFrame = Math.max(mMaxDrawCallsPerFrame, drawCalls);
+    }
+
+    void addMeasurePass() {
+        mMeasurePasses++;
+    }
+
+    void addTileCacheHit() {
+        mTileCacheHits++;
+    }
+
+    void addTileCacheMiss() {
+        mTileCacheMisses++;
+    }
+
+    void addScrollEvent() {
+        mScrollEvents++;
+    }
+
+    void addListenerDispatch(final long dispatchTimeNanos) {
+        mListenerDispatchCount++;
+        mListenerDispatchTimeNanos += dispatchTimeNanos;
+    }
+
+    void setWindowDurationNanos(final long windowDurationNanos) {
+        mWindowDurationNanos = windowDurationNanos;
+    }
+
+    /**
+     * Clear all the values for the next reporting window.
+     */
+    void reset() {
+        mWindowDurationNanos = 0;
+        mFrameCount = 0;
+        mTotalDrawTimeNanos = 0;
+        mMaxDrawTimeNanos = 0;
+        mTicksDrawn = 0;
+        mLabelsDrawn = 0;
+        mDrawCalls = 0;
+        mMaxDrawCallsPerFrame = 0;
+        mMeasurePasses = 0;
+        mTileCacheHits = 0;
+        mTileCacheMisses = 0;
+        mScrollEvents = 0;
+        mListenerDispatchCount = 0;
+        mListenerDispatchTimeNanos = 0;
+    }
+}
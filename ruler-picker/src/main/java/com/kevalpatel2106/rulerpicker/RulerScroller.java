@@ -0,0 +1,276 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+import android.content.Context;
+import android.hardware.SensorManager;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.view.ViewConfiguration;
+
+/**
+ * Horizontal scroller of the picker. Flings decelerate along the same spline and animated scrolls
+ * use the same viscous fluid curve as the platform {@link android.widget.Scroller}, but the time
+ * is read from the {@link RulerClock}. With a clock, that moves only when it is told to, every
+ * position of the scroll is deterministic.
+ * <p>
+ * The final position of the running fling can be changed, so the fling can decelerate straight
+ * onto the snap position.
+ *
+ * @see ObservableHorizontalScrollView
+ * @see FlatRulerValuePicker
+ */
+final class RulerScroller {
+
+    /**
+     * Duration of {@link #startScroll(int, int)} in milliseconds.
+     */
+    private static final int SCROLL_DURATION_MILLIS = 250;
+
+    private static final float DECELERATION_RATE = (float) (Math.log(0.78) / Math.log(0.9));
+    private static final float INFLEXION = 0.35f;
+    private static final float START_TENSION = 0.5f;
+    private static final float END_TENSION = 1.0f;
+    private static final float P1 = START_TENSION * INFLEXION;
+    private static final float P2 = 1.0f - END_TENSION * (1.0f - INFLEXION);
+
+    /**
+     * Number of the samples of the fling spline.
+     */
+    private static final int SPLINE_SAMPLES = 100;
+
+    /**
+     * Travelled part of the fling distance at each sample of the fling duration.
+     */
+    private static final float[] SPLINE_POSITION = new float[SPLINE_SAMPLES + 1];
+
+    private static final float VISCOUS_FLUID_SCALE = 8.0f;
+    private static final float VISCOUS_FLUID_NORMALIZE = 1.0f / viscousFluid(1.0f);
+    private static final float VISCOUS_FLUID_OFFSET = 1.0f - VISCOUS_FLUID_NORMALIZE * viscousFluid(1.0f);
+
+    static {
+        float xMin = 0.0f;
+        for (int i = 0; i < SPLINE_SAMPLES; i++) {
+            final float alpha = (float) i / SPLINE_SAMPLES;
+            float xMax = 1.0f;
+            float x, tx, coef;
+            while (true) {
+                x = xMin + (xMax - xMin) / 2.0f;
+                coef = 3.0f * x * (1.0f - x);
+                tx = coef * ((1.0f - x) * P1 + x * P2) + x * x * x;
+                if (Math.abs(tx - alpha) < 1E-5) break;
+                if (tx > alpha) {
+                    xMax = x;
+                } else {
+                    xMin = x;
+                }
+            }
+            SPLINE_POSITION[i] = coef * ((1.0f - x) * START_TENSION + x) + x * x * x;
+        }
+        SPLINE_POSITION[SPLINE_SAMPLES] = 1.0f;
+    }
+
+    /**
+     * Deceleration of the fling, that depends on the density of the screen.
+     */
+    private final float mPhysicalCoeff;
+
+    private final float mFlingFriction = ViewConfiguration.getScrollFriction();
+
+    @NonNull
+    private RulerClock mClock = AnimationRulerClock.INSTANCE;
+
+    private boolean mIsFinished = true;
+    private boolean mIsFling;
+    private long mStartTimeMillis;
+    private int mDurationMillis;
+    private int mStartX;
+    private int mFinalX;
+    private int mCurrX;
+    private int mMinX;
+    private int mMaxX;
+
+    /**
+     * Constructor.
+     *
+     * @param context {@link Context} to read the density of the screen.
+     */
+    RulerScroller(@NonNull final Context context) {
+        final float ppi = context.getResources().getDisplayMetrics().density * 160.0f;
+        mPhysicalCoeff = SensorManager.GRAVITY_EARTH // g (m/s^2)
+                * 39.37f // inch/meter
+                * ppi
+                * 0.84f; // look and feel tuning
+    }
+
+    /**
+     * @param clock {@link RulerClock} to read the time of the animations from. Running animation
+     *              is stopped.
+     */
+    void setClock(@NonNull final RulerClock clock) {
+        mClock = clock;
+        forceFinished();
+    }
+
+    /**
+     * Start the animated scroll.
+     *
+     * @param startX Start position.
+     * @param dx     Distance to scroll. Positive to scroll right.
+     */
+    void startScroll(final int startX, final int dx) {
+        mIsFling = false;
+        mIsFinished = false;
+        mStartTimeMillis = mClock.uptimeMillis();
+        mDurationMillis = SCROLL_DURATION_MILLIS;
+        mStartX = startX;
+        mCurrX = startX;
+        mFinalX = startX + dx;
+        mMinX = Integer.MIN_VALUE;
+        mMaxX = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Start the fling.
+     *
+     * @param startX    Start position.
+     * @param velocityX Initial velocity in pixels per second.
+     * @param minX      Minimum position. Fling never goes below this.
+     * @param maxX      Maximum position. Fling never goes above this.
+     */
+    void fling(final int startX, final int velocityX, final int minX, final int maxX) {
+        mIsFling = true;
+        mIsFinished = false;
+        mStartTimeMillis = mClock.uptimeMillis();
+        mStartX = startX;
+        mCurrX = startX;
+        mMinX = minX;
+        mMaxX = maxX;
+
+        if (velocityX == 0) {
+            mDurationMillis = 0;
+            mFinalX = startX;
+        } else {
+            final double deceleration = Math.log(INFLEXION * Math.abs(velocityX) / (mFlingFriction * mPhysicalCoeff));
+            mDurationMillis = (int) (1000.0 * Math.exp(deceleration / (DECELERATION_RATE - 1.0)));
+
+            final double distance = mFlingFriction * mPhysicalCoeff
+                    * Math.exp(DECELERATION_RATE / (DECELERATION_RATE - 1.0) * deceleration);
+            mFinalX = startX + (int) Math.round(distance * Math.signum(velocityX));
+        }
+        mFinalX = Math.max(minX, Math.min(mFinalX, maxX));
+    }
+
+    /**
+     * Change the final position of the running fling or scroll. Duration doesn't change.
+     *
+     * @param finalX New final position.
+     */
+    void setFinalX(final int finalX) {
+        mFinalX = finalX;
+        mIsFinished = false;
+    }
+
+    /**
+     * @return Final position of the running fling or scroll.
+     */
+    @CheckResult
+    int getFinalX() {
+        return mFinalX;
+    }
+
+    /**
+     * @return Position computed by the last {@link #computeScrollOffset()}.
+     */
+    @CheckResult
+    int getCurrX() {
+        return mCurrX;
+    }
+
+    /**
+     * @return True if the fling or the scroll is finished.
+     */
+    @CheckResult
+    boolean isFinished() {
+        return mIsFinished;
+    }
+
+    /**
+     * Stop the fling or the scroll at the current position.
+     */
+    void forceFinished() {
+        mIsFinished = true;
+    }
+
+    /**
+     * Compute the position for the current time of the {@link #mClock}.
+     *
+     * @return True if the animation was running. The new position is in {@link #getCurrX()}.
+     */
+    boolean computeScrollOffset() {
+        if (mIsFinished) return false;
+
+        final long timePassed = mClock.uptimeMillis() - mStartTimeMillis;
+        if (timePassed >= mDurationMillis) {
+            mCurrX = mFinalX;
+            mIsFinished = true;
+            return true;
+        }
+
+        final float t = (float) timePassed / mDurationMillis;
+        final float distanceCoef = mIsFling ? getSplinePosition(t) : getViscousFluidPosition(t);
+        mCurrX = mStartX + Math.round(distanceCoef * (mFinalX - mStartX));
+
+        if (mIsFling) {
+            mCurrX = Math.max(mMinX, Math.min(mCurrX, mMaxX));
+            if (mCurrX == mFinalX) mIsFinished = true;
+        }
+        return true;
+    }
+
+    /**
+     * @param t Passed part of the fling duration.
+     * @return Travelled part of the fling distance.
+     */
+    private static float getSplinePosition(final float t) {
+        final int index = (int) (SPLINE_SAMPLES * t);
+        if (index >= SPLINE_SAMPLES) return 1.0f;
+
+        final float tInf = (float) index / SPLINE_SAMPLES;
+        final float tSup = (float) (index + 1) / SPLINE_SAMPLES;
+        final float dInf = SPLINE_POSITION[index];
+        final float dSup = SPLINE_POSITION[index + 1];
+        return dInf + (t - tInf) * (dSup - dInf) / (tSup - tInf);
+    }
+
+    /**
+     * @param t Passed part of the scroll duration.
+     * @return Travelled part of the scroll distance.
+     */
+    private static float getViscousFluidPosition(final float t) {
+        final float interpolated = VISCOUS_FLUID_NORMALIZE * viscousFluid(t);
+        return interpolated > 0 ? interpolated + VISCOUS_FLUID_OFFSET : interpolated;
+    }
+
+    private static float viscousFluid(float x) {
+        x *= VISCOUS_FLUID_SCALE;
+        if (x < 1.0f) {
+            x -= (1.0f - (float) Math.exp(-x));
+        } else {
+            final float start = 0.36787944117f; // 1/e == exp(-1)
+            x = 1.0f - (float) Math.exp(1.0f - x);
+            x = start + x * (1.0f - start);
+        }
+        return x;
+    }
+}
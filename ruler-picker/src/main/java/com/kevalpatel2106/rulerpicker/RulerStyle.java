@@ -0,0 +1,618 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.support.annotation.CheckResult;
+import android.support.annotation.ColorInt;
+import android.support.annotation.Dimension;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Style of the ruler shared by all the pickers: colors and sizes of the indicators and the
+ * values, heights of the indicator levels and the paints derived from them.
+ * <p>
+ * Setters only mark the changed properties dirty. Changes are applied by the outermost
+ * {@link #commit()}, or immediately if no batch is in progress. Paints are updated in place and
+ * the {@link Callback} gets the combination of the DIRTY_* flags, so the view updates only what
+ * the changes affect.
+ *
+ * @see RulerModel
+ */
+class RulerStyle {
+
+    /**
+     * Color or width of the indicators changed.
+     *
+     * @see #markDirty(int)
+     */
+    static final int DIRTY_INDICATOR_PAINT = 1;
+
+    /**
+     * Color or size of the value text changed.
+     *
+     * @see #markDirty(int)
+     */
+    static final int DIRTY_TEXT_PAINT = 1 << 1;
+
+    /**
+     * Range, interval or height of the indicators changed.
+     *
+     * @see #markDirty(int)
+     */
+    static final int DIRTY_GEOMETRY = 1 << 2;
+
+    /**
+     * Formatting of the values changed.
+     *
+     * @see #markDirty(int)
+     */
+    static final int DIRTY_LABELS = 1 << 3;
+
+    /**
+     * Width of the ruler changed, so the view displaying the whole ruler must be measured again.
+     *
+     * @see #markDirty(int)
+     */
+    static final int DIRTY_LAYOUT = 1 << 4;
+
+    /**
+     * Receives the changes applied by the {@link RulerStyle}.
+     */
+    interface Callback {
+
+        /**
+         * Called once per applied batch of the changes, after the paints are updated.
+         *
+         * @param dirtyFlags Combination of the DIRTY_* flags of the applied changes.
+         */
+        void onStyleChanged(int dirtyFlags);
+    }
+
+    @NonNull
+    private final Context mContext;
+
+    @NonNull
+    private final Callback mCallback;
+
+    /**
+     * Properties changed since the last {@link #applyPendingChanges()}. Combination of the
+     * DIRTY_* flags.
+     *
+     * @see #markDirty(int)
+     */
+    private int mDirtyFlags = 0;
+
+    /**
+     * Number of the {@link #beginUpdate()} calls without matching {@link #commit()}. While this is
+     * greater than zero, changes are only marked dirty and applied on the last {@link #commit()}.
+     */
+    private int mUpdateDepth = 0;
+
+    /**
+     * {@link Paint} for the indicators. This paint is updated in place.
+     *
+     * @see #applyPendingChanges()
+     */
+    @NonNull
+    private final Paint mIndicatorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /**
+     * {@link Paint} to display the values. This paint is updated in place.
+     *
+     * @see #applyPendingChanges()
+     */
+    @NonNull
+    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /**
+     * Integer color of the text, that is displayed on the ruler.
+     *
+     * @see #setTextColor(int)
+     */
+    @ColorInt
+    private int mTextColor = Color.WHITE;
+
+    /**
+     * Integer color of the indicators.
+     *
+     * @see #setIndicatorColor(int)
+     */
+    @ColorInt
+    private int mIndicatorColor = Color.WHITE;
+
+    /**
+     * Height of the text, that is displayed on ruler in pixels.
+     *
+     * @see #setTextSize(int)
+     */
+    @Dimension
+    private int mTextSize = 36;
+
+    /**
+     * Width of the indicator in pixels.
+     *
+     * @see #setIndicatorWidth(int)
+     */
+    @Dimension
+    private float mIndicatorWidthPx = 4f;
+
+    /**
+     * Ratio of long indicator height to the ruler height. This value must be between 0 to 1. The
+     * value should greater than {@link #mShortIndicatorHeightRatio}. Default value is 0.6 (i.e. 60%).
+     *
+     * @see #setIndicatorHeight(float, float)
+     */
+    private float mLongIndicatorHeightRatio = 0.6f /* Default value */;
+
+    /**
+     * Ratio of short indicator height to the ruler height. This value must be between 0 to 1. The
+     * value should less than {@link #mLongIndicatorHeightRatio}. Default value is 0.4 (i.e. 40%).
+     *
+     * @see #setIndicatorHeight(float, float)
+     */
+    private float mShortIndicatorHeightRatio = 0.4f /* Default value */;
+
+    /**
+     * Number of the indicator levels, from the finest to the coarsest one.
+     *
+     * @see #setLevelCount(int)
+     */
+    private int mLevelCount;
+
+    /**
+     * Ratio of the height of each level to the ruler height, or null if the heights are spread
+     * between {@link #mShortIndicatorHeightRatio} and {@link #mLongIndicatorHeightRatio}.
+     *
+     * @see #setTickLevelStyle(float[], int[], int[])
+     */
+    @Nullable
+    private float[] mLevelHeightRatios;
+
+    /**
+     * Color of each level, or null if all the levels have the {@link #mIndicatorColor}.
+     *
+     * @see #setTickLevelStyle(float[], int[], int[])
+     */
+    @Nullable
+    private int[] mLevelColors;
+
+    /**
+     * Width of each level in pixels, or null if all the levels have the
+     * {@link #mIndicatorWidthPx}.
+     *
+     * @see #setTickLevelStyle(float[], int[], int[])
+     */
+    @Nullable
+    private int[] mLevelWidthsPx;
+
+    /**
+     * Paints the {@link #mLevelPaints} are derived into, one per level. Created only when the
+     * number of the levels changes.
+     *
+     * @see #updateLevelPaints()
+     */
+    @NonNull
+    private Paint[] mLevelPaintPool = new Paint[0];
+
+    /**
+     * {@link Paint} of each level. Levels with the same color and width share the paint. Updated
+     * in place whenever the indicator paint or the style of the levels changes.
+     *
+     * @see #getLevelPaints()
+     */
+    @NonNull
+    private Paint[] mLevelPaints = new Paint[0];
+
+    /**
+     * Height of the ruler in pixels.
+     *
+     * @see #setHeight(int)
+     */
+    private int mHeightPx = 0;
+
+    /**
+     * Actual height of the indicators of each level in pixels. Updated in place, and reallocated
+     * only when the number of the levels changes.
+     *
+     * @see #updateLevelHeights()
+     */
+    @NonNull
+    private int[] mLevelHeights = new int[0];
+
+    /**
+     * Constructor.
+     *
+     * @param context    {@link Context} to convert the text size with.
+     * @param callback   {@link Callback} to receive the applied changes.
+     * @param levelCount Initial number of the indicator levels.
+     */
+    RulerStyle(@NonNull final Context context,
+               @NonNull final Callback callback,
+               final int levelCount) {
+        mContext = context;
+        mCallback = callback;
+        mLevelCount = levelCount;
+        mIndicatorPaint.setStyle(Paint.Style.STROKE);
+        mTextPaint.setTextAlign(Paint.Align.CENTER);
+
+        //Everything is applied by the first commit of the view.
+        mDirtyFlags = DIRTY_INDICATOR_PAINT | DIRTY_TEXT_PAINT | DIRTY_GEOMETRY;
+    }
+
+    /**
+     * Read the style attributes of the {@link RulerValuePicker}: colors, text size, indicator
+     * width and heights. Call this inside the batch.
+     *
+     * @param a {@link TypedArray} of the {@code RulerValuePicker} styleable.
+     */
+    void parseAttributes(@NonNull final TypedArray a) {
+        if (a.hasValue(R.styleable.RulerValuePicker_ruler_text_color)) {
+            setTextColor(a.getColor(R.styleable.RulerValuePicker_ruler_text_color, Color.WHITE));
+        }
+
+        if (a.hasValue(R.styleable.RulerValuePicker_ruler_text_size)) {
+            setTextSize((int) a.getDimension(R.styleable.RulerValuePicker_ruler_text_size, 14));
+        }
+
+        if (a.hasValue(R.styleable.RulerValuePicker_indicator_color)) {
+            setIndicatorColor(a.getColor(R.styleable.RulerValuePicker_indicator_color, Color.WHITE));
+        }
+
+        if (a.hasValue(R.styleable.RulerValuePicker_indicator_width)) {
+            setIndicatorWidth(a.getDimensionPixelSize(R.styleable.RulerValuePicker_indicator_width,
+                    4));
+        }
+
+        if (a.hasValue(R.styleable.RulerValuePicker_long_height_height_ratio)
+                || a.hasValue(R.styleable.RulerValuePicker_short_height_height_ratio)) {
+
+            setIndicatorHeight(a.getFraction(R.styleable.RulerValuePicker_long_height_height_ratio,
+                    1, 1, 0.6f),
+                    a.getFraction(R.styleable.RulerValuePicker_short_height_height_ratio,
+                            1, 1, 0.4f));
+        }
+    }
+
+    /**
+     * Start the batch of the changes. Changes made by the setters are not applied until the
+     * matching {@link #commit()}. Calls can be nested.
+     *
+     * @see #commit()
+     */
+    void beginUpdate() {
+        mUpdateDepth++;
+    }
+
+    /**
+     * End the batch of the changes started by {@link #beginUpdate()}. On the outermost commit, all
+     * the changes are applied at once.
+     *
+     * @see #beginUpdate()
+     */
+    void commit() {
+        if (mUpdateDepth > 0) mUpdateDepth--;
+        if (mUpdateDepth == 0) applyPendingChanges();
+    }
+
+    /**
+     * Mark the properties as changed. Changes are applied immediately, unless the batch started by
+     * {@link #beginUpdate()} is in progress.
+     *
+     * @param dirtyFlags Combination of the DIRTY_* flags.
+     */
+    final void markDirty(final int dirtyFlags) {
+        mDirtyFlags |= dirtyFlags;
+        if (mUpdateDepth == 0) applyPendingChanges();
+    }
+
+    /**
+     * Apply all the changes marked by {@link #markDirty(int)}. Paints are updated in place.
+     */
+    private void applyPendingChanges() {
+        final int dirtyFlags = mDirtyFlags;
+        if (dirtyFlags == 0) return;
+        mDirtyFlags = 0;
+
+        if ((dirtyFlags & DIRTY_INDICATOR_PAINT) != 0) {
+            mIndicatorPaint.setColor(mIndicatorColor);
+            mIndicatorPaint.setStrokeWidth(mIndicatorWidthPx);
+        }
+
+        if ((dirtyFlags & DIRTY_TEXT_PAINT) != 0) {
+            mTextPaint.setColor(mTextColor);
+            mTextPaint.setTextSize(mTextSize);
+        }
+
+        if ((dirtyFlags & (DIRTY_INDICATOR_PAINT | DIRTY_GEOMETRY)) != 0) updateLevelPaints();
+        if ((dirtyFlags & DIRTY_GEOMETRY) != 0) updateLevelHeights();
+        onStyleChanged(dirtyFlags);
+    }
+
+    /**
+     * Called once the changes are applied to the paints and the level heights.
+     *
+     * @param dirtyFlags Combination of the DIRTY_* flags of the applied changes.
+     */
+    void onStyleChanged(final int dirtyFlags) {
+        mCallback.onStyleChanged(dirtyFlags);
+    }
+
+    /**
+     * @return {@link Paint} of the indicators. The same instance is updated in place.
+     */
+    @NonNull
+    @CheckResult
+    final Paint getIndicatorPaint() {
+        return mIndicatorPaint;
+    }
+
+    /**
+     * @return {@link Paint} of the values. The same instance is updated in place.
+     */
+    @NonNull
+    @CheckResult
+    final Paint getTextPaint() {
+        return mTextPaint;
+    }
+
+    /**
+     * @return Color integer value of the ruler text color.
+     * @see #setTextColor(int)
+     */
+    @CheckResult
+    @ColorInt
+    final int getTextColor() {
+        return mTextColor;
+    }
+
+    /**
+     * Set the color of the text to display on the ruler.
+     *
+     * @param color Color integer value.
+     */
+    final void setTextColor(@ColorInt final int color) {
+        if (color == mTextColor) return;
+        mTextColor = color;
+        markDirty(DIRTY_TEXT_PAINT);
+    }
+
+    /**
+     * @return Size of the text of ruler in pixels.
+     * @see #setTextSize(int)
+     */
+    @CheckResult
+    final float getTextSize() {
+        return mTextSize;
+    }
+
+    /**
+     * Set the size of the text to display on the ruler.
+     *
+     * @param textSizeSp Text size dimension in sp.
+     */
+    final void setTextSize(final int textSizeSp) {
+        final int textSize = RulerViewUtils.sp2px(mContext, textSizeSp);
+        if (textSize == mTextSize) return;
+        mTextSize = textSize;
+        markDirty(DIRTY_TEXT_PAINT);
+    }
+
+    /**
+     * @return Color integer value of the indicator color.
+     * @see #setIndicatorColor(int)
+     */
+    @CheckResult
+    @ColorInt
+    final int getIndicatorColor() {
+        return mIndicatorColor;
+    }
+
+    /**
+     * Set the indicator color.
+     *
+     * @param color Color integer value.
+     */
+    final void setIndicatorColor(@ColorInt final int color) {
+        if (color == mIndicatorColor) return;
+        mIndicatorColor = color;
+        markDirty(DIRTY_INDICATOR_PAINT);
+    }
+
+    /**
+     * @return Width of the indicator in pixels.
+     * @see #setIndicatorWidth(int)
+     */
+    @CheckResult
+    final float getIndicatorWidth() {
+        return mIndicatorWidthPx;
+    }
+
+    /**
+     * Set the width of the indicator line in the ruler.
+     *
+     * @param widthPx Width in pixels.
+     */
+    final void setIndicatorWidth(final int widthPx) {
+        if (widthPx == mIndicatorWidthPx) return;
+        mIndicatorWidthPx = widthPx;
+        markDirty(DIRTY_INDICATOR_PAINT);
+    }
+
+    /**
+     * @return Ratio of long indicator height to the ruler height.
+     * @see #setIndicatorHeight(float, float)
+     */
+    @CheckResult
+    final float getLongIndicatorHeightRatio() {
+        return mLongIndicatorHeightRatio;
+    }
+
+    /**
+     * @return Ratio of short indicator height to the ruler height.
+     * @see #setIndicatorHeight(float, float)
+     */
+    @CheckResult
+    final float getShortIndicatorHeightRatio() {
+        return mShortIndicatorHeightRatio;
+    }
+
+    /**
+     * Set the height of the long and short indicators. Heights of the levels in between are
+     * spread evenly between these heights, unless they are set by
+     * {@link #setTickLevelStyle(float[], int[], int[])}.
+     *
+     * @param longHeightRatio  Ratio of long indicator height to the ruler height. This value must
+     *                         be between 0 to 1 and not less than the short indicator height.
+     * @param shortHeightRatio Ratio of short indicator height to the ruler height. This value must
+     *                         be between 0 to 1.
+     * @throws IllegalArgumentException if any of the parameter is invalid.
+     */
+    final void setIndicatorHeight(final float longHeightRatio,
+                                  final float shortHeightRatio) {
+
+        if (shortHeightRatio < 0 || shortHeightRatio > 1) {
+            throw new IllegalArgumentException("Sort indicator height must be between 0 to 1.");
+        }
+
+        if (longHeightRatio < 0 || longHeightRatio > 1) {
+            throw new IllegalArgumentException("Long indicator height must be between 0 to 1.");
+        }
+
+        if (shortHeightRatio > longHeightRatio) {
+            throw new IllegalArgumentException("Long indicator height cannot be less than sort indicator height.");
+        }
+
+        if (longHeightRatio == mLongIndicatorHeightRatio
+                && shortHeightRatio == mShortIndicatorHeightRatio) {
+            return;
+        }
+        mLongIndicatorHeightRatio = longHeightRatio;
+        mShortIndicatorHeightRatio = shortHeightRatio;
+        markDirty(DIRTY_GEOMETRY);
+    }
+
+    /**
+     * @return Number of the indicator levels.
+     * @see #setLevelCount(int)
+     */
+    @CheckResult
+    final int getLevelCount() {
+        return mLevelCount;
+    }
+
+    /**
+     * Set the number of the indicator levels. The style of the levels is reset: heights are
+     * spread between the short and the long indicator height, and all the levels have the
+     * indicator color and width.
+     *
+     * @param levelCount Number of the levels.
+     */
+    final void setLevelCount(final int levelCount) {
+        mLevelCount = levelCount;
+        mLevelHeightRatios = null;
+        mLevelColors = null;
+        mLevelWidthsPx = null;
+        markDirty(DIRTY_GEOMETRY);
+    }
+
+    /**
+     * Set the height, the color and the width of each level of the indicators.
+     *
+     * @param heightRatios Ratio of the height of each level to the ruler height or null to
+     *                     spread the heights between the short and the long indicator height.
+     * @param colors       Color of each level or null to use the indicator color.
+     * @param widthsPx     Width of each level in pixels or null to use the indicator width.
+     * @throws IllegalArgumentException if any array doesn't have one entry per level, or any
+     *                                  height ratio is not between 0 and 1.
+     */
+    final void setTickLevelStyle(@Nullable final float[] heightRatios,
+                                 @Nullable final int[] colors,
+                                 @Nullable final int[] widthsPx) {
+        RulerViewUtils.checkTickLevelStyle(mLevelCount, heightRatios, colors, widthsPx);
+        mLevelHeightRatios = heightRatios == null ? null : heightRatios.clone();
+        mLevelColors = colors == null ? null : colors.clone();
+        mLevelWidthsPx = widthsPx == null ? null : widthsPx.clone();
+        markDirty(DIRTY_INDICATOR_PAINT | DIRTY_GEOMETRY);
+    }
+
+    /**
+     * @return Paint of each level or null if all the levels use the indicator paint. The same
+     * array and paints are updated in place whenever the style changes.
+     */
+    @Nullable
+    @CheckResult
+    final Paint[] getLevelPaints() {
+        return mLevelColors == null && mLevelWidthsPx == null ? null : mLevelPaints;
+    }
+
+    /**
+     * Derive the paints of the levels from the indicator paint. Paints are created only when the
+     * number of the levels changes.
+     */
+    private void updateLevelPaints() {
+        if (mLevelColors == null && mLevelWidthsPx == null) return;
+
+        if (mLevelPaints.length != mLevelCount) {
+            mLevelPaints = new Paint[mLevelCount];
+            mLevelPaintPool = new Paint[mLevelCount];
+            for (int i = 0; i < mLevelCount; i++) mLevelPaintPool[i] = new Paint(mIndicatorPaint);
+        }
+        RulerViewUtils.updateLevelPaints(mIndicatorPaint, mLevelPaintPool, mLevelPaints,
+                mLevelColors, mLevelWidthsPx);
+    }
+
+    /**
+     * @return Height of the indicators of each level in pixels. The same array is updated in
+     * place, so the receivers copy it.
+     * @see #setHeight(int)
+     */
+    @NonNull
+    @CheckResult
+    final int[] getLevelHeights() {
+        return mLevelHeights;
+    }
+
+    /**
+     * Set the height of the ruler and update the heights of the levels.
+     *
+     * @param heightPx Height of the ruler in pixels.
+     * @return True if the heights of the levels changed.
+     * @see #getLevelHeights()
+     */
+    final boolean setHeight(final int heightPx) {
+        if (heightPx == mHeightPx) return false;
+        mHeightPx = heightPx;
+        return updateLevelHeights();
+    }
+
+    /**
+     * Calculate the height of the indicators of each level based on the height of the ruler.
+     *
+     * @return True if the heights changed.
+     */
+    private boolean updateLevelHeights() {
+        boolean isChanged = false;
+        if (mLevelHeights.length != mLevelCount) {
+            mLevelHeights = new int[mLevelCount];
+            isChanged = true;
+        }
+        return RulerViewUtils.computeLevelHeights(mLevelHeights, mLevelHeightRatios,
+                mLongIndicatorHeightRatio, mShortIndicatorHeightRatio, mHeightPx) || isChanged;
+    }
+}
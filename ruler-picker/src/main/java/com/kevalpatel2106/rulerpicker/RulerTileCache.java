@@ -0,0 +1,279 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.graphics.Bitmap;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * LRU cache of the pre-rendered ruler tiles. The ruler is divided into the segments of
+ * {@link #TILE_WIDTH_PX} width. Each segment (indicators and values) is rendered once into a
+ * {@link Bitmap} and kept in this cache until the memory budget is exceeded or the style of the
+ * ruler changes. Tiles are kept in the parallel arrays of the tile indices and the bitmaps, in the
+ * order of their last use, so the lookup doesn't box the index and the steady scroll doesn't
+ * allocate the entries. There are only a few tiles in the budget, so the linear search is cheap.
+ * <p>
+ * Bitmaps of the evicted tiles are kept in a small pool and the worker thread renders the next
+ * tiles into them, so the steady scroll doesn't allocate new bitmaps. Evicted bitmap may still be
+ * referenced by the last drawn frame, so it is retired first and becomes reusable only after the
+ * next frame is drawn without it. See {@link #releaseRetiredTiles()}.
+ *
+ * @see RulerView#setTileCacheSize(int)
+ */
+final class RulerTileCache {
+
+    /**
+     * Width of the single tile in pixels.
+     */
+    static final int TILE_WIDTH_PX = 512;
+
+    /**
+     * Maximum number of the bitmaps kept for the reuse.
+     */
+    private static final int POOL_SIZE = 4;
+
+    /**
+     * Initial number of the entries of {@link #mTileIndices} and {@link #mTileBitmaps}. Arrays
+     * grow only until the tiles fill the memory budget.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Maximum number of bytes all the cached tile bitmaps can take.
+     */
+    private final int mMaxSizeBytes;
+
+    /**
+     * Index of each cached tile, from the least to the most recently used. Main thread only.
+     */
+    @NonNull
+    private int[] mTileIndices = new int[INITIAL_CAPACITY];
+
+    /**
+     * Bitmap of each tile in {@link #mTileIndices}. Main thread only.
+     */
+    @NonNull
+    private Bitmap[] mTileBitmaps = new Bitmap[INITIAL_CAPACITY];
+
+    /**
+     * Number of the cached tiles.
+     */
+    private int mTileCount = 0;
+
+    /**
+     * Number of bytes all the cached tile bitmaps take.
+     */
+    private int mSizeBytes = 0;
+
+    /**
+     * Bitmaps evicted from the cache, that may still be referenced by the last drawn frame. Main
+     * thread only.
+     */
+    @NonNull
+    private final Bitmap[] mRetiredTiles = new Bitmap[POOL_SIZE];
+
+    /**
+     * Number of the bitmaps in {@link #mRetiredTiles}.
+     */
+    private int mRetiredCount = 0;
+
+    /**
+     * Bitmaps, that are not drawn anymore and can be rendered into. Guarded by this cache.
+     */
+    @NonNull
+    private final Bitmap[] mFreeTiles = new Bitmap[POOL_SIZE];
+
+    /**
+     * Number of the bitmaps in {@link #mFreeTiles}.
+     */
+    private int mFreeCount = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSizeBytes Maximum number of bytes all the cached tile bitmaps can take.
+     */
+    RulerTileCache(final int maxSizeBytes) {
+        mMaxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Get the tile and mark it as the most recently used. Main thread only.
+     *
+     * @param tileIndex Index of the tile. Tile starts at {@code tileIndex * TILE_WIDTH_PX} on the ruler.
+     * @return Cached tile bitmap or null if the tile is not rendered yet.
+     */
+    @Nullable
+    @CheckResult
+    Bitmap get(final int tileIndex) {
+        final int entry = indexOf(tileIndex);
+        if (entry < 0) return null;
+
+        final Bitmap tile = mTileBitmaps[entry];
+        moveToEnd(entry);
+        return tile;
+    }
+
+    /**
+     * Add the tile as the most recently used one. Least recently used tiles are evicted until the
+     * tiles fit the memory budget. Main thread only.
+     *
+     * @param tileIndex Index of the tile.
+     * @param tile      Rendered tile bitmap.
+     */
+    void put(final int tileIndex, @NonNull final Bitmap tile) {
+        final int entry = indexOf(tileIndex);
+        if (entry >= 0) {
+            final Bitmap oldTile = mTileBitmaps[entry];
+            removeAt(entry);
+            if (oldTile != tile) retireTile(oldTile);
+        }
+
+        if (mTileCount == mTileIndices.length) {
+            mTileIndices = Arrays.copyOf(mTileIndices, mTileCount * 2);
+            mTileBitmaps = Arrays.copyOf(mTileBitmaps, mTileCount * 2);
+        }
+        mTileIndices[mTileCount] = tileIndex;
+        mTileBitmaps[mTileCount] = tile;
+        mTileCount++;
+        mSizeBytes += tile.getByteCount();
+
+        while (mSizeBytes > mMaxSizeBytes && mTileCount > 0) {
+            final Bitmap evictedTile = mTileBitmaps[0];
+            removeAt(0);
+            retireTile(evictedTile);
+        }
+    }
+
+    /**
+     * @return Maximum number of bytes all the cached tile bitmaps can take.
+     */
+    @CheckResult
+    int getMaxSize() {
+        return mMaxSizeBytes;
+    }
+
+    /**
+     * Remove all the tiles. Call this whenever the look of the ruler changes. Main thread only.
+     */
+    void clear() {
+        while (mTileCount > 0) {
+            final Bitmap evictedTile = mTileBitmaps[0];
+            removeAt(0);
+            retireTile(evictedTile);
+        }
+    }
+
+    /**
+     * @param tileIndex Index of the tile.
+     * @return Entry of the tile in {@link #mTileIndices} or -1 if the tile is not cached.
+     */
+    private int indexOf(final int tileIndex) {
+        //Recently used tiles are at the end.
+        for (int entry = mTileCount - 1; entry >= 0; entry--) {
+            if (mTileIndices[entry] == tileIndex) return entry;
+        }
+        return -1;
+    }
+
+    /**
+     * Move the entry to the end, i.e. mark it as the most recently used.
+     *
+     * @param entry Entry in {@link #mTileIndices}.
+     */
+    private void moveToEnd(final int entry) {
+        final int last = mTileCount - 1;
+        if (entry == last) return;
+
+        final int tileIndex = mTileIndices[entry];
+        final Bitmap tile = mTileBitmaps[entry];
+        System.arraycopy(mTileIndices, entry + 1, mTileIndices, entry, last - entry);
+        System.arraycopy(mTileBitmaps, entry + 1, mTileBitmaps, entry, last - entry);
+        mTileIndices[last] = tileIndex;
+        mTileBitmaps[last] = tile;
+    }
+
+    /**
+     * Remove the entry and keep the order of the rest.
+     *
+     * @param entry Entry in {@link #mTileIndices}.
+     */
+    private void removeAt(final int entry) {
+        mSizeBytes -= mTileBitmaps[entry].getByteCount();
+
+        final int last = mTileCount - 1;
+        System.arraycopy(mTileIndices, entry + 1, mTileIndices, entry, last - entry);
+        System.arraycopy(mTileBitmaps, entry + 1, mTileBitmaps, entry, last - entry);
+        mTileBitmaps[last] = null;
+        mTileCount = last;
+    }
+
+    /**
+     * Keep the bitmap removed from the cache for the reuse. It becomes reusable after
+     * {@link #releaseRetiredTiles()}. Main thread only.
+     *
+     * @param tile Bitmap removed from the cache.
+     */
+    private void retireTile(@NonNull final Bitmap tile) {
+        if (mRetiredCount < POOL_SIZE) mRetiredTiles[mRetiredCount++] = tile;
+    }
+
+    /**
+     * Make the retired bitmaps reusable. Call this on the main thread before drawing a new frame
+     * from the cache, as the new frame replaces the last one that may still reference them.
+     */
+    void releaseRetiredTiles() {
+        if (mRetiredCount == 0) return;
+
+        synchronized (this) {
+            for (int i = 0; i < mRetiredCount; i++) {
+                if (mFreeCount < POOL_SIZE) mFreeTiles[mFreeCount++] = mRetiredTiles[i];
+                mRetiredTiles[i] = null;
+            }
+        }
+        mRetiredCount = 0;
+    }
+
+    /**
+     * Return the bitmap, that was never drawn, to the pool. Call this on the main thread, e.g. for
+     * the tiles rendered for an old look of the ruler.
+     *
+     * @param tile Bitmap to reuse.
+     */
+    synchronized void recycleTile(@NonNull final Bitmap tile) {
+        if (mFreeCount < POOL_SIZE) mFreeTiles[mFreeCount++] = tile;
+    }
+
+    /**
+     * Get a bitmap to render the tile into. Bitmaps of the different height are dropped. This may
+     * be called from any thread.
+     *
+     * @param tileHeight Height of the tile in pixels.
+     * @return Reusable bitmap with the old content or null if the pool has no bitmap of the height.
+     */
+    @Nullable
+    @CheckResult
+    synchronized Bitmap obtainTile(final int tileHeight) {
+        while (mFreeCount > 0) {
+            final Bitmap tile = mFreeTiles[--mFreeCount];
+            mFreeTiles[mFreeCount] = null;
+            if (tile.getHeight() == tileHeight) return tile;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Message;
+import android.os.Process;
+import android.support.annotation.NonNull;
+import android.util.SparseBooleanArray;
+import android.view.View;
+
+/**
+ * Renders the ruler tiles on the background thread and publishes them into the
+ * {@link RulerTileCache} on the main thread.
+ * <p>
+ * The worker thread always renders into a bitmap, that is not visible. It is either a new bitmap
+ * or an evicted tile, that is not drawn anymore (see {@link RulerTileCache#obtainTile(int)}).
+ * The bitmap is put into the cache on the main thread only after it is completely rendered, so the
+ * main thread never draws or waits for a tile that is being rendered. The worker uses its own
+ * snapshot of the {@link RulerRenderer}. Whenever the look of the ruler changes, the snapshot is replaced and all
+ * the pending and in-flight tiles of the old look are dropped.
+ * <p>
+ * All the pickers share one worker thread.
+ *
+ * @see RulerView#setTileCacheSize(int)
+ */
+final class RulerTilePrefetcher {
+
+    /**
+     * Message to the worker to replace the renderer snapshot. arg1: generation, arg2: tile
+     * height, obj: {@link RulerRenderer}.
+     */
+    private static final int MSG_UPDATE_RENDERER = 1;
+
+    /**
+     * Message to the worker to render the tile. arg1: tile index, arg2: generation.
+     */
+    private static final int MSG_RENDER_TILE = 2;
+
+    /**
+     * Message to the main thread with the rendered tile. arg1: tile index, arg2: generation,
+     * obj: {@link Bitmap}.
+     */
+    private static final int MSG_TILE_RENDERED = 3;
+
+    /**
+     * Worker thread shared by all the pickers.
+     *
+     * @see #getWorkerLooper()
+     */
+    private static HandlerThread sWorkerThread;
+
+    /**
+     * Cache to publish the rendered tiles to.
+     */
+    @NonNull
+    private final RulerTileCache mTileCache;
+
+    /**
+     * View to invalidate when the new tile is available.
+     */
+    @NonNull
+    private final View mView;
+
+    /**
+     * Tiles requested from the worker, that are not published yet. Main thread only.
+     */
+    @NonNull
+    private final SparseBooleanArray mPendingTiles = new SparseBooleanArray();
+
+    /**
+     * Generation of the look of the ruler. Tiles rendered for an older generation are dropped.
+     * Main thread only.
+     */
+    private int mGeneration = 0;
+
+    /**
+     * Snapshot of the renderer to use on the worker thread. Worker thread only.
+     */
+    private RulerRenderer mWorkerRenderer;
+
+    /**
+     * Generation of the {@link #mWorkerRenderer}. Worker thread only.
+     */
+    private int mWorkerGeneration = -1;
+
+    /**
+     * Height of the tiles in pixels. Worker thread only.
+     */
+    private int mWorkerTileHeight = 0;
+
+    /**
+     * Reusable {@link Canvas} to render the tiles. Worker thread only.
+     */
+    @NonNull
+    private final Canvas mWorkerCanvas = new Canvas();
+
+    @NonNull
+    private final Handler mWorkerHandler = new Handler(getWorkerLooper()) {
+        @Override
+        public void handleMessage(final Message msg) {
+            switch (msg.what) {
+                case MSG_UPDATE_RENDERER:
+                    mWorkerGeneration = msg.arg1;
+                    mWorkerTileHeight = msg.arg2;
+                    mWorkerRenderer = (RulerRenderer) msg.obj;
+                    break;
+                case MSG_RENDER_TILE:
+                    if (msg.arg2 != mWorkerGeneration || mWorkerTileHeight <= 0) return;
+
+                    final Bitmap tile = renderTile(msg.arg1);
+                    mMainHandler.obtainMessage(MSG_TILE_RENDERED, msg.arg1, msg.arg2, tile)
+                            .sendToTarget();
+                    break;
+            }
+        }
+    };
+
+    @NonNull
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper()) {
+        @Override
+        public void handleMessage(final Message msg) {
+            if (msg.what != MSG_TILE_RENDERED) return;
+            if (msg.arg2 != mGeneration || !mPendingTiles.get(msg.arg1)) {
+                //Tile of an old look or a cancelled tile was never drawn.
+                mTileCache.recycleTile((Bitmap) msg.obj);
+                return;
+            }
+
+            mPendingTiles.delete(msg.arg1);
+            mTileCache.put(msg.arg1, (Bitmap) msg.obj);
+            mView.invalidate();
+        }
+    };
+
+    /**
+     * Constructor.
+     *
+     * @param tileCache {@link RulerTileCache} to publish the rendered tiles to.
+     * @param view      {@link View} to invalidate when the new tile is available.
+     */
+    RulerTilePrefetcher(@NonNull final RulerTileCache tileCache,
+                        @NonNull final View view) {
+        mTileCache = tileCache;
+        mView = view;
+    }
+
+    /**
+     * @return {@link Looper} of the shared worker thread. Thread is started on the first call.
+     */
+    @NonNull
+    private static synchronized Looper getWorkerLooper() {
+        if (sWorkerThread == null) {
+            sWorkerThread = new HandlerThread("RulerTileRenderer", Process.THREAD_PRIORITY_BACKGROUND);
+            sWorkerThread.start();
+        }
+        return sWorkerThread.getLooper();
+    }
+
+    /**
+     * Replace the renderer used by the worker thread. All the pending tiles are dropped. Call this
+     * on the main thread whenever the look of the ruler changes.
+     *
+     * @param renderer   {@link RulerRenderer} with the current look. A snapshot of this renderer
+     *                   is used by the worker.
+     * @param tileHeight Height of the tiles in pixels.
+     */
+    void updateRenderer(@NonNull final RulerRenderer renderer, final int tileHeight) {
+        cancelPendingTiles();
+        mGeneration++;
+        mWorkerHandler.obtainMessage(MSG_UPDATE_RENDERER, mGeneration, tileHeight,
+                new RulerRenderer(renderer)).sendToTarget();
+    }
+
+    /**
+     * Request the tile to be rendered on the worker thread. Request is ignored if the same tile
+     * is already requested. Call this on the main thread.
+     *
+     * @param tileIndex Index of the tile to render.
+     */
+    void requestTile(final int tileIndex) {
+        if (mPendingTiles.get(tileIndex)) return;
+
+        mPendingTiles.put(tileIndex, true);
+        mWorkerHandler.obtainMessage(MSG_RENDER_TILE, tileIndex, mGeneration).sendToTarget();
+    }
+
+    /**
+     * Drop all the tiles requested but not published yet. Call this on the main thread.
+     * <p>
+     * Tiles already rendered are still delivered to the main thread, so their bitmaps go back to
+     * the {@link RulerTileCache} instead of being lost with the removed messages.
+     */
+    void cancelPendingTiles() {
+        mWorkerHandler.removeMessages(MSG_RENDER_TILE);
+        mPendingTiles.clear();
+    }
+
+    /**
+     * Render the ruler segment of the given tile into a reused or a new bitmap. Worker thread only.
+     *
+     * @param tileIndex Index of the tile to render.
+     * @return Rendered tile.
+     */
+    @NonNull
+    private Bitmap renderTile(final int tileIndex) {
+        final int tileStartPx = tileIndex * RulerTileCache.TILE_WIDTH_PX;
+        Bitmap tile = mTileCache.obtainTile(mWorkerTileHeight);
+        if (tile == null) {
+            tile = Bitmap.createBitmap(RulerTileCache.TILE_WIDTH_PX,
+                    mWorkerTileHeight,
+                    Bitmap.Config.ARGB_8888);
+        } else {
+            tile.eraseColor(Color.TRANSPARENT);
+        }
+
+        mWorkerCanvas.setBitmap(tile);
+        mWorkerRenderer.draw(mWorkerCanvas,
+                tileStartPx,
+                tileStartPx + RulerTileCache.TILE_WIDTH_PX,
+                tileStartPx);
+        mWorkerCanvas.setBitmap(null);
+        return tile;
+    }
+}
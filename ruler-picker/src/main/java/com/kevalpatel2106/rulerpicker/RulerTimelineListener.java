@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+/**
+ * Listener to get the callback for {@link RulerTimelinePicker} events. Same as the
+ * {@link RulerValuePickerListener}, with the 64 bit values.
+ *
+ * @see RulerTimelinePicker#setTimelineListener(RulerTimelineListener)
+ */
+public interface RulerTimelineListener {
+
+    /**
+     * Called when the timeline stops at the value.
+     *
+     * @param selectedValue Value under the notch.
+     */
+    void onValueChange(long selectedValue);
+
+    /**
+     * Called at most once per frame while the timeline moves, if the value changed.
+     *
+     * @param selectedValue Value under the notch.
+     */
+    void onIntermediateValueChange(long selectedValue);
+}
@@ -0,0 +1,733 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.CheckResult;
+import android.support.annotation.ColorInt;
+import android.support.annotation.ColorRes;
+import android.support.annotation.DimenRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.content.ContextCompat;
+import android.support.v4.view.ViewCompat;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.kevalpatel2106.rulerpicker.geometry.RulerTimeline;
+
+/**
+ * Timeline scrubber with the 64 bit values, e.g. the epoch milliseconds of the log records. It
+ * works like the {@link FlatRulerValuePicker}: a single view that draws only the part of the
+ * timeline on the screen and handles the drag and the fling with its own
+ * {@link RulerTouchScroller}. The positions are 64 bit, so the ranges of months or years at the
+ * resolution of seconds don't overflow.
+ * <p>
+ * Ticks come from the levels of the {@link RulerTimeline}, e.g. the minutes, the hours and the
+ * days. Only the levels, whose ticks are far enough apart at the current resolution, are drawn.
+ * Heights of the levels are spread between the short and the long indicator height. Values are
+ * displayed below the ticks of the finest level with enough space for them. The value under the
+ * notch is not snapped to the ticks. By default, values are formatted as the local times by the
+ * {@link TimeRulerLabelFormatter}.
+ * <p>
+ * Style attributes are the same as of the {@link RulerValuePicker}. Range and interval attributes
+ * are ignored: use {@link #setTimeline(RulerTimeline)} instead.
+ *
+ * @see RulerTimeline
+ */
+public final class RulerTimelinePicker extends View {
+
+    /**
+     * Minutes, quarters, hours and days in milliseconds. Default levels of the timeline.
+     */
+    private static final long[] DEFAULT_LEVEL_INTERVALS = {60_000L, 900_000L, 3_600_000L, 86_400_000L};
+
+    /**
+     * Timeline to display. By default, one day of the epoch milliseconds at 10 seconds per pixel.
+     *
+     * @see #setTimeline(RulerTimeline)
+     */
+    @NonNull
+    private RulerTimeline mTimeline = new RulerTimeline(0, 86_400_000L, 10_000L, DEFAULT_LEVEL_INTERVALS);
+
+    /**
+     * Draws the ticks and the values.
+     */
+    @NonNull
+    private final RulerTimelineRenderer mRenderer = new RulerTimelineRenderer(mTimeline);
+
+    /**
+     * Paints and the heights of the tick levels. Applied changes are pushed to the
+     * {@link #mRenderer} and redraw this view.
+     */
+    @NonNull
+    private final RulerStyle mStyle = new RulerStyle(getContext(), new RulerStyle.Callback() {
+        @Override
+        public void onStyleChanged(final int dirtyFlags) {
+            if ((dirtyFlags & RulerStyle.DIRTY_TEXT_PAINT) != 0) mRenderer.invalidateTextPaint();
+
+            if ((dirtyFlags & RulerStyle.DIRTY_GEOMETRY) != 0) {
+                mRenderer.setTimeline(mTimeline);
+                mRenderer.setLevelHeights(mStyle.getLevelHeights());
+            }
+            invalidate();
+        }
+    }, DEFAULT_LEVEL_INTERVALS.length);
+
+    /**
+     * Triangle notch at the top-center of this view.
+     */
+    @NonNull
+    private final RulerNotch mNotch = new RulerNotch();
+
+    /**
+     * Drag, fling and animated scroll of the timeline. The value under the notch is not snapped.
+     *
+     * @see #setClock(RulerClock)
+     */
+    @NonNull
+    private final RulerTouchScroller mTouchScroller = new RulerTouchScroller(this,
+            new RulerTouchScroller.Host() {
+                @Override
+                public long getMaxScrollPx() {
+                    return mTimeline.getWidthPx();
+                }
+
+                @Override
+                public long snapScrollPx(final long scrollPx) {
+                    return scrollPx;
+                }
+
+                @Override
+                public void onScrollPxChanged(final long scrollPx) {
+                    invalidate();
+                    mValueDispatcher.onScrollChanged();
+                }
+
+                @Override
+                public void onScrollStopped() {
+                    mValueDispatcher.dispatchValue();
+                }
+
+                @Override
+                public void onFlingStarted(final long finalPx) {
+                    //Timeline has no fling listener.
+                }
+
+                @Override
+                public void onFlingCancelled() {
+                    //Timeline has no fling listener.
+                }
+            });
+
+    @Nullable
+    private RulerTimelineListener mListener;
+
+    /**
+     * Records the rendering metrics, or null if the metrics are disabled.
+     *
+     * @see #setMetricsListener(RulerMetricsListener, long)
+     */
+    @Nullable
+    private RulerMetricsRecorder mMetricsRecorder;
+
+    /**
+     * Time source of the scroll animations and the metrics windows.
+     *
+     * @see #setClock(RulerClock)
+     */
+    @NonNull
+    private RulerClock mClock = AnimationRulerClock.INSTANCE;
+
+    /**
+     * {@link RulerTracer} to mark the sections of the work with.
+     *
+     * @see #setTracer(RulerTracer)
+     */
+    @NonNull
+    private RulerTracer mTracer = SystraceRulerTracer.INSTANCE;
+
+    /**
+     * Sends the selected value to the {@link #mListener}.
+     */
+    @NonNull
+    private final RulerValueDispatcher mValueDispatcher = new RulerValueDispatcher(this,
+            new RulerValueDispatcher.Target() {
+                @Override
+                public long getSelectedValue() {
+                    return getCurrentValue();
+                }
+
+                @Override
+                public boolean hasListener() {
+                    return mListener != null;
+                }
+
+                @Override
+                public void onIntermediateValueChange(final long value) {
+                    if (mListener != null) mListener.onIntermediateValueChange(value);
+                }
+
+                @Override
+                public void onValueChange(final long value) {
+                    if (mListener != null) mListener.onValueChange(value);
+                }
+            });
+
+    /**
+     * Public constructor.
+     */
+    public RulerTimelinePicker(@NonNull final Context context) {
+        this(context, null);
+    }
+
+    /**
+     * Public constructor.
+     */
+    public RulerTimelinePicker(@NonNull final Context context,
+                               @Nullable final AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    /**
+     * Public constructor.
+     */
+    public RulerTimelinePicker(@NonNull final Context context,
+                               @Nullable final AttributeSet attrs,
+                               final int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init(attrs);
+    }
+
+    /**
+     * Public constructor.
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public RulerTimelinePicker(@NonNull final Context context,
+                               @Nullable final AttributeSet attrs,
+                               final int defStyleAttr,
+                               final int defStyleRes) {
+        super(context, attrs, defStyleAttr, defStyleRes);
+        init(attrs);
+    }
+
+    /**
+     * Initialize the view and parse the style attributes of the {@link RulerValuePicker}.
+     *
+     * @param attributeSet {@link AttributeSet} to parse or null if no attribute parameters set.
+     */
+    private void init(@Nullable AttributeSet attributeSet) {
+        mRenderer.setPaints(mStyle.getIndicatorPaint(), mStyle.getTextPaint());
+        mRenderer.setLabelFormatter(new TimeRulerLabelFormatter());
+
+        beginUpdate();
+        if (attributeSet != null) {
+            TypedArray a = getContext().getTheme().obtainStyledAttributes(attributeSet,
+                    R.styleable.RulerValuePicker,
+                    0,
+                    0);
+
+            try { //Parse params
+                if (a.hasValue(R.styleable.RulerValuePicker_notch_color)) {
+                    mNotch.setColor(a.getColor(R.styleable.RulerValuePicker_notch_color, Color.WHITE));
+                }
+
+                mStyle.parseAttributes(a);
+            } finally {
+                a.recycle();
+            }
+        }
+        commit();
+
+        mValueDispatcher.resetReportedValue();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (mMetricsRecorder != null) mMetricsRecorder.onMeasurePass();
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    @Override
+    protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
+        super.onSizeChanged(width, height, oldWidth, oldHeight);
+        if (mStyle.setHeight(height)) mRenderer.setLevelHeights(mStyle.getLevelHeights());
+        mNotch.setWidth(width);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        mTracer.beginSection(RulerTracer.SECTION_TIMELINE_DRAW);
+        try {
+            final long drawStartNanos = mMetricsRecorder != null ? System.nanoTime() : 0;
+            mRenderer.resetDrawnCounts();
+
+            //Position under the notch is at the center of this view.
+            final long originPx = mTouchScroller.getScrollPx() - getWidth() / 2;
+            mRenderer.draw(canvas, originPx, originPx + getWidth(), originPx);
+
+            if (mMetricsRecorder != null) {
+                mMetricsRecorder.onFrameDrawn(System.nanoTime() - drawStartNanos,
+                        mRenderer.getDrawnTickCount(),
+                        mRenderer.getDrawnLabelCount(),
+                        mRenderer.getDrawCallCount());
+            }
+
+            //Draw the top notch
+            mNotch.draw(canvas);
+        } finally {
+            mTracer.endSection();
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mValueDispatcher.cancel();
+    }
+
+    //**********************************************************************************//
+    //********************************* TOUCH AND FLING ********************************//
+    //**********************************************************************************//
+
+    @SuppressLint("ClickableViewAccessibility")
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return mTouchScroller.onTouchEvent(event);
+    }
+
+    @Override
+    public void computeScroll() {
+        mTouchScroller.computeScroll();
+    }
+
+    //**********************************************************************************//
+    //********************************** VALUE SELECTION *******************************//
+    //**********************************************************************************//
+
+    /**
+     * Scroll the timeline to the given value with the animation.
+     *
+     * @param value Value to select. Values outside the timeline are clamped to the timeline.
+     * @see #selectValue(long, boolean)
+     */
+    public void selectValue(final long value) {
+        selectValue(value, true);
+    }
+
+    /**
+     * Scroll the timeline to the given value. The value is rounded to the nearest pixel.
+     *
+     * @param value   Value to select. Values outside the timeline are clamped to the timeline.
+     * @param animate True to scroll to the value with the animation, false to jump to the value.
+     *                Value is never animated before the picker is laid out. After the jump,
+     *                {@link RulerTimelineListener#onValueChange(long)} is always called, even
+     *                if the selected value didn't change.
+     */
+    public void selectValue(final long value, final boolean animate) {
+        mTracer.beginSection(RulerTracer.SECTION_SELECT_VALUE);
+        try {
+            final long scrollPx = mTimeline.getScrollPxForValue(value);
+            if (animate && ViewCompat.isLaidOut(this)) {
+                mTouchScroller.animateScrollTo(scrollPx);
+            } else {
+                mTouchScroller.jumpTo(scrollPx);
+            }
+        } finally {
+            mTracer.endSection();
+        }
+    }
+
+    /**
+     * @return Value under the notch.
+     */
+    @CheckResult
+    public long getCurrentValue() {
+        return mTimeline.getValueAt(mTouchScroller.getScrollPx());
+    }
+
+    @Override
+    public Parcelable onSaveInstanceState() {
+        Parcelable superState = super.onSaveInstanceState();
+        SavedState ss = new SavedState(superState);
+        ss.value = getCurrentValue();
+        return ss;
+    }
+
+    @Override
+    public void onRestoreInstanceState(Parcelable state) {
+        SavedState ss = (SavedState) state;
+        super.onRestoreInstanceState(ss.getSuperState());
+        selectValue(ss.value, false);
+    }
+
+    //**********************************************************************************//
+    //******************************** GETTERS/SETTERS *********************************//
+    //**********************************************************************************//
+
+    /**
+     * Start the batch of the style changes. Changes made by the setters of the timeline are not
+     * applied until the matching {@link #commit()}. Calls can be nested.
+     */
+    public void beginUpdate() {
+        mStyle.beginUpdate();
+    }
+
+    /**
+     * End the batch of the style changes started by {@link #beginUpdate()}. All the changes made
+     * since the outermost {@link #beginUpdate()} are applied at once.
+     */
+    public void commit() {
+        mStyle.commit();
+    }
+
+    /**
+     * @return {@link RulerTimeline} displayed by this picker.
+     * @see #setTimeline(RulerTimeline)
+     */
+    @NonNull
+    @CheckResult
+    public RulerTimeline getTimeline() {
+        return mTimeline;
+    }
+
+    /**
+     * Set the range, the resolution and the tick levels of the timeline. The current value is
+     * kept, if it is inside the new range. Otherwise it is clamped to the new range.
+     *
+     * @param timeline {@link RulerTimeline} to display.
+     * @see #setUnitsPerPx(long)
+     */
+    public void setTimeline(@NonNull final RulerTimeline timeline) {
+        final long value = getCurrentValue();
+        mTimeline = timeline;
+        mStyle.setLevelCount(timeline.getLevelCount());
+        selectValue(value, false);
+    }
+
+    /**
+     * Zoom the timeline around the current value, e.g. from the minutes to the days. Levels,
+     * whose ticks get too dense, are not drawn.
+     *
+     * @param unitsPerPx Units of the value per pixel. Must be positive.
+     * @throws IllegalArgumentException if the resolution is not positive.
+     */
+    public void setUnitsPerPx(final long unitsPerPx) {
+        if (unitsPerPx == mTimeline.getUnitsPerPx()) return;
+        setTimeline(mTimeline.withUnitsPerPx(unitsPerPx));
+    }
+
+    /**
+     * @return {@link RulerLabelFormatter} of the values or null if the values are displayed as
+     * plain numbers.
+     * @see #setLabelFormatter(RulerLabelFormatter)
+     */
+    @Nullable
+    @CheckResult
+    public RulerLabelFormatter getLabelFormatter() {
+        return mRenderer.getLabelFormatter();
+    }
+
+    /**
+     * Set the formatter for the values displayed below the ticks, e.g. "14:00" or "Mar 12".
+     * Formatter gets the value itself. Use {@link RulerTimeline#getTickLevel(long)} to format the
+     * ticks of each level differently. Formatted labels are cached by the value. By default,
+     * values are formatted as the local times by the {@link TimeRulerLabelFormatter}.
+     *
+     * @param labelFormatter {@link RulerLabelFormatter} to format the values or null to display
+     *                       the values as plain numbers, e.g. if they are not the epoch
+     *                       milliseconds.
+     */
+    public void setLabelFormatter(@Nullable final RulerLabelFormatter labelFormatter) {
+        mRenderer.setLabelFormatter(labelFormatter);
+        invalidate();
+    }
+
+    /**
+     * @param notchColorRes Color resource of the notch to display. Default color os {@link Color#WHITE}.
+     * @see #setNotchColor(int)
+     */
+    public void setNotchColorRes(@ColorRes final int notchColorRes) {
+        setNotchColor(ContextCompat.getColor(getContext(), notchColorRes));
+    }
+
+    /**
+     * @return Integer color of the notch. Default color os {@link Color#WHITE}.
+     * @see #setNotchColor(int)
+     */
+    @ColorInt
+    public int getNotchColor() {
+        return mNotch.getColor();
+    }
+
+    /**
+     * @param notchColor Integer color of the notch to display. Default color os {@link Color#WHITE}.
+     * @see #getNotchColor()
+     */
+    public void setNotchColor(@ColorInt final int notchColor) {
+        mNotch.setColor(notchColor);
+        invalidate();
+    }
+
+    /**
+     * @return Color integer value of the text color.
+     * @see #setTextColor(int)
+     */
+    @CheckResult
+    @ColorInt
+    public int getTextColor() {
+        return mStyle.getTextColor();
+    }
+
+    /**
+     * Set the color of the values.
+     *
+     * @param color Color integer value.
+     * @see #getTextColor()
+     */
+    public void setTextColor(@ColorInt final int color) {
+        mStyle.setTextColor(color);
+    }
+
+    /**
+     * Set the color of the values.
+     *
+     * @param color Color resource id.
+     */
+    public void setTextColorRes(@ColorRes final int color) {
+        setTextColor(ContextCompat.getColor(getContext(), color));
+    }
+
+    /**
+     * @return Size of the text in pixels.
+     * @see #setTextSize(int)
+     */
+    @CheckResult
+    public float getTextSize() {
+        return mStyle.getTextSize();
+    }
+
+    /**
+     * Set the size of the values.
+     *
+     * @param dimensionDp Text size dimension in dp.
+     * @see #getTextSize()
+     */
+    public void setTextSize(final int dimensionDp) {
+        mStyle.setTextSize(dimensionDp);
+    }
+
+    /**
+     * Set the size of the values.
+     *
+     * @param dimension Text size dimension resource.
+     * @see #getTextSize()
+     */
+    public void setTextSizeRes(@DimenRes final int dimension) {
+        setTextSize((int) getContext().getResources().getDimension(dimension));
+    }
+
+    /**
+     * @return Color integer value of the tick color.
+     * @see #setIndicatorColor(int)
+     */
+    @CheckResult
+    @ColorInt
+    public int getIndicatorColor() {
+        return mStyle.getIndicatorColor();
+    }
+
+    /**
+     * Set the tick color.
+     *
+     * @param color Color integer value.
+     * @see #getIndicatorColor()
+     */
+    public void setIndicatorColor(@ColorInt final int color) {
+        mStyle.setIndicatorColor(color);
+    }
+
+    /**
+     * Set the tick color.
+     *
+     * @param color Color resource id.
+     * @see #getIndicatorColor()
+     */
+    public void setIndicatorColorRes(@ColorRes final int color) {
+        setIndicatorColor(ContextCompat.getColor(getContext(), color));
+    }
+
+    /**
+     * @return Width of the tick in pixels.
+     * @see #setIndicatorWidth(int)
+     */
+    @CheckResult
+    public float getIndicatorWidth() {
+        return mStyle.getIndicatorWidth();
+    }
+
+    /**
+     * Set the width of the tick line. Wider ticks need more space, so the finest levels may be
+     * hidden.
+     *
+     * @param widthPx Width in pixels.
+     * @see #getIndicatorWidth()
+     */
+    public void setIndicatorWidth(final int widthPx) {
+        mStyle.setIndicatorWidth(widthPx);
+    }
+
+    /**
+     * Set the width of the tick line.
+     *
+     * @param width Dimension resource for the tick width.
+     * @see #getIndicatorWidth()
+     */
+    public void setIndicatorWidthRes(@DimenRes final int width) {
+        setIndicatorWidth(getContext().getResources().getDimensionPixelSize(width));
+    }
+
+    /**
+     * @return Ratio of the height of the coarsest level ticks to the view height.
+     * @see #setIndicatorHeight(float, float)
+     */
+    @CheckResult
+    public float getLongIndicatorHeightRatio() {
+        return mStyle.getLongIndicatorHeightRatio();
+    }
+
+    /**
+     * @return Ratio of the height of the finest level ticks to the view height.
+     * @see #setIndicatorHeight(float, float)
+     */
+    @CheckResult
+    public float getShortIndicatorHeightRatio() {
+        return mStyle.getShortIndicatorHeightRatio();
+    }
+
+    /**
+     * Set the height of the ticks. Heights of the levels between the finest and the coarsest are
+     * spread evenly between the two.
+     *
+     * @param longHeightRatio  Ratio of the height of the coarsest level ticks to the view height.
+     *                         This value must be between 0 to 1. Default value is 0.6 (i.e. 60%).
+     * @param shortHeightRatio Ratio of the height of the finest level ticks to the view height.
+     *                         This value must be between 0 to 1 and must not be greater than the
+     *                         long height. Default value is 0.4 (i.e. 40%).
+     * @throws IllegalArgumentException if any of the parameter is invalid.
+     */
+    public void setIndicatorHeight(final float longHeightRatio,
+                                   final float shortHeightRatio) {
+        mStyle.setIndicatorHeight(longHeightRatio, shortHeightRatio);
+    }
+
+    /**
+     * Set the {@link RulerTimelineListener} to get callbacks when the value changes.
+     *
+     * @param listener {@link RulerTimelineListener}
+     */
+    public void setTimelineListener(@Nullable final RulerTimelineListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Set the {@link RulerMetricsListener} to get the rendering metrics of this picker. Metrics
+     * are disabled by default.
+     *
+     * @param listener     {@link RulerMetricsListener} to get the metrics or null to disable the
+     *                     metrics.
+     * @param windowMillis Duration of the reporting window in milliseconds. Ignored if the
+     *                     listener is null.
+     * @throws IllegalArgumentException if the listener is not null and the window is not positive.
+     * @see FlatRulerValuePicker#setMetricsListener(RulerMetricsListener, long)
+     */
+    public void setMetricsListener(@Nullable final RulerMetricsListener listener,
+                                   final long windowMillis) {
+        if (listener != null && windowMillis <= 0) {
+            throw new IllegalArgumentException("Metrics window must be positive.");
+        }
+
+        mMetricsRecorder = listener == null ? null : new RulerMetricsRecorder(listener, windowMillis, mClock);
+        mTouchScroller.setMetricsRecorder(mMetricsRecorder);
+        mValueDispatcher.setMetricsRecorder(mMetricsRecorder);
+    }
+
+    /**
+     * Set the {@link RulerTracer} to mark the draw, value selection, fling and scroll stop sections
+     * with. By default, the sections are written to the systrace.
+     *
+     * @param tracer {@link RulerTracer} to use or null to write the sections to the systrace.
+     */
+    public void setTracer(@Nullable final RulerTracer tracer) {
+        mTracer = tracer == null ? SystraceRulerTracer.INSTANCE : tracer;
+        mTouchScroller.setTracer(mTracer);
+    }
+
+    /**
+     * Set the time source of the flings, the animated scrolls and the metrics reporting windows. By
+     * default, the animation time of the current frame is used. Running fling or animation is
+     * stopped.
+     *
+     * @param clock {@link RulerClock} to use or null to use the animation time.
+     * @see RulerClock
+     */
+    public void setClock(@Nullable final RulerClock clock) {
+        mClock = clock == null ? AnimationRulerClock.INSTANCE : clock;
+        mTouchScroller.setClock(mClock);
+        if (mMetricsRecorder != null) mMetricsRecorder.setClock(mClock);
+    }
+
+    /**
+     * User interface state that is stored by RulerTimelinePicker for implementing
+     * {@link View#onSaveInstanceState}.
+     */
+    public static class SavedState extends BaseSavedState {
+
+        public static final Parcelable.Creator<SavedState> CREATOR =
+                new Parcelable.Creator<SavedState>() {
+                    public SavedState createFromParcel(Parcel in) {
+                        return new SavedState(in);
+                    }
+
+                    public SavedState[] newArray(int size) {
+                        return new SavedState[size];
+                    }
+                };
+
+        private long value = 0;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            value = in.readLong();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeLong(value);
+        }
+    }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.kevalpatel2106.rulerpicker.geometry.RulerTimeline;
+import com.kevalpatel2106.rulerpicker.geometry.RulerValueScale;
+
+/**
+ * Draws the ticks and the values of the {@link RulerTimeline} on any {@link Canvas}.
+ * <p>
+ * All the positions are 64 bit pixels relative to the start (minimum value) of the timeline. Only
+ * the ticks inside the drawn part are visited: the finest level, whose ticks are far enough apart,
+ * is walked tick by tick, and the level of each tick is found by comparing it with the next tick
+ * of each coarser level. There is no modulo per tick and nothing is precomputed for the range.
+ *
+ * @see RulerTimelinePicker
+ */
+final class RulerTimelineRenderer {
+
+    /**
+     * Minimum distance between two ticks in pixels, in addition to the width of the tick. Levels
+     * with the denser ticks are not drawn.
+     */
+    private static final int MIN_TICK_GAP_PX = 2;
+
+    /**
+     * {@link Paint} for the ticks.
+     */
+    private Paint mIndicatorPaint;
+
+    /**
+     * {@link Paint} to display the values.
+     */
+    private Paint mTextPaint;
+
+    @NonNull
+    private RulerTimeline mTimeline;
+
+    /**
+     * Height of the ticks of each level in pixels.
+     *
+     * @see #setLevelHeights(int[])
+     */
+    @NonNull
+    private int[] mLevelHeights;
+
+    /**
+     * Half of the width of the widest value text in pixels. The drawn part is extended by this
+     * margin, so the labels at the edges are not cut.
+     *
+     * @see #updateLabelMargin()
+     */
+    private int mLabelMarginPx = 0;
+
+    /**
+     * Next tick of each level while the ticks are walked.
+     */
+    @NonNull
+    private long[] mNextTicks;
+
+    /**
+     * Reusable buffer for the coordinates of the tick lines. Each tick takes four floats
+     * (x0, y0, x1, y1).
+     */
+    @NonNull
+    private float[] mIndicatorLines = new float[0];
+
+    /**
+     * Reusable buffers for the values and positions of the labels to draw after the ticks.
+     */
+    @NonNull
+    private long[] mLabelValues = new long[0];
+
+    @NonNull
+    private float[] mLabelXs = new float[0];
+
+    private int mDrawnTickCount = 0;
+
+    private int mDrawnLabelCount = 0;
+
+    private int mDrawCallCount = 0;
+
+    @Nullable
+    private RulerGlyphAtlas mGlyphAtlas;
+
+    /**
+     * Reusable buffer for the characters of the value to draw.
+     */
+    @NonNull
+    private final char[] mLabelChars = new char[RulerValueScale.MAX_LABEL_LENGTH];
+
+    /**
+     * Cache of the labels formatted by the {@link #mLabelFormatter} or null if the values are
+     * displayed as plain numbers.
+     */
+    @Nullable
+    private RulerLabelCache mLabelCache;
+
+    @Nullable
+    private RulerLabelFormatter mLabelFormatter;
+
+    /**
+     * @param timeline {@link RulerTimeline} to draw.
+     */
+    RulerTimelineRenderer(@NonNull final RulerTimeline timeline) {
+        mTimeline = timeline;
+        mLevelHeights = new int[timeline.getLevelCount()];
+        mNextTicks = new long[timeline.getLevelCount()];
+    }
+
+    /**
+     * @param indicatorPaint {@link Paint} for the ticks. Owned by the caller.
+     * @param textPaint      {@link Paint} for the values. Owned by the caller.
+     */
+    void setPaints(@NonNull final Paint indicatorPaint,
+                   @NonNull final Paint textPaint) {
+        mIndicatorPaint = indicatorPaint;
+        mTextPaint = textPaint;
+        invalidateTextPaint();
+    }
+
+    /**
+     * Let the renderer know that the text paint changed in place.
+     */
+    void invalidateTextPaint() {
+        mGlyphAtlas = null;
+        updateLabelMargin();
+    }
+
+    /**
+     * @param timeline {@link RulerTimeline} to draw. If the number of the levels changes, set the
+     *                 heights of the levels again.
+     */
+    void setTimeline(@NonNull final RulerTimeline timeline) {
+        mTimeline = timeline;
+        if (mNextTicks.length != timeline.getLevelCount()) {
+            mLevelHeights = new int[timeline.getLevelCount()];
+            mNextTicks = new long[timeline.getLevelCount()];
+        }
+        updateLabelMargin();
+    }
+
+    /**
+     * @param levelHeights Height of the ticks of each level in pixels, from the finest level.
+     *                     Array is copied into the renderer's own array, which is reallocated
+     *                     only when the number of the levels changes.
+     */
+    void setLevelHeights(@NonNull final int[] levelHeights) {
+        if (mLevelHeights.length != levelHeights.length) mLevelHeights = new int[levelHeights.length];
+        System.arraycopy(levelHeights, 0, mLevelHeights, 0, levelHeights.length);
+    }
+
+    /**
+     * @param labelFormatter {@link RulerLabelFormatter} to format the values or null to display
+     *                       them as plain numbers.
+     */
+    void setLabelFormatter(@Nullable final RulerLabelFormatter labelFormatter) {
+        mLabelFormatter = labelFormatter;
+        mLabelCache = labelFormatter == null ? null : new RulerLabelCache(labelFormatter);
+        updateLabelMargin();
+    }
+
+    @Nullable
+    @CheckResult
+    RulerLabelFormatter getLabelFormatter() {
+        return mLabelFormatter;
+    }
+
+    /**
+     * Estimate the half width of the widest value text from the first tick of each level. Labels
+     * of the different levels may look different, e.g. the dates and the times.
+     */
+    private void updateLabelMargin() {
+        if (mTextPaint == null) return;
+
+        float maxWidth = 0;
+        for (int level = 0; level < mTimeline.getLevelCount(); level++) {
+            final long tick = mTimeline.getFirstTickAtOrAfter(mTimeline.getMinValue(), level);
+            maxWidth = Math.max(maxWidth, measureLabel(tick));
+        }
+        mLabelMarginPx = (int) Math.ceil(maxWidth / 2);
+    }
+
+    /**
+     * Draw the part of the timeline between given positions. Ticks are drawn with one
+     * {@link Canvas#drawLines(float[], int, int, Paint)} call. Values are drawn below the ticks of
+     * the finest level, whose ticks are far enough apart for the widest value.
+     *
+     * @param canvas   {@link Canvas} to draw on.
+     * @param startPx  Start of the part to draw in pixels.
+     * @param endPx    End of the part to draw in pixels.
+     * @param originPx Position of the left edge of the canvas on the timeline in pixels.
+     */
+    void draw(@NonNull final Canvas canvas,
+              final long startPx,
+              final long endPx,
+              final long originPx) {
+        final int levelCount = mTimeline.getLevelCount();
+        final int minSpacingPx = (int) Math.ceil(mIndicatorPaint.getStrokeWidth()) + MIN_TICK_GAP_PX;
+        final int finestLevel = mTimeline.getFinestLevel(minSpacingPx);
+        if (finestLevel == levelCount) return;
+        final int labelLevel = mTimeline.getFinestLevel(2 * mLabelMarginPx + minSpacingPx);
+
+        final long startValue = mTimeline.getValueAt(startPx - mLabelMarginPx);
+        final long endValue = mTimeline.getValueAt(endPx + mLabelMarginPx);
+        final long step = mTimeline.getLevelInterval(finestLevel);
+        long value = mTimeline.getFirstTickAtOrAfter(startValue, finestLevel);
+        if (value > endValue) return;
+
+        for (int level = finestLevel + 1; level < levelCount; level++) {
+            mNextTicks[level] = mTimeline.getFirstTickAtOrAfter(value, level);
+        }
+        ensureBufferCapacity((int) Math.min(Integer.MAX_VALUE / 4,
+                (endPx - startPx + 2L * mLabelMarginPx) / minSpacingPx + 2));
+
+        int lineIndex = 0;
+        int labelCount = 0;
+        while (true) {
+            int level = finestLevel;
+            for (int coarser = finestLevel + 1; coarser < levelCount && mNextTicks[coarser] == value; coarser++) {
+                level = coarser;
+                mNextTicks[coarser] += mTimeline.getLevelInterval(coarser);
+            }
+
+            final float x = mTimeline.toPx(value) - originPx;
+            mIndicatorLines[lineIndex] = x;
+            mIndicatorLines[lineIndex + 1] = 0;
+            mIndicatorLines[lineIndex + 2] = x;
+            mIndicatorLines[lineIndex + 3] = mLevelHeights[level];
+            lineIndex += 4;
+            mDrawnTickCount++;
+
+            if (level >= labelLevel) {
+                mLabelValues[labelCount] = value;
+                mLabelXs[labelCount] = x;
+                labelCount++;
+            }
+
+            //Stop before the value overflows at the end of the long range.
+            if (endValue - value < step) break;
+            value += step;
+        }
+        if (lineIndex > 0) {
+            canvas.drawLines(mIndicatorLines, 0, lineIndex, mIndicatorPaint);
+            mDrawCallCount++;
+        }
+
+        //Draw the values below the ticks
+        final float baseline = mLevelHeights[levelCount - 1] + mTextPaint.getTextSize();
+        for (int i = 0; i < labelCount; i++) {
+            drawValueText(canvas, mLabelValues[i], mLabelXs[i], baseline);
+            mDrawnLabelCount++;
+        }
+    }
+
+    /**
+     * Make sure the buffers can hold the given number of the ticks. The buffers only grow, so
+     * once they are large enough for the visible window, no allocation happens while drawing.
+     *
+     * @param tickCount Number of the ticks to draw.
+     */
+    private void ensureBufferCapacity(final int tickCount) {
+        if (mIndicatorLines.length < tickCount * 4) mIndicatorLines = new float[tickCount * 4];
+        if (mLabelValues.length < tickCount) {
+            mLabelValues = new long[tickCount];
+            mLabelXs = new float[tickCount];
+        }
+    }
+
+    /**
+     * @param value Value to measure the label of.
+     * @return Width of the label of the value in pixels.
+     */
+    private float measureLabel(final long value) {
+        if (mLabelCache != null) {
+            final int slot = mLabelCache.getSlot(value);
+            return mTextPaint.measureText(mLabelCache.getLabel(slot), 0, mLabelCache.getLength(slot));
+        } else {
+            return mTextPaint.measureText(mLabelChars, 0, RulerValueScale.INTEGER.format(value, mLabelChars));
+        }
+    }
+
+    /**
+     * Draw the value centered at the given position. If possible, it is composed from the glyphs
+     * in the {@link RulerGlyphAtlas}. No {@link String} is allocated for the value.
+     *
+     * @param canvas   {@link Canvas} on which the text will be drawn.
+     * @param value    Value to draw.
+     * @param x        Position of the tick of the value on the canvas.
+     * @param baseline Vertical position of the baseline of the text.
+     */
+    private void drawValueText(@NonNull final Canvas canvas,
+                               final long value,
+                               final float x,
+                               final float baseline) {
+        final char[] label;
+        final int length;
+        if (mLabelCache != null) {
+            final int slot = mLabelCache.getSlot(value);
+            label = mLabelCache.getLabel(slot);
+            length = mLabelCache.getLength(slot);
+        } else {
+            label = mLabelChars;
+            length = RulerValueScale.INTEGER.format(value, mLabelChars);
+        }
+
+        if (mGlyphAtlas == null) mGlyphAtlas = new RulerGlyphAtlas(mTextPaint);
+        if (mGlyphAtlas.canDraw(label, 0, length)) {
+            mGlyphAtlas.drawCentered(canvas, label, 0, length, x, baseline);
+            mDrawCallCount += length;
+        } else {
+            canvas.drawText(label, 0, length, x, baseline, mTextPaint);
+            mDrawCallCount++;
+        }
+    }
+
+    /**
+     * @return Number of the ticks drawn since the last {@link #resetDrawnCounts()}.
+     */
+    @CheckResult
+    int getDrawnTickCount() {
+        return mDrawnTickCount;
+    }
+
+    /**
+     * @return Number of the values drawn since the last {@link #resetDrawnCounts()}.
+     */
+    @CheckResult
+    int getDrawnLabelCount() {
+        return mDrawnLabelCount;
+    }
+
+    /**
+     * @return Number of the {@link Canvas} draw calls since the last {@link #resetDrawnCounts()}.
+     */
+    @CheckResult
+    int getDrawCallCount() {
+        return mDrawCallCount;
+    }
+
+    /**
+     * Start counting the drawn ticks, values and draw calls from zero.
+     */
+    void resetDrawnCounts() {
+        mDrawnTickCount = 0;
+        mDrawnLabelCount = 0;
+        mDrawCallCount = 0;
+    }
+}
@@ -0,0 +1,452 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.content.Context;
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewParent;
+
+/**
+ * Drag, fling and animated scroll of the single view pickers, that draw the ruler themselves
+ * instead of scrolling the child views. The position under the notch is kept in pixels as the
+ * long, so the same code scrolls the integer ruler and the timeline.
+ * <p>
+ * The {@link RulerScroller} works with the int positions, so it runs relative to the position the
+ * fling or the animation started at.
+ *
+ * @see FlatRulerValuePicker
+ * @see RulerTimelinePicker
+ */
+final class RulerTouchScroller {
+
+    private static final int INVALID_POINTER = -1;
+
+    /**
+     * Receives the scroll position changes of the {@link RulerTouchScroller}.
+     */
+    interface Host {
+
+        /**
+         * @return Maximum scroll position in pixels. The minimum is always 0.
+         */
+        long getMaxScrollPx();
+
+        /**
+         * @param scrollPx Position of the ruler in pixels.
+         * @return Position the scroll should stop at, nearest to the given one.
+         */
+        long snapScrollPx(long scrollPx);
+
+        /**
+         * Called whenever the scroll position changes.
+         *
+         * @param scrollPx New position in pixels.
+         */
+        void onScrollPxChanged(long scrollPx);
+
+        /**
+         * Called when the drag, the fling or the animation stopped.
+         */
+        void onScrollStopped();
+
+        /**
+         * @param finalPx Position the fling will stop at.
+         */
+        void onFlingStarted(long finalPx);
+
+        /**
+         * Called when the running fling is interrupted before it reaches the final position.
+         */
+        void onFlingCancelled();
+    }
+
+    @NonNull
+    private final View mView;
+
+    @NonNull
+    private final Host mHost;
+
+    /**
+     * {@link RulerScroller} to run the flings and the animated scrolls. It is used instead of the
+     * {@link android.widget.OverScroller}, because it allows changing the final position of the
+     * running fling and reads the time from the {@link RulerClock}.
+     *
+     * @see #setClock(RulerClock)
+     */
+    @NonNull
+    private final RulerScroller mScroller;
+
+    private final int mTouchSlop;
+
+    private final int mMinFlingVelocity;
+
+    private final int mMaxFlingVelocity;
+
+    /**
+     * Tracks the velocity of the drag.
+     */
+    @Nullable
+    private VelocityTracker mVelocityTracker;
+
+    /**
+     * Id of the pointer that drags the ruler. When that pointer goes up, the next one takes over.
+     */
+    private int mActivePointerId = INVALID_POINTER;
+
+    /**
+     * Horizontal position of the last touch event of the {@link #mActivePointerId}.
+     */
+    private int mLastTouchX;
+
+    /**
+     * True while any finger is on the screen. The scroll doesn't stop until the finger goes up.
+     */
+    private boolean mIsTouching = false;
+
+    /**
+     * True if the finger moved past the touch slop and drags the ruler.
+     */
+    private boolean mIsDragging = false;
+
+    /**
+     * True if the {@link #mScroller} is running.
+     */
+    private boolean mIsAnimating = false;
+
+    /**
+     * True if the {@link #mScroller} is running the fling.
+     */
+    private boolean mIsFlinging = false;
+
+    /**
+     * True if the scroll position changed since the last {@link Host#onScrollStopped()}.
+     */
+    private boolean mHasScrolled = false;
+
+    /**
+     * Position of the ruler under the notch in pixels.
+     *
+     * @see #setScrollPx(long)
+     */
+    private long mScrollPx = 0;
+
+    /**
+     * Position at which the running fling or animation started. Positions of the
+     * {@link #mScroller} are relative to this one.
+     */
+    private long mScrollBasePx = 0;
+
+    @Nullable
+    private RulerMetricsRecorder mMetricsRecorder;
+
+    @NonNull
+    private RulerTracer mTracer = SystraceRulerTracer.INSTANCE;
+
+    /**
+     * Constructor.
+     *
+     * @param view {@link View} to scroll. It is invalidated on every frame of the animation.
+     * @param host {@link Host} to report the position changes to.
+     */
+    RulerTouchScroller(@NonNull final View view, @NonNull final Host host) {
+        mView = view;
+        mHost = host;
+
+        final Context context = view.getContext();
+        final ViewConfiguration configuration = ViewConfiguration.get(context);
+        mTouchSlop = configuration.getScaledTouchSlop();
+        mMinFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        mMaxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        mScroller = new RulerScroller(context);
+    }
+
+    /**
+     * @return Position of the ruler under the notch in pixels.
+     */
+    @CheckResult
+    long getScrollPx() {
+        return mScrollPx;
+    }
+
+    /**
+     * @param event {@link MotionEvent} received by the view.
+     * @return Always true. The view consumes all the touch events.
+     */
+    boolean onTouchEvent(@NonNull final MotionEvent event) {
+        if (mVelocityTracker == null) mVelocityTracker = VelocityTracker.obtain();
+        mVelocityTracker.addMovement(event);
+
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                //Finger catches the running fling.
+                abortAnimation();
+                mActivePointerId = event.getPointerId(0);
+                mLastTouchX = (int) event.getX();
+                mIsTouching = true;
+                mIsDragging = false;
+                break;
+            case MotionEvent.ACTION_POINTER_DOWN: {
+                //Last finger down drags the ruler.
+                final int pointerIndex = event.getActionIndex();
+                mActivePointerId = event.getPointerId(pointerIndex);
+                mLastTouchX = (int) event.getX(pointerIndex);
+                break;
+            }
+            case MotionEvent.ACTION_MOVE: {
+                final int pointerIndex = event.findPointerIndex(mActivePointerId);
+                if (pointerIndex < 0) break;
+
+                final int x = (int) event.getX(pointerIndex);
+                int deltaX = mLastTouchX - x;
+                if (!mIsDragging) {
+                    if (Math.abs(deltaX) <= mTouchSlop) break;
+
+                    //Don't let the parent scroll while the ruler is dragged.
+                    mIsDragging = true;
+                    final ViewParent parent = mView.getParent();
+                    if (parent != null) parent.requestDisallowInterceptTouchEvent(true);
+                    deltaX = deltaX > 0 ? deltaX - mTouchSlop : deltaX + mTouchSlop;
+                }
+                mLastTouchX = x;
+                setScrollPx(mScrollPx + deltaX);
+                break;
+            }
+            case MotionEvent.ACTION_POINTER_UP: {
+                final int pointerIndex = event.getActionIndex();
+                if (event.getPointerId(pointerIndex) != mActivePointerId) break;
+
+                //Active finger went up. Other finger takes over from its own position.
+                final int newPointerIndex = pointerIndex == 0 ? 1 : 0;
+                mActivePointerId = event.getPointerId(newPointerIndex);
+                mLastTouchX = (int) event.getX(newPointerIndex);
+                mVelocityTracker.clear();
+                break;
+            }
+            case MotionEvent.ACTION_UP:
+                mVelocityTracker.computeCurrentVelocity(1000, mMaxFlingVelocity);
+                final int velocityX = (int) mVelocityTracker.getXVelocity(mActivePointerId);
+                final boolean isDragging = mIsDragging;
+                endTouch();
+
+                if (isDragging && Math.abs(velocityX) > mMinFlingVelocity) {
+                    fling(-velocityX);
+                } else {
+                    settle();
+                }
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                endTouch();
+                settle();
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Reset the touch state after the last finger went up or the gesture was cancelled.
+     */
+    private void endTouch() {
+        if (mVelocityTracker != null) {
+            mVelocityTracker.recycle();
+            mVelocityTracker = null;
+        }
+        mActivePointerId = INVALID_POINTER;
+        mIsTouching = false;
+        mIsDragging = false;
+    }
+
+    /**
+     * Start the fling. The final position of the fling is moved to the
+     * {@link Host#snapScrollPx(long)}, so the ruler decelerates straight onto a value.
+     *
+     * @param velocityX Initial velocity of the scroll in pixels per second.
+     */
+    private void fling(final int velocityX) {
+        mTracer.beginSection(RulerTracer.SECTION_SNAP_FLING);
+        try {
+            mScrollBasePx = mScrollPx;
+            mScroller.fling(0, velocityX,
+                    clampToInt(-mScrollPx),
+                    clampToInt(mHost.getMaxScrollPx() - mScrollPx));
+            final long finalPx = mHost.snapScrollPx(mScrollBasePx + mScroller.getFinalX());
+            mScroller.setFinalX(clampToInt(finalPx - mScrollBasePx));
+            startAnimation();
+
+            mIsFlinging = true;
+            mHost.onFlingStarted(mScrollBasePx + mScroller.getFinalX());
+        } finally {
+            mTracer.endSection();
+        }
+    }
+
+    /**
+     * Settle the ruler released without the fling. If the ruler is not on the snap position,
+     * animate to it. Otherwise the scroll stops here.
+     */
+    private void settle() {
+        if (!mHasScrolled) return;
+
+        final long snappedPx = mHost.snapScrollPx(mScrollPx);
+        if (snappedPx != mScrollPx) {
+            animateScrollTo(snappedPx);
+        } else {
+            notifyScrollStopped();
+        }
+    }
+
+    /**
+     * Scroll to the given position with the animation. Positions further than the
+     * {@link RulerScroller} can run are selected without the animation.
+     *
+     * @param scrollPx Position of the ruler to scroll to.
+     */
+    void animateScrollTo(final long scrollPx) {
+        abortAnimation();
+        final long finalPx = Math.max(0, Math.min(scrollPx, mHost.getMaxScrollPx()));
+        final long deltaPx = finalPx - mScrollPx;
+        if (deltaPx != clampToInt(deltaPx)) {
+            jumpTo(finalPx);
+            return;
+        }
+
+        mScrollBasePx = mScrollPx;
+        mScroller.startScroll(0, (int) deltaPx);
+        startAnimation();
+    }
+
+    /**
+     * Scroll to the given position immediately and let the host know that the scroll stopped,
+     * even if the position didn't change.
+     *
+     * @param scrollPx Position of the ruler to scroll to.
+     */
+    void jumpTo(final long scrollPx) {
+        abortAnimation();
+        setScrollPx(scrollPx);
+
+        //The value is selected explicitly, so it is reported even if the position is the same.
+        mHasScrolled = true;
+        notifyScrollStopped();
+    }
+
+    /**
+     * Stop the running fling or animated scroll at the current position. If the fling is
+     * running, the host is notified that the fling is cancelled.
+     */
+    void abortAnimation() {
+        mScroller.forceFinished();
+        mIsAnimating = false;
+
+        if (mIsFlinging) {
+            mIsFlinging = false;
+            mHost.onFlingCancelled();
+        }
+    }
+
+    /**
+     * Start running the {@link #mScroller} from the next frame.
+     *
+     * @see #computeScroll()
+     */
+    private void startAnimation() {
+        mIsAnimating = true;
+        ViewCompat.postInvalidateOnAnimation(mView);
+    }
+
+    /**
+     * Move the ruler to the position of the running fling or animation. Call this from
+     * {@link View#computeScroll()}.
+     */
+    void computeScroll() {
+        if (!mIsAnimating) return;
+
+        if (mScroller.computeScrollOffset()) setScrollPx(mScrollBasePx + mScroller.getCurrX());
+
+        if (mScroller.isFinished()) {
+            mIsAnimating = false;
+            mIsFlinging = false;
+
+            //Finger on the screen holds the ruler. Scroll stops when it goes up.
+            if (!mIsTouching) notifyScrollStopped();
+        } else {
+            ViewCompat.postInvalidateOnAnimation(mView);
+        }
+    }
+
+    /**
+     * Move the ruler to the given position. The position is clamped to the range of the ruler.
+     *
+     * @param scrollPx Position of the ruler under the notch in pixels.
+     */
+    private void setScrollPx(final long scrollPx) {
+        final long clampedPx = Math.max(0, Math.min(scrollPx, mHost.getMaxScrollPx()));
+        if (clampedPx == mScrollPx) return;
+        mScrollPx = clampedPx;
+        mHasScrolled = true;
+        if (mMetricsRecorder != null) mMetricsRecorder.onScrollEvent();
+        mHost.onScrollPxChanged(clampedPx);
+    }
+
+    /**
+     * Let the host know that the scroll stopped, if the ruler moved since the last stop.
+     */
+    private void notifyScrollStopped() {
+        mTracer.beginSection(RulerTracer.SECTION_SCROLL_STOPPED);
+        try {
+            if (!mHasScrolled) return;
+            mHasScrolled = false;
+            mHost.onScrollStopped();
+        } finally {
+            mTracer.endSection();
+        }
+    }
+
+    /**
+     * @param clock {@link RulerClock} to read the time of the animations from. Running fling or
+     *              animation is stopped.
+     */
+    void setClock(@NonNull final RulerClock clock) {
+        abortAnimation();
+        mScroller.setClock(clock);
+    }
+
+    /**
+     * @param tracer {@link RulerTracer} to mark the fling snapping and the scroll stop with.
+     */
+    void setTracer(@NonNull final RulerTracer tracer) {
+        mTracer = tracer;
+    }
+
+    /**
+     * @param metricsRecorder {@link RulerMetricsRecorder} to record the scroll events to or null.
+     */
+    void setMetricsRecorder(@Nullable final RulerMetricsRecorder metricsRecorder) {
+        mMetricsRecorder = metricsRecorder;
+    }
+
+    /**
+     * @param value Value to clamp.
+     * @return Value clamped to the range of the int.
+     */
+    private static int clampToInt(final long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(value, Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+import android.support.annotation.NonNull;
+
+/**
+ * Marks the named sections of the picker work: measure, layout, draw, value selection, fling
+ * snapping and scroll stop. By default, the sections are written to the systrace with
+ * {@link android.support.v4.os.TraceCompat}, so the time spent in the picker is visible by name.
+ * Set a custom tracer to record the sections somewhere else, e.g. in memory to check the
+ * sections in the tests.
+ * <p>
+ * Sections are properly nested and always begin and end on the main thread.
+ *
+ * @see RulerValuePicker#setTracer(RulerTracer)
+ */
+public interface RulerTracer {
+
+    String SECTION_MEASURE = "RulerView#onMeasure";
+
+    String SECTION_DRAW = "RulerView#onDraw";
+
+    String SECTION_FLAT_DRAW = "FlatRulerValuePicker#onDraw";
+
+    String SECTION_TIMELINE_DRAW = "RulerTimelinePicker#onDraw";
+
+    String SECTION_LAYOUT = "RulerValuePicker#onLayout";
+
+    String SECTION_SELECT_VALUE = "RulerValuePicker#selectValue";
+
+    String SECTION_SNAP_FLING = "RulerValuePicker#snapFling";
+
+    String SECTION_SCROLL_STOPPED = "RulerValuePicker#onScrollStopped";
+
+    /**
+     * Begin the section. Must be followed by the matching {@link #endSection()}.
+     *
+     * @param sectionName Name of the section. One of the SECTION_* constants.
+     */
+    void beginSection(@NonNull String sectionName);
+
+    /**
+     * End the last section started by {@link #beginSection(String)}.
+     */
+    void endSection();
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v4.view.ViewCompat;
+import android.view.View;
+
+/**
+ * Sends the selected value of the picker to its listener. While scrolling, the intermediate
+ * value is sent at most once per frame and only if it changed since it was reported last time.
+ * When the scroll stops, the final value replaces the pending intermediate value.
+ */
+final class RulerValueDispatcher {
+
+    /**
+     * Picker that owns the listener.
+     */
+    interface Target {
+
+        /**
+         * @return Value selected at the current scroll position.
+         */
+        long getSelectedValue();
+
+        /**
+         * @return True if the picker has the listener to send the values to.
+         */
+        boolean hasListener();
+
+        /**
+         * @param value Value selected while scrolling.
+         */
+        void onIntermediateValueChange(long value);
+
+        /**
+         * @param value Value selected when the scroll stopped.
+         */
+        void onValueChange(long value);
+    }
+
+    @NonNull
+    private final View mView;
+
+    @NonNull
+    private final Target mTarget;
+
+    @Nullable
+    private RulerMetricsRecorder mMetricsRecorder;
+
+    /**
+     * Last value sent to {@link Target#onIntermediateValueChange(long)} or
+     * {@link Target#onValueChange(long)}.
+     */
+    private long mLastReportedValue;
+
+    /**
+     * True if the {@link #mIntermediateValueDispatcher} is posted for the next frame.
+     */
+    private boolean mIsIntermediateValuePosted = false;
+
+    /**
+     * Sends the current value to the {@link Target#onIntermediateValueChange(long)}, if the value
+     * changed since it was reported last time.
+     *
+     * @see #onScrollChanged()
+     */
+    private final Runnable mIntermediateValueDispatcher = new Runnable() {
+        @Override
+        public void run() {
+            mIsIntermediateValuePosted = false;
+
+            final long value = mTarget.getSelectedValue();
+            if (value == mLastReportedValue) return;
+            mLastReportedValue = value;
+            if (!mTarget.hasListener()) return;
+
+            final long dispatchStartNanos = mMetricsRecorder != null ? System.nanoTime() : 0;
+            mTarget.onIntermediateValueChange(value);
+            if (mMetricsRecorder != null) {
+                mMetricsRecorder.onListenerDispatched(System.nanoTime() - dispatchStartNanos);
+            }
+        }
+    };
+
+    /**
+     * Constructor.
+     *
+     * @param view   {@link View} to post the intermediate values on.
+     * @param target {@link Target} to read and send the values.
+     */
+    RulerValueDispatcher(@NonNull final View view, @NonNull final Target target) {
+        mView = view;
+        mTarget = target;
+    }
+
+    /**
+     * @param metricsRecorder {@link RulerMetricsRecorder} to record the time spent in the
+     *                        listener to or null.
+     */
+    void setMetricsRecorder(@Nullable final RulerMetricsRecorder metricsRecorder) {
+        mMetricsRecorder = metricsRecorder;
+    }
+
+    /**
+     * Take the currently selected value as reported, without sending it.
+     */
+    void resetReportedValue() {
+        mLastReportedValue = mTarget.getSelectedValue();
+    }
+
+    /**
+     * Post the intermediate value for the next frame, if it changed since it was reported.
+     */
+    void onScrollChanged() {
+        //Report only the crossed indicators, at most once per frame.
+        if (!mTarget.hasListener() || mIsIntermediateValuePosted) return;
+        if (mTarget.getSelectedValue() == mLastReportedValue) return;
+        mIsIntermediateValuePosted = true;
+        ViewCompat.postOnAnimation(mView, mIntermediateValueDispatcher);
+    }
+
+    /**
+     * Send the selected value to the {@link Target#onValueChange(long)}. Pending intermediate
+     * value is dropped.
+     */
+    void dispatchValue() {
+        cancel();
+
+        mLastReportedValue = mTarget.getSelectedValue();
+        if (!mTarget.hasListener()) return;
+
+        final long dispatchStartNanos = mMetricsRecorder != null ? System.nanoTime() : 0;
+        mTarget.onValueChange(mLastReportedValue);
+        if (mMetricsRecorder != null) {
+            mMetricsRecorder.onListenerDispatched(System.nanoTime() - dispatchStartNanos);
+        }
+    }
+
+    /**
+     * Drop the pending intermediate value, e.g. when the view is detached.
+     */
+    void cancel() {
+        mView.removeCallbacks(mIntermediateValueDispatcher);
+        mIsIntermediateValuePosted = false;
+    }
+
+    /**
+     * Send the pending intermediate value now, instead of the next frame.
+     */
+    void runPending() {
+        if (!mIsIntermediateValuePosted) return;
+        mView.removeCallbacks(mIntermediateValueDispatcher);
+        mIntermediateValueDispatcher.run();
+    }
+}
@@ -18,8 +18,6 @@ import android.content.Context;
 import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Path;
 import android.os.Build;
 import android.os.Parcel;
 import android.os.Parcelable;
@@ -30,12 +28,18 @@ import android.support.annotation.DimenRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.v4.content.ContextCompat;
+import android.support.v4.view.ViewCompat;
 import android.util.AttributeSet;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.FrameLayout;
 import android.widget.LinearLayout;
 
+import com.kevalpatel2106.rulerpicker.geometry.RulerScaleMapping;
+import com.kevalpatel2106.rulerpicker.geometry.RulerTickLevels;
+import com.kevalpatel2106.rulerpicker.geometry.RulerValueScale;
+import com.kevalpatel2106.rulerpicker.geometry.RulerValueSet;
+
 
 /**
  * Created by Kevalpatel2106 on 29-Mar-2018.
@@ -75,6 +79,31 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
     @NonNull
     private RulerView mRulerView;
 
+    /**
+     * Style and range of the {@link #mRulerView}.
+     */
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private RulerModel mModel;
+
+    /**
+     * Empty view with the width of the whole ruler. In the virtualized mode this view takes place
+     * of the {@link #mRulerView} inside the {@link #mHorizontalScrollView}, to provide the scroll
+     * range. It doesn't draw anything.
+     *
+     * @see #setVirtualized(boolean)
+     */
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private View mScrollExtent;
+
+    /**
+     * {@link LinearLayout} inside the {@link #mHorizontalScrollView} to hold the spacers and the ruler.
+     */
+    @SuppressWarnings("NullableProblems")
+    @NonNull
+    private LinearLayout mRulerContainer;
+
     /**
      * {@link ObservableHorizontalScrollView}, that will host all three components.
      *
@@ -89,15 +118,96 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
     @Nullable
     private RulerValuePickerListener mListener;
 
-    @SuppressWarnings("NullableProblems")
+    @Nullable
+    private RulerFlingListener mFlingListener;
+
+    /**
+     * Records the rendering metrics, or null if the metrics are disabled.
+     *
+     * @see #setMetricsListener(RulerMetricsListener, long)
+     */
+    @Nullable
+    private RulerMetricsRecorder mMetricsRecorder;
+
+    /**
+     * Time source of the scroll animations and the metrics windows.
+     *
+     * @see #setClock(RulerClock)
+     */
     @NonNull
-    private Paint mNotchPaint;
+    private RulerClock mClock = AnimationRulerClock.INSTANCE;
 
-    @SuppressWarnings("NullableProblems")
+    /**
+     * {@link RulerTracer} to mark the sections of the work with.
+     *
+     * @see #setTracer(RulerTracer)
+     */
+    @NonNull
+    private RulerTracer mTracer = SystraceRulerTracer.INSTANCE;
+
+    /**
+     * Sends the selected value to the {@link #mListener}.
+     *
+     * @see #onScrollChanged()
+     * @see #onScrollStopped()
+     */
     @NonNull
-    private Path mNotchPath;
+    private final RulerValueDispatcher mValueDispatcher = new RulerValueDispatcher(this,
+            new RulerValueDispatcher.Target() {
+                @Override
+                public long getSelectedValue() {
+                    return getCurrentValue();
+                }
 
-    private int mNotchColor = Color.WHITE;
+                @Override
+                public boolean hasListener() {
+                    return mListener != null;
+                }
+
+                @Override
+                public void onIntermediateValueChange(final long value) {
+                    if (mListener != null) mListener.onIntermediateValueChange((int) value);
+                }
+
+                @Override
+                public void onValueChange(final long value) {
+                    if (mListener != null) mListener.onValueChange((int) value);
+                }
+            });
+
+    /**
+     * True if the {@link #mPendingValue} is waiting for the next layout to be selected.
+     *
+     * @see #selectValue(int, boolean)
+     */
+    private boolean mHasPendingValue = false;
+
+    /**
+     * Value to select in the next layout.
+     *
+     * @see #mHasPendingValue
+     */
+    private int mPendingValue;
+
+    /**
+     * True if the {@link #mPendingValue} should be selected with the animation.
+     *
+     * @see #mHasPendingValue
+     */
+    private boolean mIsPendingValueAnimated;
+
+    /**
+     * Value predicted at the start of the running fling.
+     *
+     * @see #onFlingStarted(int)
+     */
+    private int mPredictedValue;
+
+    /**
+     * Triangle notch at the top-center of this view.
+     */
+    @NonNull
+    private final RulerNotch mNotch = new RulerNotch();
 
     /**
      * Public constructor.
@@ -148,6 +258,7 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
         //Add all the children
         addChildViews();
 
+        beginUpdate();
         if (attributeSet != null) {
             TypedArray a = getContext().getTheme().obtainStyledAttributes(attributeSet,
                     R.styleable.RulerValuePicker,
@@ -155,40 +266,17 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
                     0);
 
             try { //Parse params
-                if (a.hasValue(R.styleable.RulerValuePicker_notch_color)) {
-                    mNotchColor = a.getColor(R.styleable.RulerValuePicker_notch_color, Color.WHITE);
-                }
-
-                if (a.hasValue(R.styleable.RulerValuePicker_ruler_text_color)) {
-                    setTextColor(a.getColor(R.styleable.RulerValuePicker_ruler_text_color, Color.WHITE));
+                if (a.hasValue(R.styleable.RulerValuePicker_ruler_virtualized)) {
+                    setVirtualized(a.getBoolean(R.styleable.RulerValuePicker_ruler_virtualized, false));
                 }
 
-                if (a.hasValue(R.styleable.RulerValuePicker_ruler_text_size)) {
-                    setTextSize((int) a.getDimension(R.styleable.RulerValuePicker_ruler_text_size, 14));
-                }
-
-                if (a.hasValue(R.styleable.RulerValuePicker_indicator_color)) {
-                    setIndicatorColor(a.getColor(R.styleable.RulerValuePicker_indicator_color, Color.WHITE));
-                }
-
-                if (a.hasValue(R.styleable.RulerValuePicker_indicator_width)) {
-                    setIndicatorWidth(a.getDimensionPixelSize(R.styleable.RulerValuePicker_indicator_width,
-                            4));
-                }
-
-                if (a.hasValue(R.styleable.RulerValuePicker_indicator_interval)) {
-                    setIndicatorIntervalDistance(a.getDimensionPixelSize(R.styleable.RulerValuePicker_indicator_interval,
-                            4));
+                if (a.hasValue(R.styleable.RulerValuePicker_notch_color)) {
+                    mNotch.setColor(a.getColor(R.styleable.RulerValuePicker_notch_color, Color.WHITE));
                 }
 
-                if (a.hasValue(R.styleable.RulerValuePicker_long_height_height_ratio)
-                        || a.hasValue(R.styleable.RulerValuePicker_short_height_height_ratio)) {
-
-                    setIndicatorHeight(a.getFraction(R.styleable.RulerValuePicker_long_height_height_ratio,
-                            1, 1, 0.6f),
-                            a.getFraction(R.styleable.RulerValuePicker_short_height_height_ratio,
-                                    1, 1, 0.4f));
-                }
+                mModel.parseAttributes(a);
+                updateScrollExtent();
+                updateSnapPositions();
 
                 if (a.hasValue(R.styleable.RulerValuePicker_min_value) ||
                         a.hasValue(R.styleable.RulerValuePicker_max_value)) {
@@ -199,21 +287,9 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
                 a.recycle();
             }
         }
+        commit();
 
-        //Prepare the notch color.
-        mNotchPaint = new Paint();
-        prepareNotchPaint();
-
-        mNotchPath = new Path();
-    }
-
-    /**
-     * Create the paint for notch. This will
-     */
-    private void prepareNotchPaint() {
-        mNotchPaint.setColor(mNotchColor);
-        mNotchPaint.setStrokeWidth(5f);
-        mNotchPaint.setStyle(Paint.Style.FILL_AND_STROKE);
+        mValueDispatcher.resetReportedValue();
     }
 
     /**
@@ -226,143 +302,248 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      * <li>{@link LinearLayout} container will contain three children.
      * <ul><b>Left spacer:</b> Width of this view will be the half width of the view. This will add staring at the start of the ruler.</ul>
      * <ul><b>Right spacer:</b> Width of this view will be the half width of the view. This will add ending at the end of the ruler.</ul>
-     * <ul><b>{@link RulerView}:</b> Ruler view will contain the ruler with indicator.</ul>
+     * <ul><b>{@link RulerView}:</b> Ruler view will contain the ruler with indicator. In the
+     * virtualized mode, this is replaced by the {@link #mScrollExtent} and the ruler is drawn on
+     * top of the scroll view.</ul>
      * </li>
      */
     private void addChildViews() {
         mHorizontalScrollView = new ObservableHorizontalScrollView(getContext(), this);
         mHorizontalScrollView.setHorizontalScrollBarEnabled(false); //Don't display the scrollbar
 
-        final LinearLayout rulerContainer = new LinearLayout(getContext());
+        mRulerContainer = new LinearLayout(getContext());
 
         //Add left spacing to the container
         mLeftSpacer = new View(getContext());
-        rulerContainer.addView(mLeftSpacer);
+        mRulerContainer.addView(mLeftSpacer);
 
         //Add ruler to the container
         mRulerView = new RulerView(getContext());
-        rulerContainer.addView(mRulerView);
+        mModel = mRulerView.getModel();
+        mRulerContainer.addView(mRulerView);
+        updateSnapPositions();
 
         //Add right spacing to the container
         mRightSpacer = new View(getContext());
-        rulerContainer.addView(mRightSpacer);
+        mRulerContainer.addView(mRightSpacer);
+
+        //Scroll range for the virtualized mode
+        mScrollExtent = new View(getContext());
 
         //Add this container to the scroll view.
         mHorizontalScrollView.removeAllViews();
-        mHorizontalScrollView.addView(rulerContainer);
+        mHorizontalScrollView.addView(mRulerContainer);
 
         //Add scroll view to this view.
         removeAllViews();
         addView(mHorizontalScrollView);
     }
 
+    /**
+     * Let the {@link #mHorizontalScrollView} settle on the positions of the indicators.
+     */
+    private void updateSnapPositions() {
+        mHorizontalScrollView.setSnapInterval(mModel.getIndicatorIntervalWidth());
+        mHorizontalScrollView.setSnapTable(mModel.getTickTable());
+    }
+
+    /**
+     * Update the width of the {@link #mScrollExtent} to match the width of the ruler.
+     */
+    private void updateScrollExtent() {
+        if (!mRulerView.isVirtualized()) return;
+
+        final ViewGroup.LayoutParams params = mScrollExtent.getLayoutParams();
+        params.width = mRulerView.getRulerWidth();
+        mScrollExtent.setLayoutParams(params);
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
         //Draw the top notch
-        canvas.drawPath(mNotchPath, mNotchPaint);
+        mNotch.draw(canvas);
     }
 
     @Override
-    protected void onLayout(boolean isChanged, int left, int top, int right, int bottom) {
-        super.onLayout(isChanged, left, top, right, bottom);
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mValueDispatcher.cancel();
+    }
 
-        if (isChanged) {
-            final int width = getWidth();
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        //Size the spacers before the children are measured, so the scroll range is right in
+        //the first layout pass.
+        if (MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.UNSPECIFIED) {
+            final int width = MeasureSpec.getSize(widthMeasureSpec);
+
+            //Set width of the left and the right spacer to the half of this view.
+            mLeftSpacer.getLayoutParams().width = width / 2;
+            mRightSpacer.getLayoutParams().width = width / 2;
+        }
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
 
-            //Set width of the left spacer to the half of this view.
-            final ViewGroup.LayoutParams leftParams = mLeftSpacer.getLayoutParams();
-            leftParams.width = width / 2;
-            mLeftSpacer.setLayoutParams(leftParams);
+    @Override
+    protected void onLayout(boolean isChanged, int left, int top, int right, int bottom) {
+        mTracer.beginSection(RulerTracer.SECTION_LAYOUT);
+        try {
+            super.onLayout(isChanged, left, top, right, bottom);
 
-            //Set width of the right spacer to the half of this view.
-            final ViewGroup.LayoutParams rightParams = mRightSpacer.getLayoutParams();
-            rightParams.width = width / 2;
-            mRightSpacer.setLayoutParams(rightParams);
+            if (isChanged) {
+                mNotch.setWidth(getWidth());
 
-            calculateNotchPath();
+                invalidate();
+            }
 
-            invalidate();
+            //Scroll range is known now.
+            if (mHasPendingValue) {
+                mHasPendingValue = false;
+                scrollToValue(mPendingValue, mIsPendingValueAnimated);
+            }
+            updateVisibleWindow();
+        } finally {
+            mTracer.endSection();
         }
     }
 
     /**
-     * Calculate notch path. Notch will be in the triangle shape at the top-center of this view.
+     * Let the {@link RulerView} know which part of the ruler is visible in the
+     * {@link #mHorizontalScrollView}, so it can skip drawing the indicators outside the screen.
      *
-     * @see #mNotchPath
+     * @see RulerView#setVisibleWindow(int, int)
      */
-    private void calculateNotchPath() {
-        mNotchPath.reset();
-
-        mNotchPath.moveTo(getWidth() / 2 - 30, 0);
-        mNotchPath.lineTo(getWidth() / 2, 40);
-        mNotchPath.lineTo(getWidth() / 2 + 30, 0);
+    private void updateVisibleWindow() {
+        final int startPx = mHorizontalScrollView.getScrollX() - mLeftSpacer.getWidth();
+        mRulerView.setVisibleWindow(startPx, startPx + mHorizontalScrollView.getWidth());
     }
 
     /**
-     * Scroll the ruler to the given value.
+     * Scroll the ruler to the given value with the animation. If the picker is not laid out yet,
+     * the value is selected without the animation in the first layout.
      *
      * @param value Value to select. Value must be between {@link #getMinValue()} and {@link #getMaxValue()}.
      *              If the value is less than {@link #getMinValue()}, {@link #getMinValue()} will be
      *              selected.If the value is greater than {@link #getMaxValue()}, {@link #getMaxValue()}
      *              will be selected.
+     * @see #selectValue(int, boolean)
      */
     public void selectValue(final int value) {
-        mHorizontalScrollView.postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                int valuesToScroll;
-                if (value < mRulerView.getMinValue()) {
-                    valuesToScroll = 0;
-                } else if (value > mRulerView.getMaxValue()) {
-                    valuesToScroll = mRulerView.getMaxValue() - mRulerView.getMinValue();
-                } else {
-                    valuesToScroll = value - mRulerView.getMinValue();
-                }
+        selectValue(value, true);
+    }
 
-                mHorizontalScrollView.smoothScrollTo(
-                        valuesToScroll * mRulerView.getIndicatorIntervalWidth(), 0);
+    /**
+     * Scroll the ruler to the given value. If the layout of the picker is pending, the value is
+     * selected in that layout, before the next frame is drawn. If the picker is not laid out
+     * yet, the value is always selected without the animation.
+     *
+     * @param value   Value to select. Value must be between {@link #getMinValue()} and
+     *                {@link #getMaxValue()}. Values outside the range are clamped to the range.
+     * @param animate True to scroll to the value with the animation, false to jump to the value.
+     *                After the jump, {@link RulerValuePickerListener#onValueChange(int)} is
+     *                always called, even if the selected value didn't change.
+     */
+    public void selectValue(final int value, final boolean animate) {
+        mTracer.beginSection(RulerTracer.SECTION_SELECT_VALUE);
+        try {
+            if (ViewCompat.isLaidOut(this) && !isLayoutRequested()) {
+                mHasPendingValue = false;
+                scrollToValue(value, animate);
+                return;
             }
-        }, 400);
+
+            mHasPendingValue = true;
+            mPendingValue = value;
+            mIsPendingValueAnimated = animate && ViewCompat.isLaidOut(this);
+        } finally {
+            mTracer.endSection();
+        }
+    }
+
+    /**
+     * Scroll the {@link #mHorizontalScrollView} to the given value. The scroll range must be
+     * laid out.
+     *
+     * @param value   Value to select. Values outside the range are clamped to the range.
+     * @param animate True to scroll with the animation, false to jump to the value.
+     */
+    private void scrollToValue(final int value, final boolean animate) {
+        final int scrollX = mModel.getScrollPxForValue(value);
+        if (animate) {
+            mHorizontalScrollView.animateScrollTo(scrollX);
+        } else {
+            mHorizontalScrollView.jumpTo(scrollX);
+        }
     }
 
     /**
      * @return Get the current selected value.
      */
     public int getCurrentValue() {
-        int absoluteValue = mHorizontalScrollView.getScrollX() / mRulerView.getIndicatorIntervalWidth();
-        int value = mRulerView.getMinValue() + absoluteValue;
+        return getValueAt(mHorizontalScrollView.getScrollX());
+    }
 
-        if (value > mRulerView.getMaxValue()) {
-            return mRulerView.getMaxValue();
-        } else if (value < mRulerView.getMinValue()) {
-            return mRulerView.getMinValue();
-        } else {
-            return value;
-        }
+    /**
+     * @return Current selected value as the fixed point number of the {@link #getValueScale()}.
+     * e.g. 125 for 12.5 with the precision 1. If the value set is set, this is the selected entry.
+     * @see #setValueSet(long[])
+     */
+    @CheckResult
+    public long getCurrentFixedPointValue() {
+        return mModel.toFixedPoint(getCurrentValue());
+    }
+
+    /**
+     * Scroll the ruler to the value nearest to the given fixed point number. If the value set is
+     * set, the nearest entry is found by the binary search.
+     *
+     * @param fixedPoint Value to select, in the units of the last decimal place of the
+     *                   {@link #getValueScale()}. e.g. 125 for 12.5 with the precision 1.
+     * @param animate    True to scroll to the value with the animation, false to jump to the value.
+     * @see #selectValue(int, boolean)
+     */
+    public void selectFixedPointValue(final long fixedPoint, final boolean animate) {
+        selectValue(mModel.toValue(fixedPoint), animate);
+    }
+
+    /**
+     * @param scrollX Horizontal scroll position of the {@link #mHorizontalScrollView}.
+     * @return Value selected at the given scroll position.
+     */
+    private int getValueAt(final int scrollX) {
+        return mModel.getValueAt(scrollX);
     }
 
     @Override
     public void onScrollChanged() {
-        if (mListener != null) mListener.onIntermediateValueChange(getCurrentValue());
+        if (mMetricsRecorder != null) mMetricsRecorder.onScrollEvent();
+        updateVisibleWindow();
+
+        mValueDispatcher.onScrollChanged();
     }
 
     @Override
     public void onScrollStopped() {
-        makeOffsetCorrection(mRulerView.getIndicatorIntervalWidth());
-        if (mListener != null) {
-            mListener.onValueChange(getCurrentValue());
+        mTracer.beginSection(RulerTracer.SECTION_SCROLL_STOPPED);
+        try {
+            //Scroll view settles on the indicator, so the value is final here.
+            mValueDispatcher.dispatchValue();
+        } finally {
+            mTracer.endSection();
         }
     }
 
-    private void makeOffsetCorrection(final int indicatorInterval) {
-        int offsetValue = mHorizontalScrollView.getScrollX() % indicatorInterval;
-        if (offsetValue < indicatorInterval / 2) {
-            mHorizontalScrollView.scrollBy(-offsetValue, 0);
-        } else {
-            mHorizontalScrollView.scrollBy(indicatorInterval - offsetValue, 0);
-        }
+    @Override
+    public void onFlingStarted(final int finalX) {
+        mPredictedValue = getValueAt(finalX);
+        if (mFlingListener != null) mFlingListener.onFlingStarted(mPredictedValue);
+    }
+
+    @Override
+    public void onFlingCancelled() {
+        if (mFlingListener != null) mFlingListener.onFlingCancelled(mPredictedValue);
     }
 
     @Override
@@ -377,13 +558,35 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
     public void onRestoreInstanceState(Parcelable state) {
         SavedState ss = (SavedState) state;
         super.onRestoreInstanceState(ss.getSuperState());
-        selectValue(ss.value);
+        selectValue(ss.value, false);
     }
 
     //**********************************************************************************//
     //******************************** GETTERS/SETTERS *********************************//
     //**********************************************************************************//
 
+    /**
+     * Start the batch of the style changes. Changes made by the setters of the ruler (colors, text
+     * size, indicator width, range, interval...) are not applied until the matching
+     * {@link #commit()}. Use this to change several properties with a single paint update, layout
+     * pass and redraw. Calls can be nested.
+     *
+     * @see #commit()
+     */
+    public void beginUpdate() {
+        mModel.beginUpdate();
+    }
+
+    /**
+     * End the batch of the style changes started by {@link #beginUpdate()}. All the changes made
+     * since the outermost {@link #beginUpdate()} are applied at once.
+     *
+     * @see #beginUpdate()
+     */
+    public void commit() {
+        mModel.commit();
+    }
+
     /**
      * @param notchColorRes Color resource of the notch to display. Default color os {@link Color#WHITE}.
      * @see #setNotchColor(int)
@@ -400,17 +603,15 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      */
     @ColorInt
     public int getNotchColor() {
-        return mNotchColor;
+        return mNotch.getColor();
     }
 
     /**
      * @param notchColor Integer color of the notch to display. Default color os {@link Color#WHITE}.
-     * @see #prepareNotchPaint()
      * @see #getNotchColor()
      */
     public void setNotchColor(@ColorInt final int notchColor) {
-        mNotchColor = notchColor;
-        prepareNotchPaint();
+        mNotch.setColor(notchColor);
         invalidate();
     }
 
@@ -422,7 +623,7 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
     @CheckResult
     @ColorInt
     public int getTextColor() {
-        return mRulerView.getTextColor();
+        return mModel.getTextColor();
     }
 
     /**
@@ -433,7 +634,7 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      * @see RulerView#mTextColor
      */
     public void setTextColor(@ColorInt final int color) {
-        mRulerView.setTextColor(color);
+        mModel.setTextColor(color);
     }
 
     /**
@@ -454,7 +655,7 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      */
     @CheckResult
     public float getTextSize() {
-        return mRulerView.getTextSize();
+        return mModel.getTextSize();
     }
 
     /**
@@ -465,7 +666,7 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      * @see RulerView#mTextSize
      */
     public void setTextSize(final int dimensionDp) {
-        mRulerView.setTextSize(dimensionDp);
+        mModel.setTextSize(dimensionDp);
     }
 
     /**
@@ -488,7 +689,7 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
     @CheckResult
     @ColorInt
     public int getIndicatorColor() {
-        return mRulerView.getIndicatorColor();
+        return mModel.getIndicatorColor();
     }
 
     /**
@@ -499,7 +700,7 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      * @see RulerView#mIndicatorColor
      */
     public void setIndicatorColor(@ColorInt final int color) {
-        mRulerView.setIndicatorColor(color);
+        mModel.setIndicatorColor(color);
     }
 
     /**
@@ -521,7 +722,7 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      */
     @CheckResult
     public float getIndicatorWidth() {
-        return mRulerView.getIndicatorWidth();
+        return mModel.getIndicatorWidth();
     }
 
     /**
@@ -532,7 +733,7 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      * @see RulerView#mIndicatorWidthPx
      */
     public void setIndicatorWidth(final int widthPx) {
-        mRulerView.setIndicatorWidth(widthPx);
+        mModel.setIndicatorWidth(widthPx);
     }
 
     /**
@@ -553,7 +754,7 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      */
     @CheckResult
     public int getMinValue() {
-        return mRulerView.getMinValue();
+        return mModel.getMinValue();
     }
 
     /**
@@ -563,7 +764,7 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      */
     @CheckResult
     public int getMaxValue() {
-        return mRulerView.getMaxValue();
+        return mModel.getMaxValue();
     }
 
     /**
@@ -578,9 +779,11 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      * @see #getMaxValue()
      */
     public void setMinMaxValue(final int minValue, final int maxValue) {
-        mRulerView.setValueRange(minValue, maxValue);
+        mModel.setValueRange(minValue, maxValue);
+        updateScrollExtent();
+        updateSnapPositions();
         invalidate();
-        selectValue(minValue);
+        selectValue(minValue, false);
     }
 
     /**
@@ -590,17 +793,214 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      */
     @CheckResult
     public int getIndicatorIntervalWidth() {
-        return mRulerView.getIndicatorIntervalWidth();
+        return mModel.getIndicatorIntervalWidth();
     }
 
     /**
      * Set the spacing between two vertical lines/indicators. Default value is 14 pixels.
      *
      * @param indicatorIntervalPx Distance in pixels. This cannot be negative number or zero.
-     * @see RulerView#mIndicatorInterval
+     * @throws IllegalArgumentException if interval is negative or zero, or the scale mapping would
+     *                                  put two consecutive values on the same pixel.
      */
     public void setIndicatorIntervalDistance(final int indicatorIntervalPx) {
-        mRulerView.setIndicatorIntervalDistance(indicatorIntervalPx);
+        mModel.setIndicatorIntervalDistance(indicatorIntervalPx);
+        updateScrollExtent();
+        updateSnapPositions();
+    }
+
+    /**
+     * @return Custom {@link RulerLabelFormatter} or null if the values are displayed as plain integers.
+     * @see #setLabelFormatter(RulerLabelFormatter)
+     */
+    @Nullable
+    @CheckResult
+    public RulerLabelFormatter getLabelFormatter() {
+        return mModel.getLabelFormatter();
+    }
+
+    /**
+     * Set the formatter for the values displayed below the long indicators. e.g. "156 cm".
+     * Formatted labels are cached by the value, so the formatter is called only when the value
+     * is displayed for the first time. By default, values are displayed as plain integers.
+     * <p>
+     * The formatter must be thread safe. When the tile rendering is enabled with
+     * {@link #setTileCacheSize(int)}, it is also called on the background thread that renders
+     * the tiles. See {@link RulerLabelFormatter} for the full contract.
+     *
+     * @param labelFormatter {@link RulerLabelFormatter} to format the values or null to display
+     *                       the values as plain integers.
+     * @see RulerLabelFormatter
+     */
+    public void setLabelFormatter(@Nullable final RulerLabelFormatter labelFormatter) {
+        mModel.setLabelFormatter(labelFormatter);
+    }
+
+    /**
+     * @return Non-linear scale of the ruler or null if the indicators are evenly spaced.
+     * @see #setScaleMapping(RulerScaleMapping)
+     */
+    @Nullable
+    @CheckResult
+    public RulerScaleMapping getScaleMapping() {
+        return mModel.getScaleMapping();
+    }
+
+    /**
+     * Place the indicators along a non-linear scale, e.g.
+     * {@link com.kevalpatel2106.rulerpicker.geometry.RulerScaleMappings#logarithmic()} to give more
+     * space to the low values. The ruler keeps its width, and the positions of all the indicators
+     * are computed once for the current range and interval, so drawing and scrolling never
+     * evaluate the mapping. The table takes 4 bytes per value. By default, the indicators are
+     * evenly spaced.
+     * <p>
+     * Where the indicators get denser than the indicator width, some of them are not drawn, and
+     * the labels are not drawn where they would overlap. Every value still needs its own pixel to
+     * be selectable, so the mapping must not put two consecutive values on the same pixel at the
+     * current range and interval.
+     *
+     * @param scaleMapping {@link RulerScaleMapping} to place the indicators with or null to space
+     *                     them evenly.
+     * @throws IllegalArgumentException if the mapping is not finite or decreases over the range of
+     *                                  the ruler, or two consecutive values map to the same pixel.
+     */
+    public void setScaleMapping(@Nullable final RulerScaleMapping scaleMapping) {
+        //Keep the selected value. Its position changes with the scale.
+        final int value = getCurrentValue();
+        mModel.setScaleMapping(scaleMapping);
+        updateSnapPositions();
+        selectValue(value, false);
+    }
+
+    /**
+     * @return {@link RulerValueScale} the values are displayed with.
+     * @see #setValueScale(RulerValueScale)
+     */
+    @NonNull
+    @CheckResult
+    public RulerValueScale getValueScale() {
+        return mModel.getValueScale();
+    }
+
+    /**
+     * Set the fixed point scale of the values, e.g. the precision 1 with the step 5 for 0.5 cm
+     * steps. Integer values of the picker, including the range and the values passed to the
+     * {@link RulerValuePickerListener}, then count the steps: value 25 is displayed as "12.5".
+     * Use {@link RulerValueScale#toFixedPoint(long)} to convert them, or
+     * {@link #getCurrentFixedPointValue()}. By default, values are plain integers.
+     *
+     * @param valueScale {@link RulerValueScale} to display the values with.
+     * @see #selectFixedPointValue(long, boolean)
+     */
+    public void setValueScale(@NonNull final RulerValueScale valueScale) {
+        mModel.setValueScale(valueScale);
+    }
+
+    /**
+     * @return Copy of the entries of the value set or null if the picker selects from the range.
+     * @see #setValueSet(long[])
+     */
+    @Nullable
+    @CheckResult
+    public long[] getValueSet() {
+        final RulerValueSet valueSet = mModel.getValueSet();
+        return valueSet == null ? null : valueSet.toArray();
+    }
+
+    /**
+     * Select from the irregular set of values instead of the range, e.g. the shoe sizes or the
+     * standard resistor values. Each entry gets its own indicator, and the range of the ruler is
+     * set to the indices of the entries. Integer values of the picker, including the values passed
+     * to the {@link RulerValuePickerListener}, are then the indices. Use
+     * {@link #getCurrentFixedPointValue()} and {@link #selectFixedPointValue(long, boolean)} to
+     * work with the entries.
+     * <p>
+     * Entries are the fixed point numbers of the {@link #getValueScale()}, e.g. 47 for 4.7 with
+     * the precision 1. They are kept in a primitive array and looked up by the binary search, so
+     * the sets of a hundred thousand entries are fine. Use {@link #setVirtualized(boolean)} for
+     * such sets.
+     *
+     * @param values Entries in the strictly increasing order or null to select from the range
+     *               again. The array is copied. The range is not restored, so call
+     *               {@link #setMinMaxValue(int, int)} after clearing the set.
+     * @throws IllegalArgumentException if the array is empty or not strictly increasing.
+     */
+    public void setValueSet(@Nullable final long[] values) {
+        if (values == null) {
+            mModel.setValueSet(null);
+            return;
+        }
+
+        final RulerValueSet valueSet = new RulerValueSet(values);
+        mModel.setValueSet(valueSet);
+        setMinMaxValue(0, valueSet.size());
+    }
+
+    /**
+     * @return Maximum number of bytes the cached ruler tiles can take or 0 if the tile rendering
+     * is disabled.
+     * @see #setTileCacheSize(int)
+     */
+    @CheckResult
+    public int getTileCacheSize() {
+        return mRulerView.getTileCacheSize();
+    }
+
+    /**
+     * Enable the tile rendering mode. In this mode, fixed width segments of the ruler (indicators
+     * and values) are rendered once into the bitmaps, kept in an LRU cache and drawn while
+     * scrolling. Tiles are rendered again only when the look of the ruler changes. This makes
+     * scrolling cheaper on the low-end devices, at the cost of the memory. Tile rendering is
+     * disabled by default.
+     * <p>
+     * Tiles are rendered on a background thread, which then also calls the
+     * {@link RulerLabelFormatter} set with {@link #setLabelFormatter(RulerLabelFormatter)}. Make
+     * sure the formatter is thread safe before enabling the tile rendering.
+     *
+     * @param maxSizeBytes Maximum number of bytes the cached tiles can take. Pass 0 to disable the
+     *                     tile rendering.
+     * @see RulerView#setTileCacheSize(int)
+     */
+    public void setTileCacheSize(final int maxSizeBytes) {
+        mRulerView.setTileCacheSize(maxSizeBytes);
+    }
+
+    /**
+     * @return True if the ruler is drawn in the virtualized mode.
+     * @see #setVirtualized(boolean)
+     */
+    @CheckResult
+    public boolean isVirtualized() {
+        return mRulerView.isVirtualized();
+    }
+
+    /**
+     * Enable or disable the virtualized mode. By default, the ruler is a view as wide as the whole
+     * range of the values inside the scroll view. For the large ranges, this view can go past the
+     * hardware layer and texture limits. In the virtualized mode, the ruler is a viewport sized
+     * surface drawn on top of the scroll view at the current scroll offset. The scroll view only
+     * contains an empty view that provides the scroll range. Default value is false.
+     *
+     * @param isVirtualized True to enable the virtualized mode.
+     * @see RulerView#setVirtualized(boolean)
+     */
+    public void setVirtualized(final boolean isVirtualized) {
+        if (isVirtualized == mRulerView.isVirtualized()) return;
+        mRulerView.setVirtualized(isVirtualized);
+
+        if (isVirtualized) {
+            //Replace the ruler with the empty scroll extent and draw the ruler on top.
+            mRulerContainer.removeView(mRulerView);
+            mRulerContainer.addView(mScrollExtent, 1, new LinearLayout.LayoutParams(
+                    mRulerView.getRulerWidth(), ViewGroup.LayoutParams.MATCH_PARENT));
+            addView(mRulerView, new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                    ViewGroup.LayoutParams.MATCH_PARENT));
+        } else {
+            removeView(mRulerView);
+            mRulerContainer.removeView(mScrollExtent);
+            mRulerContainer.addView(mRulerView, 1);
+        }
+        updateVisibleWindow();
     }
 
     /**
@@ -610,21 +1010,23 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      */
     @CheckResult
     public float getLongIndicatorHeightRatio() {
-        return mRulerView.getLongIndicatorHeightRatio();
+        return mModel.getLongIndicatorHeightRatio();
     }
 
     /**
      * @return Ratio of short indicator height to the ruler height.
      * @see #setIndicatorHeight(float, float)
-     * @see RulerView#mShortIndicatorHeight
+     * @see RulerView#mShortIndicatorHeightRatio
      */
     @CheckResult
     public float getShortIndicatorHeightRatio() {
-        return mRulerView.getShortIndicatorHeightRatio();
+        return mModel.getShortIndicatorHeightRatio();
     }
 
     /**
-     * Set the height of the long and short indicators.
+     * Set the height of the long and short indicators. If there are more than two levels, the
+     * heights of the levels in between are spread evenly between these heights. Heights set by
+     * {@link #setTickLevelStyle(float[], int[], int[])} take precedence.
      *
      * @param longHeightRatio  Ratio of long indicator height to the ruler height. This value must
      *                         be between 0 to 1. The value should greater than {@link #getShortIndicatorHeightRatio()}.
@@ -641,7 +1043,47 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
      */
     public void setIndicatorHeight(final float longHeightRatio,
                                    final float shortHeightRatio) {
-        mRulerView.setIndicatorHeight(longHeightRatio, shortHeightRatio);
+        mModel.setIndicatorHeight(longHeightRatio, shortHeightRatio);
+    }
+
+    /**
+     * @return {@link RulerTickLevels} of the indicators.
+     * @see #setTickLevels(RulerTickLevels)
+     */
+    @NonNull
+    @CheckResult
+    public RulerTickLevels getTickLevels() {
+        return mModel.getTickLevels();
+    }
+
+    /**
+     * Set the levels of the indicators, e.g. a short indicator for every value, a middle one for
+     * every fifth value and a long one with the label for every tenth value. The style of the
+     * levels is reset: heights are spread between the short and the long indicator height, and
+     * all the levels have the indicator color and width.
+     *
+     * @param tickLevels {@link RulerTickLevels} of the indicators.
+     * @see #setTickLevelStyle(float[], int[], int[])
+     */
+    public void setTickLevels(@NonNull final RulerTickLevels tickLevels) {
+        mModel.setTickLevels(tickLevels);
+    }
+
+    /**
+     * Set the height, the color and the width of each level of the indicators. Each array must
+     * have one entry per level of {@link #getTickLevels()}, from the finest level.
+     *
+     * @param heightRatios Ratio of the height of each level to the ruler height or null to
+     *                     spread the heights between the short and the long indicator height.
+     * @param colors       Color of each level or null to use the indicator color.
+     * @param widthsPx     Width of each level in pixels or null to use the indicator width.
+     * @throws IllegalArgumentException if any array doesn't have one entry per level, or any
+     *                                  height ratio is not between 0 and 1.
+     */
+    public void setTickLevelStyle(@Nullable final float[] heightRatios,
+                                  @Nullable final int[] colors,
+                                  @Nullable final int[] widthsPx) {
+        mModel.setTickLevelStyle(heightRatios, colors, widthsPx);
     }
 
     /**
@@ -653,6 +1095,78 @@ public final class RulerValuePicker extends FrameLayout implements ObservableHor
         mListener = listener;
     }
 
+    /**
+     * Set the {@link RulerFlingListener} to get the predicted value when the fling starts and
+     * the callback when the fling is interrupted.
+     *
+     * @param listener {@link RulerFlingListener}
+     */
+    public void setFlingListener(@Nullable final RulerFlingListener listener) {
+        mFlingListener = listener;
+    }
+
+    /**
+     * Set the {@link RulerMetricsListener} to get the rendering metrics of this picker: draw time,
+     * number of the drawn indicators and values, tile cache hits and misses, scroll events and
+     * the time spent in the {@link RulerValuePickerListener}. Metrics are aggregated over the
+     * reporting window and reported at the end of the frame, that completes the window. Metrics
+     * are disabled by default. While disabled, they cost nothing but a null check.
+     *
+     * @param listener     {@link RulerMetricsListener} to get the metrics or null to disable the
+     *                     metrics.
+     * @param windowMillis Duration of the reporting window in milliseconds. Ignored if the
+     *                     listener is null.
+     * @throws IllegalArgumentException if the listener is not null and the window is not positive.
+     */
+    public void setMetricsListener(@Nullable final RulerMetricsListener listener,
+                                   final long windowMillis) {
+        if (listener != null && windowMillis <= 0) {
+            throw new IllegalArgumentException("Metrics window must be positive.");
+        }
+
+        mMetricsRecorder = listener == null ? null : new RulerMetricsRecorder(listener, windowMillis, mClock);
+        mRulerView.setMetricsRecorder(mMetricsRecorder);
+        mValueDispatcher.setMetricsRecorder(mMetricsRecorder);
+    }
+
+    /**
+     * Set the {@link RulerTracer} to mark the measure, layout, draw, value selection, fling
+     * snapping and scroll stop sections with. By default, the sections are written to the
+     * systrace.
+     *
+     * @param tracer {@link RulerTracer} to use or null to write the sections to the systrace.
+     * @see RulerTracer
+     */
+    public void setTracer(@Nullable final RulerTracer tracer) {
+        mTracer = tracer == null ? SystraceRulerTracer.INSTANCE : tracer;
+        mRulerView.setTracer(mTracer);
+        mHorizontalScrollView.setTracer(mTracer);
+    }
+
+    /**
+     * Set the time source of the flings, the animated scrolls and the metrics reporting windows. By
+     * default, the animation time of the current frame is used. Running fling or animation is
+     * stopped.
+     *
+     * @param clock {@link RulerClock} to use or null to use the animation time.
+     * @see RulerClock
+     */
+    public void setClock(@Nullable final RulerClock clock) {
+        mClock = clock == null ? AnimationRulerClock.INSTANCE : clock;
+        mHorizontalScrollView.setClock(mClock);
+        if (mMetricsRecorder != null) mMetricsRecorder.setClock(mClock);
+    }
+
+    /**
+     * Run one frame without the display: move the ruler to the position of the running fling or
+     * animation at the current time of the {@link RulerClock}, and dispatch the pending
+     * intermediate value. The scroll tests call this in place of the frame callbacks.
+     */
+    void runFrame() {
+        mHorizontalScrollView.computeScroll();
+        mValueDispatcher.runPending();
+    }
+
     /**
      * User interface state that is stored by RulerView for implementing
      * {@link View#onSaveInstanceState}.
@@ -16,13 +16,11 @@ package com.kevalpatel2106.rulerpicker;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
+import android.graphics.Rect;
 import android.os.Build;
 import android.support.annotation.CheckResult;
-import android.support.annotation.ColorInt;
-import android.support.annotation.Dimension;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.util.AttributeSet;
@@ -41,125 +39,112 @@ import android.view.View;
 final class RulerView extends View {
 
     /**
-     * Height of the view. This view height is measured in {@link #onMeasure(int, int)}.
+     * Number of frames to render the tiles ahead of the scroll. The distance scrolled in a frame
+     * multiplied by this number decides how far ahead the tiles are requested.
      *
-     * @see #onMeasure(int, int)
+     * @see #prefetchTiles(int, int, int)
      */
-    private int mViewHeight;
+    private static final int PREFETCH_FRAMES = 8;
 
     /**
-     * {@link Paint} for the line in the ruler view.
+     * Height of the view. This view height is measured in {@link #onMeasure(int, int)}.
      *
-     * @see #refreshPaint()
+     * @see #onMeasure(int, int)
      */
-    private Paint mIndicatorPaint;
+    private int mViewHeight;
 
     /**
-     * {@link Paint} to display the text on the ruler view.
-     *
-     * @see #refreshPaint()
+     * Style, range and the {@link RulerRenderer} of the ruler. Applied changes invalidate the
+     * tiles, and the layout if the width of the ruler changed.
      */
-    private Paint mTextPaint;
+    @NonNull
+    private final RulerModel mModel = new RulerModel(getContext(), new RulerStyle.Callback() {
+        @Override
+        public void onStyleChanged(final int dirtyFlags) {
+            if ((dirtyFlags & ~RulerStyle.DIRTY_LAYOUT) != 0) invalidateTiles();
+            if ((dirtyFlags & RulerStyle.DIRTY_LAYOUT) != 0 && !mIsVirtualized) requestLayout();
+            invalidate();
+        }
+    });
 
     /**
-     * Distance interval between two subsequent indicators on the ruler.
-     *
-     * @see #setIndicatorIntervalDistance(int)
-     * @see #getIndicatorIntervalWidth()
+     * {@link RulerRenderer} of the {@link #mModel} to draw the indicators and the values.
      */
-    private int mIndicatorInterval = 14 /* Default value */;
+    @NonNull
+    private final RulerRenderer mRenderer = mModel.getRenderer();
 
     /**
-     * Minimum value. This value will be displayed at the left-most end of the ruler. This value
-     * must be less than {@link #mMaxValue}.
+     * Start of the part of the ruler, that is currently visible on the screen in pixels. This is
+     * set by the parent scroll container.
      *
-     * @see #setValueRange(int, int)
-     * @see #getMinValue()
+     * @see #setVisibleWindow(int, int)
      */
-    private int mMinValue = 0 /* Default value */;
+    private int mVisibleStartPx = Integer.MIN_VALUE;
 
     /**
-     * Maximum value. This value will be displayed at the right-most end of the ruler. This value
-     * must be greater than {@link #mMinValue}.
+     * End of the part of the ruler, that is currently visible on the screen in pixels. This is
+     * set by the parent scroll container.
      *
-     * @see #setValueRange(int, int)
-     * @see #getMaxValue()
+     * @see #setVisibleWindow(int, int)
      */
-    private int mMaxValue = 100 /* Default maximum value */;
+    private int mVisibleEndPx = Integer.MAX_VALUE;
 
     /**
-     * Ratio of long indicator height to the ruler height. This value must be between 0 to 1. The
-     * value should greater than {@link #mShortIndicatorHeight}. Default value is 0.6 (i.e. 60%).
-     * If the value is 0, indicator won't be displayed. If the value is 1, indicator height will be
-     * same as the ruler height.
-     *
-     * @see #setIndicatorHeight(float, float)
-     * @see #getLongIndicatorHeightRatio()
+     * Start of the part of the ruler drawn in the last {@link #onDraw(Canvas)} in pixels.
      */
-    private float mLongIndicatorHeightRatio = 0.6f /* Default value */;
+    private int mDrawnStartPx = 0;
 
     /**
-     * Ratio of short indicator height to the ruler height. This value must be between 0 to 1. The
-     * value should less than {@link #mLongIndicatorHeight}. Default value is 0.4 (i.e. 40%).
-     * If the value is 0, indicator won't be displayed. If the value is 1, indicator height will be
-     * same as the ruler height.
-     *
-     * @see #setIndicatorHeight(float, float)
-     * @see #getShortIndicatorHeightRatio()
+     * End of the part of the ruler drawn in the last {@link #onDraw(Canvas)} in pixels.
      */
-    private float mShortIndicatorHeightRatio = 0.4f /* Default value */;
+    private int mDrawnEndPx = 0;
 
     /**
-     * Actual height of the long indicator in pixels. This height is derived from
-     * {@link #mLongIndicatorHeightRatio}.
+     * True if the ruler is drawn in the virtualized mode. In this mode the width of this view is
+     * same as the width of the viewport and the ruler is drawn at {@link #mVisibleStartPx} offset,
+     * so the size of the view doesn't depend on the range of the values.
      *
-     * @see #updateIndicatorHeight(float, float)
+     * @see #setVirtualized(boolean)
      */
-    private int mLongIndicatorHeight = 0;
+    private boolean mIsVirtualized = false;
 
     /**
-     * Actual height of the short indicator in pixels. This height is derived from
-     * {@link #mShortIndicatorHeightRatio}.
-     *
-     * @see #updateIndicatorHeight(float, float)
+     * Reusable {@link Rect} to read the clip bounds of the canvas in {@link #onDraw(Canvas)}.
      */
-    private int mShortIndicatorHeight = 0;
+    private final Rect mClipBounds = new Rect();
 
     /**
-     * Integer color of the text, that is displayed on the ruler.
+     * Cache of the pre-rendered ruler tiles or null if the tile rendering is disabled.
      *
-     * @see #setTextColor(int)
-     * @see #getTextColor()
+     * @see #setTileCacheSize(int)
      */
-    @ColorInt
-    private int mTextColor = Color.WHITE;
+    @Nullable
+    private RulerTileCache mTileCache;
 
     /**
-     * Integer color of the indicators.
+     * Renders the tiles on the background thread or null if the tile rendering is disabled.
      *
-     * @see #setIndicatorColor(int)
-     * @see #getIndicatorColor()
+     * @see #setTileCacheSize(int)
+     * @see #prefetchTiles(int, int, int)
      */
-    @ColorInt
-    private int mIndicatorColor = Color.WHITE;
+    @Nullable
+    private RulerTilePrefetcher mTilePrefetcher;
 
     /**
-     * Height of the text, that is displayed on ruler in pixels.
+     * Records the draw time and the draw counts, or null if the metrics are disabled.
      *
-     * @see #setTextSize(int)
-     * @see #getTextSize()
+     * @see #setMetricsRecorder(RulerMetricsRecorder)
      */
-    @Dimension
-    private int mTextSize = 36;
+    @Nullable
+    private RulerMetricsRecorder mMetricsRecorder;
 
     /**
-     * Width of the indicator in pixels.
+     * {@link RulerTracer} to mark the sections of the work with.
      *
-     * @see #setIndicatorWidth(int)
-     * @see #getIndicatorWidth()
+     * @see #setTracer(RulerTracer)
      */
-    @Dimension
-    private float mIndicatorWidthPx = 4f;
+    @NonNull
+    private RulerTracer mTracer = SystraceRulerTracer.INSTANCE;
 
     public RulerView(@NonNull final Context context) {
         super(context);
@@ -190,358 +175,320 @@ final class RulerView extends View {
     }
 
     private void parseAttr(@Nullable AttributeSet attributeSet) {
+        mModel.beginUpdate();
         if (attributeSet != null) {
             TypedArray a = getContext().getTheme().obtainStyledAttributes(attributeSet,
-                    R.styleable.RulerView,
+                    R.styleable.RulerValuePicker,
                     0,
                     0);
 
             try { //Parse params
-                if (a.hasValue(R.styleable.RulerView_ruler_text_color)) {
-                    mTextColor = a.getColor(R.styleable.RulerView_ruler_text_color, Color.WHITE);
-                }
+                mModel.parseAttributes(a);
 
-                if (a.hasValue(R.styleable.RulerView_ruler_text_size)) {
-                    mTextSize = a.getDimensionPixelSize(R.styleable.RulerView_ruler_text_size, 14);
+                if (a.hasValue(R.styleable.RulerValuePicker_min_value) ||
+                        a.hasValue(R.styleable.RulerValuePicker_max_value)) {
+                    mModel.setValueRange(a.getInteger(R.styleable.RulerValuePicker_min_value, 0),
+                            a.getInteger(R.styleable.RulerValuePicker_max_value, 100));
                 }
-
-                if (a.hasValue(R.styleable.RulerView_indicator_color)) {
-                    mIndicatorColor = a.getColor(R.styleable.RulerView_indicator_color, Color.WHITE);
-                }
-
-                if (a.hasValue(R.styleable.RulerView_indicator_width)) {
-                    mIndicatorWidthPx = a.getDimensionPixelSize(R.styleable.RulerView_indicator_width,
-                            4);
-                }
-
-                if (a.hasValue(R.styleable.RulerView_indicator_interval)) {
-                    mIndicatorInterval = a.getDimensionPixelSize(R.styleable.RulerView_indicator_interval,
-                            4);
-                }
-
-                if (a.hasValue(R.styleable.RulerView_long_height_height_ratio)) {
-                    mLongIndicatorHeightRatio = a.getFraction(R.styleable.RulerView_long_height_height_ratio,
-                            1, 1, 0.6f);
-                }
-                if (a.hasValue(R.styleable.RulerView_short_height_height_ratio)) {
-                    mShortIndicatorHeightRatio = a.getFraction(R.styleable.RulerView_short_height_height_ratio,
-                            1, 1, 0.4f);
-                }
-                setIndicatorHeight(mLongIndicatorHeightRatio, mShortIndicatorHeightRatio);
-
-                if (a.hasValue(R.styleable.RulerView_min_value)) {
-                    mMinValue = a.getInteger(R.styleable.RulerView_min_value, 0);
-                }
-                if (a.hasValue(R.styleable.RulerView_max_value)) {
-                    mMaxValue = a.getInteger(R.styleable.RulerView_max_value, 100);
-                }
-                setValueRange(mMinValue, mMaxValue);
             } finally {
                 a.recycle();
             }
         }
-        refreshPaint();
-    }
-
-    /**
-     * Create the indicator paint and value text color.
-     */
-    private void refreshPaint() {
-        mIndicatorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mIndicatorPaint.setColor(mIndicatorColor);
-        mIndicatorPaint.setStrokeWidth(mIndicatorWidthPx);
-        mIndicatorPaint.setStyle(Paint.Style.STROKE);
-
-        mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mTextPaint.setColor(mTextColor);
-        mTextPaint.setTextSize(mTextSize);
-        mTextPaint.setTextAlign(Paint.Align.CENTER);
-
-        invalidate();
-        requestLayout();
+        mModel.commit();
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
-        //Iterate through all value
-        for (int value = 1; value < mMaxValue - mMinValue; value++) {
-
-            if (value % 5 == 0) {
-                drawLongIndicator(canvas, value);
-                drawValueText(canvas, value);
+        mTracer.beginSection(RulerTracer.SECTION_DRAW);
+        try {
+            //Only draw the part of the ruler that intersects with the canvas clip and the visible window.
+            //With hardware acceleration the display list of this view is replayed on every scroll
+            //frame, so the window is extended by the width of the viewport on each side. This view
+            //will be redrawn only after the visible window moves out of the drawn part.
+            if (!canvas.getClipBounds(mClipBounds)) return;
+
+            final int originPx;
+            int startPx;
+            int endPx;
+            if (mIsVirtualized) {
+                //This view is as wide as the viewport. Draw the visible window at the logical offset.
+                originPx = mVisibleStartPx == Integer.MIN_VALUE ? 0 : mVisibleStartPx;
+                startPx = originPx + mClipBounds.left;
+                endPx = originPx + mClipBounds.right;
             } else {
-                drawSmallIndicator(canvas, value);
+                originPx = 0;
+                startPx = mClipBounds.left;
+                endPx = mClipBounds.right;
+                if (mVisibleStartPx != Integer.MIN_VALUE) {
+                    final int overscan = mVisibleEndPx - mVisibleStartPx;
+                    startPx = Math.max(startPx, mVisibleStartPx - overscan);
+                    endPx = Math.min(endPx, mVisibleEndPx + overscan);
+                }
             }
-        }
-
-        //Draw the first indicator.
-        drawSmallIndicator(canvas, 0);
+            mDrawnStartPx = startPx;
+            mDrawnEndPx = endPx;
 
-        //Draw the last indicator.
-        drawSmallIndicator(canvas, getWidth());
-        super.onDraw(canvas);
-    }
-
-    @Override
-    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        //Measure dimensions
-        mViewHeight = MeasureSpec.getSize(heightMeasureSpec);
-        int viewWidth = (mMaxValue - mMinValue - 1) * mIndicatorInterval;
+            final long drawStartNanos = mMetricsRecorder != null ? System.nanoTime() : 0;
+            mRenderer.resetDrawnCounts();
 
-        updateIndicatorHeight(mLongIndicatorHeightRatio, mShortIndicatorHeightRatio);
+            if (mTileCache != null) {
+                drawTiles(canvas, mTileCache, startPx, endPx, originPx);
+            } else {
+                mRenderer.draw(canvas, startPx, endPx, originPx);
+            }
+            super.onDraw(canvas);
 
-        this.setMeasuredDimension(viewWidth, mViewHeight);
+            if (mMetricsRecorder != null) {
+                mMetricsRecorder.onFrameDrawn(System.nanoTime() - drawStartNanos,
+                        mRenderer.getDrawnTickCount(),
+                        mRenderer.getDrawnLabelCount(),
+                        mRenderer.getDrawCallCount());
+            }
+        } finally {
+            mTracer.endSection();
+        }
     }
 
     /**
-     * Calculate and update the height of the long and the short indicators based on new ratios.
+     * Set the part of the ruler that is visible on the screen. This view will be invalidated only
+     * if the new window is outside the part of the ruler drawn in the last {@link #onDraw(Canvas)}.
+     * In the virtualized mode, the view is invalidated whenever the window moves.
      *
-     * @param longIndicatorHeightRatio  Ratio of long indicator height to the ruler height.
-     * @param shortIndicatorHeightRatio Ratio of short indicator height to the ruler height.
+     * @param startPx Left edge of the visible window in pixels, relative to the start of the ruler.
+     * @param endPx   Right edge of the visible window in pixels, relative to the start of the ruler.
      */
-    private void updateIndicatorHeight(final float longIndicatorHeightRatio,
-                                       final float shortIndicatorHeightRatio) {
-        mLongIndicatorHeight = (int) (mViewHeight * longIndicatorHeightRatio);
-        mShortIndicatorHeight = (int) (mViewHeight * shortIndicatorHeightRatio);
-
-    }
+    void setVisibleWindow(final int startPx, final int endPx) {
+        final boolean isMoved = startPx != mVisibleStartPx;
+        if (isMoved && mVisibleStartPx != Integer.MIN_VALUE) {
+            prefetchTiles(startPx, endPx, startPx - mVisibleStartPx);
+        }
+        mVisibleStartPx = startPx;
+        mVisibleEndPx = endPx;
 
-    /**
-     * Draw the vertical short line at every value.
-     *
-     * @param canvas {@link Canvas} on which the line will be drawn.
-     * @param value  Value to calculate the position of the indicator.
-     */
-    private void drawSmallIndicator(@NonNull final Canvas canvas,
-                                    final int value) {
-        canvas.drawLine(mIndicatorInterval * value,
-                0,
-                mIndicatorInterval * value,
-                mShortIndicatorHeight,
-                mIndicatorPaint);
+        if (mIsVirtualized ? isMoved : (startPx < mDrawnStartPx || endPx > mDrawnEndPx)) {
+            invalidate();
+        }
     }
 
     /**
-     * Draw the vertical long line.
+     * Draw the part of the ruler using the cached tiles. Tiles that are not in the cache are
+     * requested from the {@link #mTilePrefetcher} and their part is drawn directly for this frame,
+     * so the main thread never waits for a tile.
      *
-     * @param canvas {@link Canvas} on which the line will be drawn.
-     * @param value  Value to calculate the position of the indicator.
-     */
-    private void drawLongIndicator(@NonNull final Canvas canvas,
-                                   final int value) {
-        canvas.drawLine(mIndicatorInterval * value,
-                0,
-                mIndicatorInterval * value,
-                mLongIndicatorHeight,
-                mIndicatorPaint);
+     * @param canvas    {@link Canvas} to draw on.
+     * @param tileCache {@link RulerTileCache} to get the tiles from.
+     * @param startPx   Start of the part to draw in pixels.
+     * @param endPx     End of the part to draw in pixels.
+     * @param originPx  Position of the left edge of the canvas on the ruler in pixels.
+     */
+    private void drawTiles(@NonNull final Canvas canvas,
+                           @NonNull final RulerTileCache tileCache,
+                           final int startPx,
+                           final int endPx,
+                           final int originPx) {
+        //This frame replaces the last one, so the evicted tiles can be rendered into again.
+        tileCache.releaseRetiredTiles();
+
+        final int firstTile = getFirstTile(startPx);
+        final int lastTile = getLastTile(endPx);
+
+        for (int tileIndex = firstTile; tileIndex <= lastTile; tileIndex++) {
+            final int tileStartPx = tileIndex * RulerTileCache.TILE_WIDTH_PX;
+            final Bitmap tile = tileCache.get(tileIndex);
+
+            if (tile != null) {
+                canvas.drawBitmap(tile, tileStartPx - originPx, 0, null);
+                if (mMetricsRecorder != null) mMetricsRecorder.onTileCacheHit();
+            } else {
+                if (mMetricsRecorder != null) mMetricsRecorder.onTileCacheMiss();
+                if (mTilePrefetcher != null && mViewHeight > 0) mTilePrefetcher.requestTile(tileIndex);
+
+                //Draw the part of the tile directly until the tile is rendered.
+                canvas.save();
+                canvas.clipRect(tileStartPx - originPx,
+                        0,
+                        tileStartPx + RulerTileCache.TILE_WIDTH_PX - originPx,
+                        mViewHeight);
+                mRenderer.draw(canvas, tileStartPx, tileStartPx + RulerTileCache.TILE_WIDTH_PX, originPx);
+                canvas.restore();
+            }
+        }
     }
 
     /**
-     * Draw the value number below the longer indicator. This will use {@link #mTextPaint} to draw
-     * the text.
+     * Request the tiles ahead of the visible window in the direction of the scroll. Faster the
+     * scroll, further ahead the tiles are requested.
      *
-     * @param canvas {@link Canvas} on which the text will be drawn.
-     * @param value  Value to draw.
-     */
-    private void drawValueText(@NonNull final Canvas canvas,
-                               final int value) {
-        canvas.drawText(String.valueOf(value + mMinValue),
-                mIndicatorInterval * value,
-                mLongIndicatorHeight + mTextPaint.getTextSize(),
-                mTextPaint);
-    }
-
-    /////////////////////// Properties getter/setter ///////////////////////
+     * @param startPx       Left edge of the visible window in pixels.
+     * @param endPx         Right edge of the visible window in pixels.
+     * @param scrollDeltaPx Distance scrolled since the last update in pixels. Positive if the
+     *                      ruler scrolls towards the maximum value.
+     */
+    private void prefetchTiles(final int startPx,
+                               final int endPx,
+                               final int scrollDeltaPx) {
+        if (mTileCache == null || mTilePrefetcher == null || mViewHeight <= 0) return;
+
+        final int lookaheadPx = RulerTileCache.TILE_WIDTH_PX + Math.abs(scrollDeltaPx) * PREFETCH_FRAMES;
+        final int firstTile;
+        final int lastTile;
+        if (scrollDeltaPx > 0) {
+            firstTile = getFirstTile(endPx);
+            lastTile = getLastTile(endPx + lookaheadPx);
+        } else {
+            firstTile = getFirstTile(startPx - lookaheadPx);
+            lastTile = getLastTile(startPx);
+        }
 
-    /**
-     * @return Color integer value of the ruler text color.
-     * @see #setTextColor(int)
-     */
-    @CheckResult
-    @ColorInt
-    int getTextColor() {
-        return mIndicatorColor;
+        for (int tileIndex = firstTile; tileIndex <= lastTile; tileIndex++) {
+            if (mTileCache.get(tileIndex) == null) mTilePrefetcher.requestTile(tileIndex);
+        }
     }
 
     /**
-     * Set the color of the text to display on the ruler.
-     *
-     * @param color Color integer value.
+     * @param startPx Start of the part of the ruler in pixels.
+     * @return Index of the first tile with any indicator or value of the part.
      */
-    void setTextColor(@ColorInt final int color) {
-        mTextColor = color;
-        refreshPaint();
+    private int getFirstTile(final int startPx) {
+        return RulerViewUtils.floorDiv(Math.max(startPx, -mRenderer.getLabelMargin()),
+                RulerTileCache.TILE_WIDTH_PX);
     }
 
     /**
-     * @return Size of the text of ruler in pixels.
-     * @see #setTextSize(int)
+     * @param endPx End of the part of the ruler in pixels.
+     * @return Index of the last tile with any indicator or value of the part.
      */
-    @CheckResult
-    float getTextSize() {
-        return mTextSize;
+    private int getLastTile(final int endPx) {
+        return RulerViewUtils.floorDiv(Math.min(endPx, getRulerWidth() + mRenderer.getLabelMargin()) - 1,
+                RulerTileCache.TILE_WIDTH_PX);
     }
 
     /**
-     * Set the size of the text to display on the ruler.
-     *
-     * @param textSizeSp Text size dimension in dp.
+     * Remove all the rendered tiles. This should be called whenever the look of the ruler changes.
      */
-    void setTextSize(final int textSizeSp) {
-        mTextSize = RulerViewUtils.sp2px(getContext(), textSizeSp);
-        refreshPaint();
+    private void invalidateTiles() {
+        if (mTileCache != null) mTileCache.clear();
+        if (mTilePrefetcher != null) mTilePrefetcher.updateRenderer(mRenderer, mViewHeight);
     }
 
-
-    /**
-     * @return Color integer value of the indicator color.
-     * @see #setIndicatorColor(int)
-     */
-    @CheckResult
-    @ColorInt
-    int getIndicatorColor() {
-        return mIndicatorColor;
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (mTilePrefetcher != null) mTilePrefetcher.cancelPendingTiles();
     }
 
-    /**
-     * Set the indicator color.
-     *
-     * @param color Color integer value.
-     */
-    void setIndicatorColor(@ColorInt final int color) {
-        mIndicatorColor = color;
-        refreshPaint();
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        mTracer.beginSection(RulerTracer.SECTION_MEASURE);
+        try {
+            if (mMetricsRecorder != null) mMetricsRecorder.onMeasurePass();
+
+            //Measure dimensions
+            final int viewHeight = MeasureSpec.getSize(heightMeasureSpec);
+            final boolean isHeightChanged = viewHeight != mViewHeight;
+            mViewHeight = viewHeight;
+            int viewWidth = mIsVirtualized ? MeasureSpec.getSize(widthMeasureSpec) : getRulerWidth();
+
+            mModel.updateHeight(mViewHeight);
+            if (isHeightChanged) invalidateTiles();
+
+            this.setMeasuredDimension(viewWidth, mViewHeight);
+        } finally {
+            mTracer.endSection();
+        }
     }
 
     /**
-     * @return Width of the indicator in pixels.
-     * @see #setIndicatorWidth(int)
+     * @return Width of the whole ruler in pixels. In the non-virtualized mode, this is the width
+     * of this view.
      */
     @CheckResult
-    float getIndicatorWidth() {
-        return mIndicatorWidthPx;
-    }
-
-    /**
-     * Set the width of the indicator line in the ruler.
-     *
-     * @param widthPx Width in pixels.
-     */
-    void setIndicatorWidth(final int widthPx) {
-        mIndicatorWidthPx = widthPx;
-        refreshPaint();
+    int getRulerWidth() {
+        return mModel.getRulerWidth();
     }
 
+    /////////////////////// Properties getter/setter ///////////////////////
 
     /**
-     * @return Get the minimum value displayed on the ruler.
-     * @see #setValueRange(int, int)
+     * @return {@link RulerModel} with the style and the range of the ruler. Changes made through
+     * the model are applied to this view.
      */
+    @NonNull
     @CheckResult
-    int getMinValue() {
-        return mMinValue;
+    RulerModel getModel() {
+        return mModel;
     }
 
     /**
-     * @return Get the maximum value displayed on the ruler.
-     * @see #setValueRange(int, int)
+     * @return Maximum number of bytes the cached tiles can take or 0 if the tile rendering is
+     * disabled.
+     * @see #setTileCacheSize(int)
      */
     @CheckResult
-    int getMaxValue() {
-        return mMaxValue;
+    int getTileCacheSize() {
+        return mTileCache == null ? 0 : mTileCache.getMaxSize();
     }
 
     /**
-     * Set the maximum value to display on the ruler. This will decide the range of values and number
-     * of indicators that ruler will draw.
+     * Enable or disable the tile rendering. In the tile rendering mode, fixed width segments of
+     * the ruler are rendered once into the bitmaps and kept in the LRU cache. Those bitmaps are
+     * drawn while scrolling, instead of drawing the indicators and the values on every frame.
+     * Tiles are rendered on the background thread, ahead of the scroll direction.
      *
-     * @param minValue Value to display at the left end of the ruler. This can be positive, negative
-     *                 or zero. Default minimum value is 0.
-     * @param maxValue Value to display at the right end of the ruler. This can be positive, negative
-     *                 or zero.This value must be greater than min value. Default minimum value is 100.
-     */
-    void setValueRange(final int minValue, final int maxValue) {
-        mMinValue = minValue;
-        mMaxValue = maxValue;
+     * @param maxSizeBytes Maximum number of bytes the cached tiles can take. Pass 0 to disable the
+     *                     tile rendering.
+     * @throws IllegalArgumentException if the size is negative.
+     */
+    void setTileCacheSize(final int maxSizeBytes) {
+        if (maxSizeBytes < 0)
+            throw new IllegalArgumentException("Tile cache size cannot be negative.");
+
+        if (mTilePrefetcher != null) mTilePrefetcher.cancelPendingTiles();
+        if (maxSizeBytes > 0) {
+            mTileCache = new RulerTileCache(maxSizeBytes);
+            mTilePrefetcher = new RulerTilePrefetcher(mTileCache, this);
+            mTilePrefetcher.updateRenderer(mRenderer, mViewHeight);
+        } else {
+            mTileCache = null;
+            mTilePrefetcher = null;
+        }
         invalidate();
     }
 
     /**
-     * @return Get distance between two indicator in pixels.
-     * @see #setIndicatorIntervalDistance(int)
-     */
-    @CheckResult
-    int getIndicatorIntervalWidth() {
-        return mIndicatorInterval;
-    }
-
-    /**
-     * Set the spacing between two vertical lines/indicators. Default value is 14 pixels.
-     *
-     * @param indicatorIntervalPx Distance in pixels. This cannot be negative number or zero.
-     * @throws IllegalArgumentException if interval is negative or zero.
+     * @param metricsRecorder {@link RulerMetricsRecorder} to record the draw metrics to or null to
+     *                        disable the metrics.
      */
-    void setIndicatorIntervalDistance(final int indicatorIntervalPx) {
-        if (indicatorIntervalPx <= 0)
-            throw new IllegalArgumentException("Interval cannot be negative or zero.");
-
-        mIndicatorInterval = indicatorIntervalPx;
-        invalidate();
+    void setMetricsRecorder(@Nullable final RulerMetricsRecorder metricsRecorder) {
+        mMetricsRecorder = metricsRecorder;
     }
 
     /**
-     * @return Ratio of long indicator height to the ruler height.
-     * @see #setIndicatorHeight(float, float)
+     * @param tracer {@link RulerTracer} to mark the sections of the work with.
      */
-    @CheckResult
-    float getLongIndicatorHeightRatio() {
-        return mLongIndicatorHeightRatio;
+    void setTracer(@NonNull final RulerTracer tracer) {
+        mTracer = tracer;
     }
 
     /**
-     * @return Ratio of short indicator height to the ruler height.
-     * @see #setIndicatorHeight(float, float)
+     * @return True if the ruler is drawn in the virtualized mode.
+     * @see #setVirtualized(boolean)
      */
     @CheckResult
-    float getShortIndicatorHeightRatio() {
-        return mShortIndicatorHeightRatio;
+    boolean isVirtualized() {
+        return mIsVirtualized;
     }
 
     /**
-     * Set the height of the long and short indicators.
+     * Enable or disable the virtualized mode. In the virtualized mode, width of this view is same
+     * as the viewport and the ruler is drawn at the offset set by {@link #setVisibleWindow(int, int)}.
+     * This allows very large ranges, as the size of the view doesn't depend on the range.
      *
-     * @param longHeightRatio  Ratio of long indicator height to the ruler height. This value must
-     *                         be between 0 to 1. The value should greater than {@link #mShortIndicatorHeight}.
-     *                         Default value is 0.6 (i.e. 60%). If the value is 0, indicator won't
-     *                         be displayed. If the value is 1, indicator height will be same as the
-     *                         ruler height.
-     * @param shortHeightRatio Ratio of short indicator height to the ruler height. This value must
-     *                         be between 0 to 1. The value should less than {@link #mLongIndicatorHeight}.
-     *                         Default value is 0.4 (i.e. 40%). If the value is 0, indicator won't
-     *                         be displayed. If the value is 1, indicator height will be same as
-     *                         the ruler height.
-     * @throws IllegalArgumentException if any of the parameter is invalid.
+     * @param isVirtualized True to enable the virtualized mode.
      */
-    void setIndicatorHeight(final float longHeightRatio,
-                            final float shortHeightRatio) {
-
-        if (shortHeightRatio < 0 || shortHeightRatio > 1) {
-            throw new IllegalArgumentException("Sort indicator height must be between 0 to 1.");
-        }
-
-        if (longHeightRatio < 0 || longHeightRatio > 1) {
-            throw new IllegalArgumentException("Long indicator height must be between 0 to 1.");
-        }
-
-        if (shortHeightRatio > longHeightRatio) {
-            throw new IllegalArgumentException("Long indicator height cannot be less than sort indicator height.");
-        }
-
-        mLongIndicatorHeightRatio = longHeightRatio;
-        mShortIndicatorHeightRatio = shortHeightRatio;
-
-        updateIndicatorHeight(mLongIndicatorHeightRatio, mShortIndicatorHeightRatio);
-
+    void setVirtualized(final boolean isVirtualized) {
+        mIsVirtualized = isVirtualized;
+        requestLayout();
         invalidate();
     }
 }
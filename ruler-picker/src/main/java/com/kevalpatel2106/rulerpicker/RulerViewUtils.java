@@ -14,7 +14,17 @@
 package com.kevalpatel2106.rulerpicker;
 
 import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.graphics.Paint;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.kevalpatel2106.rulerpicker.geometry.RulerGeometry;
+import com.kevalpatel2106.rulerpicker.geometry.RulerScaleMapping;
+import com.kevalpatel2106.rulerpicker.geometry.RulerTickLevels;
+import com.kevalpatel2106.rulerpicker.geometry.RulerTickTable;
 
 /**
  * Created by Kevalpatel2106 on 28-Mar-18.
@@ -37,4 +47,294 @@ final class RulerViewUtils {
         final float fontScale = context.getResources().getDisplayMetrics().scaledDensity;
         return (int) (spValue * fontScale + 0.5f);
     }
+
+    /**
+     * Divide and round the result towards the negative infinity.
+     *
+     * @param dividend Value to divide.
+     * @param divisor  Value to divide by. This must be positive.
+     *
+     * @return Largest integer less than or equal to the quotient.
+     */
+    static int floorDiv(final int dividend,
+                        final int divisor) {
+        final int quotient = dividend / divisor;
+        return (dividend % divisor < 0) ? quotient - 1 : quotient;
+    }
+
+    /**
+     * Compute the positions of the indicators of the non-linear ruler.
+     *
+     * @param minValue     Minimum value of the ruler.
+     * @param maxValue     Maximum value of the ruler.
+     * @param intervalPx   Distance between two indicators in pixels.
+     * @param scaleMapping Non-linear scale or null for the linear ruler.
+     *
+     * @return Positions of the indicators or null for the linear ruler.
+     * @throws IllegalArgumentException if the mapping is not valid over the range.
+     */
+    @Nullable
+    static RulerTickTable createTickTable(final int minValue,
+                                          final int maxValue,
+                                          final int intervalPx,
+                                          @Nullable final RulerScaleMapping scaleMapping) {
+        return scaleMapping == null
+                ? null
+                : RulerTickTable.create(minValue, maxValue, intervalPx, scaleMapping);
+    }
+
+    /**
+     * @param scrollPx   Position of the ruler under the notch in pixels.
+     * @param minValue   Minimum value of the ruler.
+     * @param maxValue   Maximum value of the ruler.
+     * @param intervalPx Distance between two indicators in pixels.
+     * @param tickTable  Positions of the indicators of the non-linear ruler or null.
+     *
+     * @return Value selected at the given position, clamped to the range.
+     */
+    static int getValueAt(final int scrollPx,
+                          final int minValue,
+                          final int maxValue,
+                          final int intervalPx,
+                          @Nullable final RulerTickTable tickTable) {
+        if (tickTable == null) return RulerGeometry.getValueAt(scrollPx, minValue, maxValue, intervalPx);
+        return minValue + tickTable.getTickAtOrBefore(scrollPx);
+    }
+
+    /**
+     * @param value      Value to select. Values outside the range are clamped to the range.
+     * @param minValue   Minimum value of the ruler.
+     * @param maxValue   Maximum value of the ruler.
+     * @param intervalPx Distance between two indicators in pixels.
+     * @param tickTable  Positions of the indicators of the non-linear ruler or null.
+     *
+     * @return Position of the ruler, that selects the given value.
+     */
+    static int getScrollPxForValue(final int value,
+                                   final int minValue,
+                                   final int maxValue,
+                                   final int intervalPx,
+                                   @Nullable final RulerTickTable tickTable) {
+        if (tickTable == null) {
+            return RulerGeometry.getScrollPxForValue(value, minValue, maxValue, intervalPx);
+        }
+        final long tick = Math.max(0, Math.min((long) value - minValue, Integer.MAX_VALUE));
+        return tickTable.getPosition((int) tick);
+    }
+
+    /**
+     * @param scrollPx    Position of the ruler in pixels.
+     * @param maxScrollPx Maximum position of the ruler in pixels.
+     * @param intervalPx  Snap interval in pixels or 0 to only clamp the position.
+     * @param tickTable   Positions of the indicators of the non-linear ruler or null.
+     *
+     * @return Position of the nearest indicator between 0 and the maximum position.
+     */
+    static int snapScrollPx(final int scrollPx,
+                            final int maxScrollPx,
+                            final int intervalPx,
+                            @Nullable final RulerTickTable tickTable) {
+        if (tickTable == null) return RulerGeometry.snapScrollPx(scrollPx, maxScrollPx, intervalPx);
+        return Math.max(0, Math.min(tickTable.snap(scrollPx), maxScrollPx));
+    }
+
+    /**
+     * Check the style of the tick levels.
+     *
+     * @param levelCount   Number of the levels.
+     * @param heightRatios Ratio of the height of each level to the ruler height or null.
+     * @param colors       Color of each level or null.
+     * @param widthsPx     Width of each level in pixels or null.
+     *
+     * @throws IllegalArgumentException if any array doesn't have one entry per level, or any
+     *                                  height ratio is not between 0 and 1.
+     */
+    static void checkTickLevelStyle(final int levelCount,
+                                    @Nullable final float[] heightRatios,
+                                    @Nullable final int[] colors,
+                                    @Nullable final int[] widthsPx) {
+        if ((heightRatios != null && heightRatios.length != levelCount)
+                || (colors != null && colors.length != levelCount)
+                || (widthsPx != null && widthsPx.length != levelCount)) {
+            throw new IllegalArgumentException("Tick level style must have one entry per level.");
+        }
+        if (heightRatios == null) return;
+        for (float ratio : heightRatios) {
+            if (ratio < 0 || ratio > 1) {
+                throw new IllegalArgumentException("Tick level height must be between 0 to 1.");
+            }
+        }
+    }
+
+    /**
+     * Compute the height of the indicators of each level into the given array. The array is
+     * updated in place, so nothing is allocated when the height of the ruler changes.
+     *
+     * @param levelHeights     Array with one entry per level to write the heights to.
+     * @param heightRatios     Ratio of the height of each level to the ruler height or null to
+     *                         spread the heights evenly between the short and the long ratio.
+     * @param longHeightRatio  Ratio of the height of the coarsest level to the ruler height.
+     * @param shortHeightRatio Ratio of the height of the finest level to the ruler height.
+     * @param viewHeight       Height of the ruler in pixels.
+     *
+     * @return True if any of the heights changed.
+     */
+    static boolean computeLevelHeights(@NonNull final int[] levelHeights,
+                                       @Nullable final float[] heightRatios,
+                                       final float longHeightRatio,
+                                       final float shortHeightRatio,
+                                       final int viewHeight) {
+        final int levelCount = levelHeights.length;
+        boolean isChanged = false;
+        for (int level = 0; level < levelCount; level++) {
+            final float ratio;
+            if (heightRatios != null) {
+                ratio = heightRatios[level];
+            } else if (levelCount == 1) {
+                ratio = longHeightRatio;
+            } else {
+                ratio = shortHeightRatio + (longHeightRatio - shortHeightRatio) * level / (levelCount - 1);
+            }
+
+            final int height = (int) (viewHeight * ratio);
+            if (height == levelHeights[level]) continue;
+            levelHeights[level] = height;
+            isChanged = true;
+        }
+        return isChanged;
+    }
+
+    /**
+     * Update the paints of the tick levels in place. Levels with the same color and width share
+     * the paint, so they are drawn together. Paints are taken from the pool in order and copied
+     * from the indicator paint, so no paint is created.
+     *
+     * @param indicatorPaint {@link Paint} to derive the paints of the levels from.
+     * @param paintPool      One {@link Paint} per level to derive the paints of the levels into.
+     * @param levelPaints    Array with one entry per level to write the paint of each level to.
+     * @param colors         Color of each level or null to use the color of the indicator paint.
+     * @param widthsPx       Width of each level in pixels or null to use the width of the
+     *                       indicator paint.
+     */
+    static void updateLevelPaints(@NonNull final Paint indicatorPaint,
+                                  @NonNull final Paint[] paintPool,
+                                  @NonNull final Paint[] levelPaints,
+                                  @Nullable final int[] colors,
+                                  @Nullable final int[] widthsPx) {
+        int usedPaints = 0;
+        for (int level = 0; level < levelPaints.length; level++) {
+            final int color = colors == null ? indicatorPaint.getColor() : colors[level];
+            final float width = widthsPx == null ? indicatorPaint.getStrokeWidth() : widthsPx[level];
+            levelPaints[level] = null;
+            for (int previous = 0; previous < level && levelPaints[level] == null; previous++) {
+                if (levelPaints[previous].getColor() == color
+                        && levelPaints[previous].getStrokeWidth() == width) {
+                    levelPaints[level] = levelPaints[previous];
+                }
+            }
+            if (levelPaints[level] != null) continue;
+
+            final Paint paint = paintPool[usedPaints++];
+            paint.set(indicatorPaint);
+            paint.setColor(color);
+            paint.setStrokeWidth(width);
+            levelPaints[level] = paint;
+        }
+    }
+
+    /**
+     * Read the tick levels from the XML attributes.
+     *
+     * @param resources       {@link Resources} to read the arrays from.
+     * @param a               {@link TypedArray} with the attributes.
+     * @param intervalsIndex  Index of the attribute with the integer array of the intervals.
+     * @param labelLevelIndex Index of the attribute with the label level. Coarsest level
+     *                        displays the values if the attribute is not set.
+     *
+     * @return {@link RulerTickLevels} or null if the intervals are not set.
+     * @throws IllegalArgumentException if the levels are not valid.
+     */
+    @Nullable
+    static RulerTickLevels getTickLevels(@NonNull final Resources resources,
+                                         @NonNull final TypedArray a,
+                                         final int intervalsIndex,
+                                         final int labelLevelIndex) {
+        final int intervalsId = a.getResourceId(intervalsIndex, 0);
+        if (intervalsId == 0) return null;
+
+        final int[] intervals = resources.getIntArray(intervalsId);
+        return new RulerTickLevels(intervals, a.getInteger(labelLevelIndex, intervals.length - 1));
+    }
+
+    /**
+     * @param resources {@link Resources} to read the array from.
+     * @param a         {@link TypedArray} with the attributes.
+     * @param index     Index of the attribute with the array of the fractions, e.g. "60%".
+     *
+     * @return Fractions of the array or null if the attribute is not set.
+     */
+    @Nullable
+    static float[] getFractionArray(@NonNull final Resources resources,
+                                    @NonNull final TypedArray a,
+                                    final int index) {
+        final int arrayId = a.getResourceId(index, 0);
+        if (arrayId == 0) return null;
+
+        final TypedArray array = resources.obtainTypedArray(arrayId);
+        try {
+            final float[] fractions = new float[array.length()];
+            for (int i = 0; i < fractions.length; i++) fractions[i] = array.getFraction(i, 1, 1, 0);
+            return fractions;
+        } finally {
+            array.recycle();
+        }
+    }
+
+    /**
+     * @param resources {@link Resources} to read the array from.
+     * @param a         {@link TypedArray} with the attributes.
+     * @param index     Index of the attribute with the array of the colors.
+     *
+     * @return Colors of the array or null if the attribute is not set.
+     */
+    @Nullable
+    static int[] getColorArray(@NonNull final Resources resources,
+                               @NonNull final TypedArray a,
+                               final int index) {
+        final int arrayId = a.getResourceId(index, 0);
+        if (arrayId == 0) return null;
+
+        final TypedArray array = resources.obtainTypedArray(arrayId);
+        try {
+            final int[] colors = new int[array.length()];
+            for (int i = 0; i < colors.length; i++) colors[i] = array.getColor(i, Color.WHITE);
+            return colors;
+        } finally {
+            array.recycle();
+        }
+    }
+
+    /**
+     * @param resources {@link Resources} to read the array from.
+     * @param a         {@link TypedArray} with the attributes.
+     * @param index     Index of the attribute with the array of the dimensions.
+     *
+     * @return Dimensions of the array in pixels or null if the attribute is not set.
+     */
+    @Nullable
+    static int[] getDimensionArray(@NonNull final Resources resources,
+                                   @NonNull final TypedArray a,
+                                   final int index) {
+        final int arrayId = a.getResourceId(index, 0);
+        if (arrayId == 0) return null;
+
+        final TypedArray array = resources.obtainTypedArray(arrayId);
+        try {
+            final int[] dimensions = new int[array.length()];
+            for (int i = 0; i < dimensions.length; i++) dimensions[i] = array.getDimensionPixelSize(i, 0);
+            return dimensions;
+        } finally {
+            array.recycle();
+        }
+    }
 }
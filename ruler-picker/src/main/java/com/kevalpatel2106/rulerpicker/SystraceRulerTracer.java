@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+import android.support.annotation.NonNull;
+import android.support.v4.os.TraceCompat;
+
+/**
+ * Default {@link RulerTracer}, that writes the sections to the systrace. Sections are ignored
+ * below API 18 and while the app is not traced.
+ */
+final class SystraceRulerTracer implements RulerTracer {
+
+    static final SystraceRulerTracer INSTANCE = new SystraceRulerTracer();
+
+    private SystraceRulerTracer() {
+        //Use the shared instance.
+    }
+
+    @Override
+    public void beginSection(@NonNull final String sectionName) {
+        TraceCompat.beginSection(sectionName);
+    }
+
+    @Override
+    public void endSection() {
+        TraceCompat.endSection();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.support.annotation.NonNull;
+
+import java.util.TimeZone;
+
+/**
+ * Formats the epoch milliseconds as the time of the day in the given time zone: "14:30", or
+ * "14:30:15" if the seconds are not zero. Midnight is formatted as the date, e.g. "03-12" for
+ * 12 March, so the day boundaries stand out on the timeline. This is the default formatter of the
+ * {@link RulerTimelinePicker}.
+ * <p>
+ * The time zone is read once in the constructor, and the labels are composed from the digits
+ * without {@link java.util.Calendar} or {@link java.text.DateFormat}, so formatting doesn't
+ * allocate anything. The formatter has no mutable state, so it is thread safe.
+ *
+ * @see RulerTimelinePicker#setLabelFormatter(RulerLabelFormatter)
+ */
+public final class TimeRulerLabelFormatter implements RulerLabelFormatter {
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    private static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+
+    private static final long MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+
+    private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+
+    /**
+     * Time zone of the labels. This is a private copy, so the changes of the default time zone
+     * don't affect the cached labels.
+     */
+    @NonNull
+    private final TimeZone mTimeZone;
+
+    /**
+     * Format the times in the default time zone of the device.
+     */
+    public TimeRulerLabelFormatter() {
+        this(TimeZone.getDefault());
+    }
+
+    /**
+     * @param timeZone {@link TimeZone} to format the times in. The time zone is copied.
+     */
+    public TimeRulerLabelFormatter(@NonNull final TimeZone timeZone) {
+        mTimeZone = (TimeZone) timeZone.clone();
+    }
+
+    @Override
+    public void formatLabel(final long value, @NonNull final StringBuilder out) {
+        final long localMillis = value + mTimeZone.getOffset(value);
+        final long epochDay = floorDiv(localMillis, MILLIS_PER_DAY);
+        final long millisOfDay = localMillis - epochDay * MILLIS_PER_DAY;
+
+        if (millisOfDay == 0) {
+            appendDate(epochDay, out);
+            return;
+        }
+
+        appendTwoDigits((int) (millisOfDay / MILLIS_PER_HOUR), out);
+        out.append(':');
+        appendTwoDigits((int) (millisOfDay % MILLIS_PER_HOUR / MILLIS_PER_MINUTE), out);
+
+        final int seconds = (int) (millisOfDay % MILLIS_PER_MINUTE / MILLIS_PER_SECOND);
+        if (seconds != 0) {
+            out.append(':');
+            appendTwoDigits(seconds, out);
+        }
+    }
+
+    /**
+     * Append the month and the day of the month as "MM-dd". The date is computed from the days
+     * since the epoch with the proleptic Gregorian calendar.
+     *
+     * @param epochDay Days since 1970-01-01.
+     * @param out      Buffer to append to.
+     */
+    private static void appendDate(final long epochDay, @NonNull final StringBuilder out) {
+        //Shift the epoch to 0000-03-01, so the leap day is the last day of the year.
+        final long days = epochDay + 719468;
+        final long era = floorDiv(days, 146097);
+        final long dayOfEra = days - era * 146097;
+        final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        final long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        final int dayOfMonth = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        final int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+
+        appendTwoDigits(month, out);
+        out.append('-');
+        appendTwoDigits(dayOfMonth, out);
+    }
+
+    /**
+     * @param number Number between 0 and 99.
+     * @param out    Buffer to append the number with the leading zero to.
+     */
+    private static void appendTwoDigits(final int number, @NonNull final StringBuilder out) {
+        out.append((char) ('0' + number / 10));
+        out.append((char) ('0' + number % 10));
+    }
+
+    /**
+     * @return Largest number not greater than the quotient.
+     */
+    private static long floorDiv(final long dividend, final long divisor) {
+        final long quotient = dividend / divisor;
+        return (dividend % divisor != 0 && (dividend < 0) != (divisor < 0)) ? quotient - 1 : quotient;
+    }
+}
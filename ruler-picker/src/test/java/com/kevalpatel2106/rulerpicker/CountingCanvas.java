@@ -0,0 +1,171 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.annotation.NonNull;
+
+/**
+ * {@link Canvas}, that only counts the draw operations the ruler uses. Nothing is drawn, so
+ * counting doesn't allocate anything. The clip bounds are set by the test, so the view draws the
+ * part of the ruler the test is interested in. The save, translate, clip and restore calls are
+ * not passed to the Robolectric shadow either, so the shadows don't add to the allocation.
+ */
+final class CountingCanvas extends Canvas {
+
+    @NonNull
+    private final Rect mClipBounds = new Rect();
+
+    private int mDrawOpCount = 0;
+
+    private int mSaveCount = 1;
+
+    /**
+     * Reset the count and set the part of the view to draw.
+     *
+     * @param left   Left edge of the clip in pixels.
+     * @param right  Right edge of the clip in pixels.
+     * @param height Height of the clip in pixels.
+     */
+    void reset(final int left, final int right, final int height) {
+        mClipBounds.set(left, 0, right, height);
+        mDrawOpCount = 0;
+        mSaveCount = 1;
+    }
+
+    /**
+     * @return Number of the draw operations since the last {@link #reset(int, int, int)}.
+     */
+    int getDrawOpCount() {
+        return mDrawOpCount;
+    }
+
+    @Override
+    public boolean getClipBounds(final Rect bounds) {
+        bounds.set(mClipBounds);
+        return !mClipBounds.isEmpty();
+    }
+
+    @Override
+    public int save() {
+        return mSaveCount++;
+    }
+
+    @Override
+    public void restore() {
+        if (mSaveCount <= 1) throw new IllegalStateException("Underflow in restore.");
+        mSaveCount--;
+    }
+
+    @Override
+    public int getSaveCount() {
+        return mSaveCount;
+    }
+
+    @Override
+    public void translate(final float dx, final float dy) {
+        //Nothing is drawn, so the offset doesn't matter.
+    }
+
+    @Override
+    public boolean clipRect(final int left, final int top, final int right, final int bottom) {
+        //Clip of the test is set by reset().
+        return true;
+    }
+
+    @Override
+    public void drawLine(final float startX, final float startY, final float stopX, final float stopY,
+                         @NonNull final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawLines(@NonNull final float[] pts, final int offset, final int count,
+                          @NonNull final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawLines(@NonNull final float[] pts, @NonNull final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawRect(final float left, final float top, final float right, final float bottom,
+                         @NonNull final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawRect(@NonNull final RectF rect, @NonNull final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawRect(@NonNull final Rect r, @NonNull final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawPath(@NonNull final Path path, @NonNull final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawBitmap(@NonNull final Bitmap bitmap, final float left, final float top,
+                           final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawBitmap(@NonNull final Bitmap bitmap, final Rect src, @NonNull final Rect dst,
+                           final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawBitmap(@NonNull final Bitmap bitmap, final Rect src, @NonNull final RectF dst,
+                           final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawText(@NonNull final char[] text, final int index, final int count,
+                         final float x, final float y, @NonNull final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawText(@NonNull final String text, final float x, final float y,
+                         @NonNull final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawText(@NonNull final String text, final int start, final int end,
+                         final float x, final float y, @NonNull final Paint paint) {
+        mDrawOpCount++;
+    }
+
+    @Override
+    public void drawText(@NonNull final CharSequence text, final int start, final int end,
+                         final float x, final float y, @NonNull final Paint paint) {
+        mDrawOpCount++;
+    }
+}
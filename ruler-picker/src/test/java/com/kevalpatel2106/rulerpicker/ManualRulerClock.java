@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+/**
+ * {@link RulerClock} that moves only when it is told to, so the tests run the scroll animations
+ * of the picker deterministically.
+ *
+ * @see RulerScrollSimulator
+ */
+final class ManualRulerClock implements RulerClock {
+
+    private long mTimeMillis;
+
+    /**
+     * Create the clock starting at 0.
+     */
+    ManualRulerClock() {
+        this(0);
+    }
+
+    /**
+     * @param startTimeMillis Initial time in milliseconds.
+     */
+    ManualRulerClock(final long startTimeMillis) {
+        mTimeMillis = startTimeMillis;
+    }
+
+    @Override
+    public long uptimeMillis() {
+        return mTimeMillis;
+    }
+
+    /**
+     * Move the clock forward.
+     *
+     * @param millis Time to add in milliseconds.
+     * @throws IllegalArgumentException if the time is negative.
+     */
+    void advance(final long millis) {
+        if (millis < 0) throw new IllegalArgumentException("Clock cannot go backwards.");
+        mTimeMillis += millis;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * {@link RulerTracer} that records the name, the nesting depth and the duration of every section
+ * in memory, so the tests can check how often and how long the picker measures, lays out, draws
+ * or snaps. Durations are measured with {@link System#nanoTime()}.
+ * <p>
+ * Sections are kept in the parallel arrays, that grow only while the capacity is exceeded, so
+ * recording doesn't box the durations and doesn't allocate once the arrays are large enough.
+ *
+ * @see RulerValuePicker#setTracer(RulerTracer)
+ */
+final class RecordingRulerTracer implements RulerTracer {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Names of the completed sections in the order they ended.
+     */
+    @NonNull
+    private String[] mSpanNames = new String[INITIAL_CAPACITY];
+
+    /**
+     * Durations of the completed sections in nanoseconds.
+     */
+    @NonNull
+    private long[] mSpanDurations = new long[INITIAL_CAPACITY];
+
+    /**
+     * Number of the sections, that were open around each completed section.
+     */
+    @NonNull
+    private int[] mSpanDepths = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of the completed sections.
+     */
+    private int mSpanCount = 0;
+
+    /**
+     * Names of the open sections, innermost last.
+     */
+    @NonNull
+    private String[] mOpenNames = new String[INITIAL_CAPACITY];
+
+    /**
+     * Start times of the open sections, innermost last.
+     */
+    @NonNull
+    private long[] mOpenStarts = new long[INITIAL_CAPACITY];
+
+    /**
+     * Number of the open sections.
+     */
+    private int mOpenCount = 0;
+
+    @Override
+    public void beginSection(@NonNull final String sectionName) {
+        if (mOpenCount == mOpenNames.length) {
+            mOpenNames = Arrays.copyOf(mOpenNames, mOpenCount * 2);
+            mOpenStarts = Arrays.copyOf(mOpenStarts, mOpenCount * 2);
+        }
+        mOpenNames[mOpenCount] = sectionName;
+        mOpenStarts[mOpenCount] = System.nanoTime();
+        mOpenCount++;
+    }
+
+    @Override
+    public void endSection() {
+        if (mOpenCount == 0) throw new IllegalStateException("No section to end.");
+        final long endNanos = System.nanoTime();
+        mOpenCount--;
+
+        if (mSpanCount == mSpanNames.length) {
+            mSpanNames = Arrays.copyOf(mSpanNames, mSpanCount * 2);
+            mSpanDurations = Arrays.copyOf(mSpanDurations, mSpanCount * 2);
+            mSpanDepths = Arrays.copyOf(mSpanDepths, mSpanCount * 2);
+        }
+        mSpanNames[mSpanCount] = mOpenNames[mOpenCount];
+        mSpanDurations[mSpanCount] = endNanos - mOpenStarts[mOpenCount];
+        mSpanDepths[mSpanCount] = mOpenCount;
+        mSpanCount++;
+
+        mOpenNames[mOpenCount] = null;
+    }
+
+    /**
+     * @return Number of the completed sections.
+     */
+    @CheckResult
+    int getSpanCount() {
+        return mSpanCount;
+    }
+
+    /**
+     * @return Number of the sections, that began and didn't end yet.
+     */
+    @CheckResult
+    int getOpenCount() {
+        return mOpenCount;
+    }
+
+    /**
+     * @param index Index of the completed section, in the order the sections ended.
+     * @return Name of the section.
+     */
+    @NonNull
+    @CheckResult
+    String getSpanName(final int index) {
+        checkIndex(index);
+        return mSpanNames[index];
+    }
+
+    /**
+     * @param index Index of the completed section, in the order the sections ended.
+     * @return Duration of the section in nanoseconds.
+     */
+    @CheckResult
+    long getSpanDurationNanos(final int index) {
+        checkIndex(index);
+        return mSpanDurations[index];
+    }
+
+    /**
+     * @param index Index of the completed section, in the order the sections ended.
+     * @return Number of the sections, that were open around the section. 0 for the outermost one.
+     */
+    @CheckResult
+    int getSpanDepth(final int index) {
+        checkIndex(index);
+        return mSpanDepths[index];
+    }
+
+    /**
+     * @param sectionName Name of the section.
+     * @return Number of the completed sections with the given name.
+     */
+    @CheckResult
+    int getSpanCount(@NonNull final String sectionName) {
+        int count = 0;
+        for (int i = 0; i < mSpanCount; i++) {
+            if (mSpanNames[i].equals(sectionName)) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param sectionName Name of the section.
+     * @return Total duration of the completed sections with the given name in nanoseconds.
+     */
+    @CheckResult
+    long getTotalDurationNanos(@NonNull final String sectionName) {
+        long total = 0;
+        for (int i = 0; i < mSpanCount; i++) {
+            if (mSpanNames[i].equals(sectionName)) total += mSpanDurations[i];
+        }
+        return total;
+    }
+
+    /**
+     * Remove all the recorded sections. Open sections are kept.
+     */
+    void clear() {
+        Arrays.fill(mSpanNames, 0, mSpanCount, null);
+        mSpanCount = 0;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= mSpanCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", span count: " + mSpanCount);
+        }
+    }
+}
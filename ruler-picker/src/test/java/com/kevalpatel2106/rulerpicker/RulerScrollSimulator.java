@@ -0,0 +1,318 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+package com.kevalpatel2106.rulerpicker;
+
+import android.support.annotation.CheckResult;
+import android.support.annotation.NonNull;
+import android.view.MotionEvent;
+import android.view.View;
+
+import java.util.Arrays;
+
+/**
+ * Drives the picker with the synthetic drags and flings without the display, and records the
+ * timeline of the {@link RulerValuePickerListener} events. Time is controlled by the
+ * {@link ManualRulerClock}, so the same input always produces the same timeline. Use this to
+ * check the event order and the latency, for example that the final value arrives within one
+ * frame after the scroll settles. Events are kept in the parallel primitive arrays, so recording
+ * doesn't box the values.
+ * <p>
+ * Simulator replaces the clock and the {@link RulerValuePickerListener} of the picker. Picker must
+ * be measured and laid out before the first gesture. Frames are run by the simulator, one per
+ * {@link #FRAME_MILLIS}, in the order the platform runs them: touch event, then the scroll and the
+ * posted frame callbacks.
+ *
+ * @see RulerValuePicker#setClock(RulerClock)
+ * @see FlatRulerValuePicker#setClock(RulerClock)
+ */
+final class RulerScrollSimulator {
+
+    /**
+     * Event of the {@link RulerValuePickerListener#onIntermediateValueChange(int)}.
+     */
+    static final int EVENT_INTERMEDIATE_VALUE = 1;
+
+    /**
+     * Event of the {@link RulerValuePickerListener#onValueChange(int)}.
+     */
+    static final int EVENT_VALUE = 2;
+
+    /**
+     * Duration of one simulated frame in milliseconds.
+     */
+    static final long FRAME_MILLIS = 16;
+
+    /**
+     * Time without the finger movement, after which the release doesn't start the fling. This is
+     * longer than the velocity horizon of the {@link android.view.VelocityTracker}.
+     */
+    private static final long HOLD_MILLIS = 150;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    @NonNull
+    private final View mPicker;
+
+    @NonNull
+    private final ManualRulerClock mClock = new ManualRulerClock();
+
+    /**
+     * Type of each event in the timeline: {@link #EVENT_INTERMEDIATE_VALUE} or {@link #EVENT_VALUE}.
+     */
+    @NonNull
+    private int[] mEventTypes = new int[INITIAL_CAPACITY];
+
+    /**
+     * Value reported by each event in the timeline.
+     */
+    @NonNull
+    private int[] mEventValues = new int[INITIAL_CAPACITY];
+
+    /**
+     * Time of the {@link #mClock} when each event in the timeline was reported.
+     */
+    @NonNull
+    private long[] mEventTimes = new long[INITIAL_CAPACITY];
+
+    /**
+     * Number of the events in the timeline.
+     */
+    private int mEventCount = 0;
+
+    /**
+     * Records the events of the picker into the timeline.
+     */
+    @NonNull
+    private final RulerValuePickerListener mTimelineRecorder = new RulerValuePickerListener() {
+        @Override
+        public void onValueChange(final int selectedValue) {
+            recordEvent(EVENT_VALUE, selectedValue);
+        }
+
+        @Override
+        public void onIntermediateValueChange(final int selectedValue) {
+            recordEvent(EVENT_INTERMEDIATE_VALUE, selectedValue);
+        }
+    };
+
+    /**
+     * Down time of the gesture in progress.
+     */
+    private long mDownTimeMillis;
+
+    /**
+     * Horizontal position of the finger in the gesture in progress.
+     */
+    private float mTouchX;
+
+    /**
+     * @param picker {@link RulerValuePicker} to drive.
+     */
+    RulerScrollSimulator(@NonNull final RulerValuePicker picker) {
+        mPicker = picker;
+        picker.setClock(mClock);
+        picker.setValuePickerListener(mTimelineRecorder);
+    }
+
+    /**
+     * @param picker {@link FlatRulerValuePicker} to drive.
+     */
+    RulerScrollSimulator(@NonNull final FlatRulerValuePicker picker) {
+        mPicker = picker;
+        picker.setClock(mClock);
+        picker.setValuePickerListener(mTimelineRecorder);
+    }
+
+    /**
+     * @return {@link ManualRulerClock} of the simulation. Timeline is stamped with its time.
+     */
+    @NonNull
+    @CheckResult
+    ManualRulerClock getClock() {
+        return mClock;
+    }
+
+    /**
+     * Drag the ruler and release it without the fling. The ruler then settles on the nearest
+     * value. Run {@link #runFrames(int)} to let it settle.
+     *
+     * @param dxPx           Horizontal distance of the finger movement in pixels. Negative
+     *                       values move the finger to the left, which selects the bigger values.
+     * @param durationMillis Duration of the movement in milliseconds.
+     */
+    void drag(final int dxPx, final long durationMillis) {
+        touchDown();
+        moveBy(dxPx, durationMillis);
+        hold();
+        release();
+    }
+
+    /**
+     * Swipe the ruler and release it while the finger is still moving. If the movement is fast
+     * enough, the ruler flings. Run {@link #runFrames(int)} to let the fling finish.
+     *
+     * @param dxPx           Horizontal distance of the finger movement in pixels. Negative
+     *                       values move the finger to the left, which selects the bigger values.
+     * @param durationMillis Duration of the movement in milliseconds.
+     */
+    void fling(final int dxPx, final long durationMillis) {
+        touchDown();
+        moveBy(dxPx, durationMillis);
+        release();
+    }
+
+    /**
+     * Put the finger in the middle of the picker.
+     */
+    void touchDown() {
+        mDownTimeMillis = mClock.uptimeMillis();
+        mTouchX = mPicker.getWidth() / 2f;
+        dispatchTouchEvent(MotionEvent.ACTION_DOWN);
+        runPickerFrame();
+    }
+
+    /**
+     * Move the finger at the constant speed, one movement per frame.
+     *
+     * @param dxPx           Horizontal distance of the movement in pixels.
+     * @param durationMillis Duration of the movement in milliseconds.
+     */
+    void moveBy(final int dxPx, final long durationMillis) {
+        final int frames = (int) Math.max(1, durationMillis / FRAME_MILLIS);
+        final float startX = mTouchX;
+        for (int frame = 1; frame <= frames; frame++) {
+            mClock.advance(FRAME_MILLIS);
+            mTouchX = startX + (float) dxPx * frame / frames;
+            dispatchTouchEvent(MotionEvent.ACTION_MOVE);
+            runPickerFrame();
+        }
+    }
+
+    /**
+     * Keep the finger still long enough that the release doesn't start the fling.
+     */
+    void hold() {
+        runFrames((int) (HOLD_MILLIS / FRAME_MILLIS) + 1);
+    }
+
+    /**
+     * Lift the finger.
+     */
+    void release() {
+        mClock.advance(FRAME_MILLIS);
+        dispatchTouchEvent(MotionEvent.ACTION_UP);
+        runPickerFrame();
+    }
+
+    /**
+     * Run the frames without any input.
+     *
+     * @param frameCount Number of the frames to run.
+     */
+    void runFrames(final int frameCount) {
+        for (int i = 0; i < frameCount; i++) {
+            mClock.advance(FRAME_MILLIS);
+            runPickerFrame();
+        }
+    }
+
+    /**
+     * @return Number of the events in the timeline.
+     */
+    @CheckResult
+    int getEventCount() {
+        return mEventCount;
+    }
+
+    /**
+     * @param index Index of the event in the timeline.
+     * @return {@link #EVENT_INTERMEDIATE_VALUE} or {@link #EVENT_VALUE}.
+     */
+    @CheckResult
+    int getEventType(final int index) {
+        checkIndex(index);
+        return mEventTypes[index];
+    }
+
+    /**
+     * @param index Index of the event in the timeline.
+     * @return Value reported by the event.
+     */
+    @CheckResult
+    int getEventValue(final int index) {
+        checkIndex(index);
+        return mEventValues[index];
+    }
+
+    /**
+     * @param index Index of the event in the timeline.
+     * @return Time of the {@link #getClock()} when the event was reported, in milliseconds.
+     */
+    @CheckResult
+    long getEventTimeMillis(final int index) {
+        checkIndex(index);
+        return mEventTimes[index];
+    }
+
+    /**
+     * Remove all the events from the timeline.
+     */
+    void clearEvents() {
+        mEventCount = 0;
+    }
+
+    private void recordEvent(final int type, final int value) {
+        if (mEventCount == mEventTypes.length) {
+            mEventTypes = Arrays.copyOf(mEventTypes, mEventCount * 2);
+            mEventValues = Arrays.copyOf(mEventValues, mEventCount * 2);
+            mEventTimes = Arrays.copyOf(mEventTimes, mEventCount * 2);
+        }
+        mEventTypes[mEventCount] = type;
+        mEventValues[mEventCount] = value;
+        mEventTimes[mEventCount] = mClock.uptimeMillis();
+        mEventCount++;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= mEventCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", event count: " + mEventCount);
+        }
+    }
+
+    /**
+     * Dispatch the touch event at the current finger position and the current time.
+     *
+     * @param action Action of the event.
+     */
+    private void dispatchTouchEvent(final int action) {
+        final MotionEvent event = MotionEvent.obtain(mDownTimeMillis,
+                mClock.uptimeMillis(),
+                action,
+                mTouchX,
+                mPicker.getHeight() / 2f,
+                0);
+        mPicker.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+    /**
+     * Run the scroll and the frame callbacks of the picker for the current time.
+     */
+    private void runPickerFrame() {
+        if (mPicker instanceof RulerValuePicker) {
+            ((RulerValuePicker) mPicker).runFrame();
+        } else {
+            ((FlatRulerValuePicker) mPicker).runFrame();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.graphics.Bitmap;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Eviction order and the bitmap reuse of the {@link RulerTileCache}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class RulerTileCacheTest {
+
+    private static final int TILE_HEIGHT_PX = 4;
+
+    private static final int OTHER_TILE_HEIGHT_PX = 8;
+
+    @Test
+    public void evictsTheLeastRecentlyUsedTile() {
+        final RulerTileCache cache = createCache(3);
+        final Bitmap first = createTile();
+        cache.put(0, first);
+        cache.put(1, createTile());
+        cache.put(2, createTile());
+
+        //Refresh the first tile, so the second one is the least recently used.
+        assertSame(first, cache.get(0));
+        cache.put(3, createTile());
+
+        assertSame(first, cache.get(0));
+        assertNull(cache.get(1));
+        assertNotNull(cache.get(2));
+        assertNotNull(cache.get(3));
+    }
+
+    @Test
+    public void evictsUntilTheTilesFitTheBudget() {
+        final RulerTileCache cache = createCache(2);
+        for (int tileIndex = 0; tileIndex < 100; tileIndex++) cache.put(tileIndex, createTile());
+
+        for (int tileIndex = 0; tileIndex < 98; tileIndex++) assertNull(cache.get(tileIndex));
+        assertNotNull(cache.get(98));
+        assertNotNull(cache.get(99));
+    }
+
+    @Test
+    public void replacesTheTileWithTheSameIndex() {
+        final RulerTileCache cache = createCache(2);
+        final Bitmap oldTile = createTile();
+        final Bitmap newTile = createTile();
+        cache.put(-5, oldTile);
+        cache.put(-5, newTile);
+        cache.put(7, createTile());
+
+        assertSame(newTile, cache.get(-5));
+        assertNotNull(cache.get(7));
+
+        //Replaced bitmap is reusable after the next frame.
+        cache.releaseRetiredTiles();
+        assertSame(oldTile, cache.obtainTile(TILE_HEIGHT_PX));
+    }
+
+    @Test
+    public void evictedTileIsReusableAfterTheNextFrame() {
+        final RulerTileCache cache = createCache(1);
+        final Bitmap evicted = createTile();
+        cache.put(0, evicted);
+        cache.put(1, createTile());
+
+        //Last frame may still draw the evicted bitmap.
+        assertNull(cache.obtainTile(TILE_HEIGHT_PX));
+
+        cache.releaseRetiredTiles();
+        assertSame(evicted, cache.obtainTile(TILE_HEIGHT_PX));
+        assertNull(cache.obtainTile(TILE_HEIGHT_PX));
+    }
+
+    @Test
+    public void obtainDropsTheTilesOfOtherHeight() {
+        final RulerTileCache cache = createCache(1);
+        cache.recycleTile(createTile());
+
+        assertNull(cache.obtainTile(OTHER_TILE_HEIGHT_PX));
+        assertNull(cache.obtainTile(TILE_HEIGHT_PX));
+    }
+
+    @Test
+    public void clearRemovesAllTheTiles() {
+        final RulerTileCache cache = createCache(4);
+        final Bitmap first = createTile();
+        final Bitmap second = createTile();
+        cache.put(0, first);
+        cache.put(1, second);
+
+        cache.clear();
+
+        assertNull(cache.get(0));
+        assertNull(cache.get(1));
+        cache.releaseRetiredTiles();
+        assertNotNull(cache.obtainTile(TILE_HEIGHT_PX));
+        assertNotNull(cache.obtainTile(TILE_HEIGHT_PX));
+    }
+
+    /**
+     * @param maxTiles Number of the tiles that fit the memory budget.
+     * @return Empty cache.
+     */
+    private static RulerTileCache createCache(final int maxTiles) {
+        return new RulerTileCache(maxTiles * createTile().getByteCount());
+    }
+
+    private static Bitmap createTile() {
+        return Bitmap.createBitmap(RulerTileCache.TILE_WIDTH_PX, TILE_HEIGHT_PX, Bitmap.Config.ARGB_8888);
+    }
+}
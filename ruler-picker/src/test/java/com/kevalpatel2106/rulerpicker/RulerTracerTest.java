@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Nesting and the order of the sections recorded by the {@link RecordingRulerTracer}, and the
+ * sections the {@link RulerValuePicker} marks.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class RulerTracerTest {
+
+    private static final int VIEW_WIDTH_PX = 1080;
+
+    private static final int VIEW_HEIGHT_PX = 300;
+
+    @Test
+    public void recordsTheSectionsInTheOrderTheyEnd() {
+        final RecordingRulerTracer tracer = new RecordingRulerTracer();
+        tracer.beginSection(RulerTracer.SECTION_LAYOUT);
+        tracer.beginSection(RulerTracer.SECTION_MEASURE);
+        tracer.endSection();
+        tracer.beginSection(RulerTracer.SECTION_DRAW);
+        tracer.endSection();
+        tracer.endSection();
+
+        assertEquals(0, tracer.getOpenCount());
+        assertEquals(3, tracer.getSpanCount());
+        assertEquals(RulerTracer.SECTION_MEASURE, tracer.getSpanName(0));
+        assertEquals(RulerTracer.SECTION_DRAW, tracer.getSpanName(1));
+        assertEquals(RulerTracer.SECTION_LAYOUT, tracer.getSpanName(2));
+        assertEquals(1, tracer.getSpanDepth(0));
+        assertEquals(1, tracer.getSpanDepth(1));
+        assertEquals(0, tracer.getSpanDepth(2));
+
+        //Outer section lasts at least as long as the inner ones.
+        assertTrue(tracer.getSpanDurationNanos(2)
+                >= tracer.getSpanDurationNanos(0) + tracer.getSpanDurationNanos(1));
+    }
+
+    @Test
+    public void growsBeyondTheInitialCapacity() {
+        final RecordingRulerTracer tracer = new RecordingRulerTracer();
+        for (int depth = 0; depth < 100; depth++) tracer.beginSection(RulerTracer.SECTION_DRAW);
+        assertEquals(100, tracer.getOpenCount());
+
+        for (int depth = 0; depth < 100; depth++) tracer.endSection();
+        assertEquals(100, tracer.getSpanCount(RulerTracer.SECTION_DRAW));
+        assertEquals(99, tracer.getSpanDepth(0));
+        assertEquals(0, tracer.getSpanDepth(99));
+
+        tracer.clear();
+        assertEquals(0, tracer.getSpanCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void endWithoutBeginThrows() {
+        new RecordingRulerTracer().endSection();
+    }
+
+    @Test
+    public void pickerSectionsAreNested() {
+        final RecordingRulerTracer tracer = new RecordingRulerTracer();
+        final RulerValuePicker picker = new RulerValuePicker(RuntimeEnvironment.application);
+        picker.setTracer(tracer);
+        picker.setMinMaxValue(0, 100);
+
+        picker.measure(View.MeasureSpec.makeMeasureSpec(VIEW_WIDTH_PX, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(VIEW_HEIGHT_PX, View.MeasureSpec.EXACTLY));
+        picker.layout(0, 0, VIEW_WIDTH_PX, VIEW_HEIGHT_PX);
+
+        assertEquals(0, tracer.getOpenCount());
+        assertTrue(tracer.getSpanCount(RulerTracer.SECTION_MEASURE) >= 1);
+        assertEquals(1, tracer.getSpanCount(RulerTracer.SECTION_LAYOUT));
+        assertEquals(RulerTracer.SECTION_LAYOUT, tracer.getSpanName(tracer.getSpanCount() - 1));
+        assertEquals(0, tracer.getSpanDepth(tracer.getSpanCount() - 1));
+
+        //Jump reports the value inside the selection.
+        tracer.clear();
+        picker.selectValue(50, false);
+
+        assertEquals(0, tracer.getOpenCount());
+        assertEquals(2, tracer.getSpanCount());
+        assertEquals(RulerTracer.SECTION_SCROLL_STOPPED, tracer.getSpanName(0));
+        assertEquals(1, tracer.getSpanDepth(0));
+        assertEquals(RulerTracer.SECTION_SELECT_VALUE, tracer.getSpanName(1));
+        assertEquals(0, tracer.getSpanDepth(1));
+
+        //Picker -> scroll view -> container -> left spacer, ruler, right spacer.
+        final ViewGroup container = (ViewGroup) ((ViewGroup) picker.getChildAt(0)).getChildAt(0);
+        final RulerView rulerView = (RulerView) container.getChildAt(1);
+        final CountingCanvas canvas = new CountingCanvas();
+        canvas.reset(0, rulerView.getRulerWidth(), VIEW_HEIGHT_PX);
+
+        tracer.clear();
+        rulerView.onDraw(canvas);
+
+        assertEquals(0, tracer.getOpenCount());
+        assertEquals(1, tracer.getSpanCount());
+        assertEquals(RulerTracer.SECTION_DRAW, tracer.getSpanName(0));
+        assertEquals(0, tracer.getSpanDepth(0));
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.graphics.Color;
+import android.support.annotation.NonNull;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.kevalpatel2106.rulerpicker.geometry.RulerGeometry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Upper bounds of the work the {@link RulerValuePicker} does per frame and per setter call: draw
+ * operations and allocated bytes per {@link RulerView#onDraw(android.graphics.Canvas)}, and
+ * measure passes of the ruler per setter call. Draw operations must depend on the width of the
+ * view and not on the range of the ruler.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class RulerValuePickerBoundsTest {
+
+    private static final int VIEW_WIDTH_PX = 1080;
+
+    private static final int VIEW_HEIGHT_PX = 300;
+
+    /**
+     * Ranges of the ruler. Ruler stays narrower than the largest measured width of the view.
+     */
+    private static final int[] RANGES = {100, 10_000, 200_000};
+
+    private static final int[] INTERVALS_PX = {4, 14, 40};
+
+    /**
+     * Draw calls of the indicators: one per level of the default ticks and the period pattern.
+     */
+    private static final int MAX_INDICATOR_DRAW_OPS = 4;
+
+    /**
+     * Maximum number of the glyphs of one value: the minus sign and the digits.
+     */
+    private static final int MAX_GLYPHS_PER_LABEL = 8;
+
+    /**
+     * Frames drawn to measure the allocation.
+     */
+    private static final int ALLOCATION_FRAMES = 200;
+
+    /**
+     * Average bytes allocated per frame. A single {@link String} per value is well above this.
+     */
+    private static final long MAX_BYTES_PER_FRAME = 128;
+
+    private static final long METRICS_WINDOW_MILLIS = 1000;
+
+    /**
+     * Tracer, that does nothing, so the systrace doesn't add to the allocation.
+     */
+    private static final RulerTracer NO_OP_TRACER = new RulerTracer() {
+        @Override
+        public void beginSection(@NonNull final String sectionName) {
+            //Nothing to record.
+        }
+
+        @Override
+        public void endSection() {
+            //Nothing to record.
+        }
+    };
+
+    private RulerValuePicker mPicker;
+
+    private RulerView mRulerView;
+
+    private final CountingCanvas mCanvas = new CountingCanvas();
+
+    /**
+     * Clock of the picker. It ends the metrics windows without waiting.
+     */
+    private final ManualRulerClock mClock = new ManualRulerClock();
+
+    /**
+     * Measure passes of the ruler reported by the last metrics, or -1 if nothing was reported.
+     */
+    private int mMeasurePasses;
+
+    @Before
+    public void setUp() {
+        mPicker = new RulerValuePicker(RuntimeEnvironment.application);
+        mPicker.setTracer(NO_OP_TRACER);
+        mPicker.setClock(mClock);
+
+        //Picker -> scroll view -> container -> left spacer, ruler, right spacer.
+        final ViewGroup container = (ViewGroup) ((ViewGroup) mPicker.getChildAt(0)).getChildAt(0);
+        mRulerView = (RulerView) container.getChildAt(1);
+        layOut();
+    }
+
+    @Test
+    public void drawOpsDependOnTheViewWidthOnly() {
+        for (int range : RANGES) {
+            for (int intervalPx : INTERVALS_PX) {
+                mPicker.setIndicatorIntervalDistance(intervalPx);
+                mPicker.setMinMaxValue(0, range);
+                layOut();
+
+                final int[] values = {0, range / 2, range};
+                for (int value : values) {
+                    final int drawOps = drawFrameAt(mRulerView.getModel().getScrollPxForValue(value));
+                    assertTrue("Draw ops: " + drawOps + ", range: " + range + ", interval: "
+                                    + intervalPx + ", value: " + value,
+                            drawOps <= getMaxDrawOps(intervalPx));
+                }
+            }
+        }
+    }
+
+    /**
+     * Only the ruler code is measured. The {@link CountingCanvas} doesn't pass any call of the
+     * frame to the Robolectric canvas shadow, which allocates on its own, and the tile cache is
+     * disabled. With the interval of 14 pixels, the full periods are filled with the period
+     * pattern and the partial periods are drawn line by line, so both paths are covered.
+     */
+    @Test
+    public void drawingDoesNotAllocate() {
+        assumeTrue(getThreadMXBean().isThreadAllocatedMemorySupported());
+
+        mPicker.setIndicatorIntervalDistance(14);
+        mPicker.setMinMaxValue(-100_000, 100_000);
+        layOut();
+
+        //Glyph atlas, period pattern and the line buffers are created by the first frames.
+        final int stepPx = VIEW_WIDTH_PX / 3;
+        for (int frame = 0; frame < 3; frame++) drawFrameAt(frame * stepPx);
+
+        final long startBytes = getAllocatedBytes();
+        for (int frame = 0; frame < ALLOCATION_FRAMES; frame++) drawFrameAt(frame * stepPx);
+        final long bytesPerFrame = (getAllocatedBytes() - startBytes) / ALLOCATION_FRAMES;
+
+        assertTrue("Bytes allocated per frame: " + bytesPerFrame, bytesPerFrame <= MAX_BYTES_PER_FRAME);
+    }
+
+    @Test
+    public void styleSettersDoNotMeasure() {
+        startCountingMeasurePasses();
+
+        mPicker.setTextColor(Color.RED);
+        assertEquals(0, countMeasurePasses());
+
+        mPicker.setTextSize(20);
+        assertEquals(0, countMeasurePasses());
+
+        mPicker.setIndicatorColor(Color.BLUE);
+        assertEquals(0, countMeasurePasses());
+
+        mPicker.setIndicatorWidth(6);
+        assertEquals(0, countMeasurePasses());
+
+        mPicker.setIndicatorHeight(0.8f, 0.3f);
+        assertEquals(0, countMeasurePasses());
+
+        mPicker.setNotchColor(Color.GREEN);
+        assertEquals(0, countMeasurePasses());
+    }
+
+    @Test
+    public void rangeSettersMeasureOnce() {
+        startCountingMeasurePasses();
+
+        mPicker.setMinMaxValue(0, 5_000);
+        assertTrue(countMeasurePasses() <= 1);
+
+        mPicker.setIndicatorIntervalDistance(20);
+        assertTrue(countMeasurePasses() <= 1);
+
+        //Same range doesn't change the width.
+        mPicker.setMinMaxValue(0, 5_000);
+        assertEquals(0, countMeasurePasses());
+    }
+
+    @Test
+    public void batchMeasuresOnce() {
+        startCountingMeasurePasses();
+
+        mPicker.beginUpdate();
+        mPicker.setMinMaxValue(-500, 500);
+        mPicker.setIndicatorIntervalDistance(10);
+        mPicker.setTextSize(18);
+        mPicker.setIndicatorColor(Color.YELLOW);
+        mPicker.commit();
+        assertTrue(countMeasurePasses() <= 1);
+    }
+
+    /**
+     * @return Maximum draw operations of the frame: one draw call per indicator level, and one
+     * per glyph of each value visible in the view, including the values partially visible at
+     * both ends.
+     */
+    private static int getMaxDrawOps(final int intervalPx) {
+        final int maxLabels = VIEW_WIDTH_PX / (intervalPx * RulerGeometry.LABEL_PERIOD) + 3;
+        return MAX_INDICATOR_DRAW_OPS + maxLabels * MAX_GLYPHS_PER_LABEL;
+    }
+
+    private void layOut() {
+        mPicker.measure(View.MeasureSpec.makeMeasureSpec(VIEW_WIDTH_PX, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(VIEW_HEIGHT_PX, View.MeasureSpec.EXACTLY));
+        mPicker.layout(0, 0, VIEW_WIDTH_PX, VIEW_HEIGHT_PX);
+    }
+
+    /**
+     * Draw the part of the ruler visible with the given value under the notch.
+     *
+     * @param scrollPx Position of the ruler under the notch.
+     * @return Number of the draw operations.
+     */
+    private int drawFrameAt(final int scrollPx) {
+        final int startPx = scrollPx - VIEW_WIDTH_PX / 2;
+        final int endPx = startPx + VIEW_WIDTH_PX;
+        mRulerView.setVisibleWindow(startPx, endPx);
+
+        mCanvas.reset(Math.max(0, startPx), Math.min(endPx, mRulerView.getRulerWidth()), VIEW_HEIGHT_PX);
+        mRulerView.onDraw(mCanvas);
+        return mCanvas.getDrawOpCount();
+    }
+
+    private void startCountingMeasurePasses() {
+        mPicker.setMetricsListener(new RulerMetricsListener() {
+            @Override
+            public void onMetrics(@NonNull final RulerRenderingMetrics metrics) {
+                mMeasurePasses = metrics.getMeasurePasses();
+            }
+        }, METRICS_WINDOW_MILLIS);
+        countMeasurePasses();
+    }
+
+    /**
+     * Lay out the picker if the layout is requested, like the next traversal would, and draw one
+     * frame to get the metrics.
+     *
+     * @return Measure passes of the ruler since the last call.
+     */
+    private int countMeasurePasses() {
+        if (mPicker.isLayoutRequested()) layOut();
+
+        //End the reporting window, so the next frame reports the metrics.
+        mClock.advance(METRICS_WINDOW_MILLIS);
+        mMeasurePasses = -1;
+        drawFrameAt(0);
+        return mMeasurePasses;
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    private static long getAllocatedBytes() {
+        return getThreadMXBean().getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018 Keval Patel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance wit
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ *  the specific language governing permissions and limitations under the License.
+ */
+
+package com.kevalpatel2106.rulerpicker;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Latency and the number of the value events of the {@link RulerValuePicker} during the
+ * simulated gestures. The final value must arrive within one frame after the ruler settles, only
+ * once per gesture, and the intermediate values at most once per frame.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class RulerValuePickerScrollTest {
+
+    private static final int VIEW_WIDTH_PX = 1080;
+
+    private static final int VIEW_HEIGHT_PX = 300;
+
+    private static final int MAX_VALUE = 1000;
+
+    /**
+     * Frames to run after the gesture. Longer than any fling of the test.
+     */
+    private static final int SETTLE_FRAMES = 600;
+
+    private RulerValuePicker mPicker;
+
+    private View mScrollView;
+
+    private RulerScrollSimulator mSimulator;
+
+    @Before
+    public void setUp() {
+        mPicker = new RulerValuePicker(RuntimeEnvironment.application);
+        mPicker.setMinMaxValue(0, MAX_VALUE);
+        mPicker.measure(View.MeasureSpec.makeMeasureSpec(VIEW_WIDTH_PX, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(VIEW_HEIGHT_PX, View.MeasureSpec.EXACTLY));
+        mPicker.layout(0, 0, VIEW_WIDTH_PX, VIEW_HEIGHT_PX);
+        mPicker.selectValue(MAX_VALUE / 2, false);
+
+        mScrollView = mPicker.getChildAt(0);
+        mSimulator = new RulerScrollSimulator(mPicker);
+    }
+
+    @Test
+    public void flingReportsTheFinalValueWithinOneFrame() {
+        final long startMillis = mSimulator.getClock().uptimeMillis();
+        final int startValue = mPicker.getCurrentValue();
+
+        mSimulator.fling(-600, 64);
+        final long settledMillis = runUntilSettled();
+
+        assertTrue("Fling didn't move the ruler.", mPicker.getCurrentValue() > startValue);
+        assertFinalValueReported(settledMillis);
+
+        //At most one intermediate value per frame, and they follow the fling direction.
+        final int frames = (int) ((settledMillis - startMillis) / RulerScrollSimulator.FRAME_MILLIS) + 1;
+        assertTrue("Events: " + mSimulator.getEventCount() + ", frames: " + frames,
+                mSimulator.getEventCount() - 1 <= frames);
+        for (int i = 1; i < mSimulator.getEventCount() - 1; i++) {
+            assertTrue(mSimulator.getEventValue(i) >= mSimulator.getEventValue(i - 1));
+            assertTrue(mSimulator.getEventTimeMillis(i) > mSimulator.getEventTimeMillis(i - 1));
+        }
+    }
+
+    @Test
+    public void dragReportsTheFinalValueWithinOneFrame() {
+        final int startValue = mPicker.getCurrentValue();
+
+        mSimulator.drag(200, 320);
+        final long settledMillis = runUntilSettled();
+
+        assertTrue("Drag didn't move the ruler.", mPicker.getCurrentValue() < startValue);
+        assertFinalValueReported(settledMillis);
+    }
+
+    @Test
+    public void touchWithoutMovementReportsNoIntermediateValue() {
+        mSimulator.touchDown();
+        mSimulator.hold();
+        mSimulator.release();
+        runUntilSettled();
+
+        for (int i = 0; i < mSimulator.getEventCount(); i++) {
+            assertEquals(RulerScrollSimulator.EVENT_VALUE, mSimulator.getEventType(i));
+        }
+        assertTrue(mSimulator.getEventCount() <= 1);
+    }
+
+    /**
+     * Run the frames until the ruler stops and a bit longer.
+     *
+     * @return Time of the frame, that last moved the ruler.
+     */
+    private long runUntilSettled() {
+        long settledMillis = mSimulator.getClock().uptimeMillis();
+        int lastScrollX = mScrollView.getScrollX();
+        for (int frame = 0; frame < SETTLE_FRAMES; frame++) {
+            mSimulator.runFrames(1);
+            if (mScrollView.getScrollX() != lastScrollX) {
+                lastScrollX = mScrollView.getScrollX();
+                settledMillis = mSimulator.getClock().uptimeMillis();
+            }
+        }
+        return settledMillis;
+    }
+
+    /**
+     * Check that the gesture reported the current value exactly once, as the last event, no later
+     * than one frame after the ruler settled.
+     */
+    private void assertFinalValueReported(final long settledMillis) {
+        final int last = mSimulator.getEventCount() - 1;
+        assertTrue("No events.", last >= 0);
+        assertEquals(RulerScrollSimulator.EVENT_VALUE, mSimulator.getEventType(last));
+        assertEquals(mPicker.getCurrentValue(), mSimulator.getEventValue(last));
+
+        final long latencyMillis = mSimulator.getEventTimeMillis(last) - settledMillis;
+        assertTrue("Latency: " + latencyMillis, latencyMillis >= 0);
+        assertTrue("Latency: " + latencyMillis, latencyMillis <= RulerScrollSimulator.FRAME_MILLIS);
+
+        for (int i = 0; i < last; i++) {
+            assertEquals(RulerScrollSimulator.EVENT_INTERMEDIATE_VALUE, mSimulator.getEventType(i));
+        }
+    }
+}